@@ -70,7 +70,7 @@ public class DatabaseConfig {
         if (url.startsWith("jdbc:")) {
             log.info("Detectado banco via JDBC URL: {}", url.startsWith("jdbc:mysql") ? "MySQL" : "Outro");
             return DataSourceBuilder.create()
-                    .url(url)
+                    .url(withBatchRewrite(url))
                     .username(username)
                     .password(password)
                     .driverClassName(properties.getDriverClassName())
@@ -104,7 +104,7 @@ public class DatabaseConfig {
             log.info("URL já está no formato JDBC PostgreSQL");
             return DataSourceBuilder.create()
                     .driverClassName("org.postgresql.Driver")
-                    .url(url)
+                    .url(withBatchRewrite(url))
                     .username(username)
                     .password(password)
                     .build();
@@ -140,7 +140,7 @@ public class DatabaseConfig {
 
             return DataSourceBuilder.create()
                     .driverClassName("org.postgresql.Driver")
-                    .url(jdbcUrl)
+                    .url(withBatchRewrite(jdbcUrl))
                     .username(finalUsername)
                     .password(finalPassword)
                     .build();
@@ -153,5 +153,23 @@ public class DatabaseConfig {
             throw new RuntimeException("Erro ao configurar banco de dados PostgreSQL", e);
         }
     }
-}
 
+    /**
+     * Ativa no driver a reescrita dos lotes JDBC em um único INSERT multi-valores
+     * (sem isso o MySQL/PostgreSQL ainda enviam um statement por linha do lote).
+     */
+    static String withBatchRewrite(String url) {
+        String parameter;
+        if (url.startsWith("jdbc:mysql")) {
+            parameter = "rewriteBatchedStatements=true";
+        } else if (url.startsWith("jdbc:postgresql")) {
+            parameter = "reWriteBatchedInserts=true";
+        } else {
+            return url;
+        }
+        if (url.contains(parameter.substring(0, parameter.indexOf('=')))) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + parameter;
+    }
+}
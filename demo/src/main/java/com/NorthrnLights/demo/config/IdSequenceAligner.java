@@ -0,0 +1,129 @@
+package com.NorthrnLights.demo.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Migração dos ids de IDENTITY para sequences com otimizador pooled (allocationSize 50).
+ *
+ * Bancos criados antes da mudança já têm linhas com ids, mas o ddl-auto cria as sequences
+ * (no MySQL, tabelas "*_seq" que emulam sequences) começando em 1. Na inicialização, antes
+ * de qualquer insert (runners e jobs agendados), cada sequence é avançada para além do
+ * maior id existente. Só avança: em bancos já alinhados não faz nada.
+ *
+ * Script equivalente para execução manual: db/migration/migrate_ids_to_sequences.sql
+ */
+@Slf4j
+@Component
+public class IdSequenceAligner {
+
+    // Deve ser igual ao allocationSize dos @SequenceGenerator das entidades
+    static final int ALLOCATION_SIZE = 50;
+
+    /**
+     * Tabela da entidade e sequence usada pelo seu id. Student/Teacher usam o id de "user" (JOINED).
+     */
+    record IdSequence(String table, String sequence) {
+    }
+
+    static final List<IdSequence> SEQUENCES = List.of(
+            new IdSequence("user", "user_seq"),
+            new IdSequence("question", "question_seq"),
+            new IdSequence("question_option", "question_option_seq"),
+            new IdSequence("answer", "answer_seq"),
+            new IdSequence("correction", "correction_seq"),
+            new IdSequence("exams", "exams_seq"),
+            new IdSequence("exam_grade", "exam_grade_seq"),
+            new IdSequence("weekly_grade", "weekly_grade_seq"),
+            new IdSequence("meet", "meet_seq"),
+            new IdSequence("recorded_classes", "recorded_classes_seq")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    // EntityManagerFactory injetado apenas para garantir que o schema (ddl-auto) já foi atualizado
+    public IdSequenceAligner(DataSource dataSource,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${jpa.id-sequences.align-on-startup:true}") boolean enabled) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void align() {
+        if (!enabled) {
+            return;
+        }
+        String product = databaseProduct();
+        boolean postgres = product.contains("postgres");
+        boolean mysql = product.contains("mysql");
+        if (!postgres && !mysql) {
+            log.debug("Alinhamento de sequences ignorado para o banco: {}", product);
+            return;
+        }
+
+        for (IdSequence idSequence : SEQUENCES) {
+            try {
+                Long maxId = jdbcTemplate.queryForObject(
+                        "SELECT MAX(id) FROM " + quote(idSequence.table(), postgres), Long.class);
+                if (maxId == null) {
+                    continue;
+                }
+                // Com o otimizador pooled, o valor lido da sequence é o topo do bloco:
+                // o bloco vai de (valor - 49) até valor, então o próximo valor deve ser >= maxId + 50
+                long next = maxId + ALLOCATION_SIZE + 1;
+                boolean moved = postgres
+                        ? alignPostgres(idSequence.sequence(), next)
+                        : alignMySql(idSequence.sequence(), next);
+                if (moved) {
+                    log.info("🔢 Sequence {} avançada para {} (maior id em {}: {})",
+                            idSequence.sequence(), next, idSequence.table(), maxId);
+                }
+            } catch (RuntimeException e) {
+                // Tabela ainda inexistente (ddl-auto desligado) não deve impedir a inicialização
+                log.warn("⚠️ Não foi possível alinhar a sequence {}: {}", idSequence.sequence(), e.getMessage());
+            }
+        }
+    }
+
+    private boolean alignPostgres(String sequence, long next) {
+        Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+        if (lastValue != null && lastValue >= next) {
+            return false;
+        }
+        // is_called = false: o próximo nextval retorna exatamente "next"
+        jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', ?, false)", Long.class, next);
+        return true;
+    }
+
+    private boolean alignMySql(String sequence, long next) {
+        // Tabela que emula a sequence: uma única linha com next_val
+        return jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", next, next) > 0;
+    }
+
+    private static String quote(String table, boolean postgres) {
+        // "user" é palavra reservada
+        return postgres ? "\"" + table + "\"" : "`" + table + "`";
+    }
+
+    private String databaseProduct() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+            return product == null ? "" : product.toLowerCase();
+        } catch (Exception e) {
+            log.warn("⚠️ Não foi possível identificar o banco para alinhar sequences: {}", e.getMessage());
+            return "";
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.NorthrnLights.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Coloca um id de correlação no MDC de cada requisição (reaproveitando X-Request-Id
+ * quando enviado e válido) e devolve o mesmo id na resposta. Também sorteia a requisição
+ * para o trace amostrado.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RequestCorrelationFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+    // O id vai para todas as linhas de log: sem espaços, '|' ou caracteres de controle
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._:-]{1," + MAX_REQUEST_ID_LENGTH + "}");
+
+    private final RequestTraceSampler traceSampler;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString().substring(0, 8);
+        }
+
+        MDC.put(RequestTraceSampler.MDC_REQUEST_ID, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        traceSampler.sampleRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(RequestTraceSampler.MDC_REQUEST_ID);
+            MDC.remove(RequestTraceSampler.MDC_TRACE);
+        }
+    }
+}
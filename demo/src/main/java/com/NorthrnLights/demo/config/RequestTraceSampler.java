@@ -0,0 +1,48 @@
+package com.NorthrnLights.demo.config;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decide quais requisições têm trace detalhado (logs DEBUG da aplicação).
+ *
+ * Uma requisição é rastreada quando sorteada pela taxa de amostragem ou quando o
+ * usuário autenticado é o configurado em logging.trace.user. A marcação fica no MDC
+ * e é aplicada pelo {@link SampledTraceTurboFilter}.
+ */
+@Component
+public class RequestTraceSampler {
+
+    public static final String MDC_REQUEST_ID = "requestId";
+    public static final String MDC_TRACE = "trace";
+
+    private final double sampleRate;
+    private final String traceUser;
+
+    public RequestTraceSampler(@Value("${logging.trace.sample-rate:0}") double sampleRate,
+                               @Value("${logging.trace.user:}") String traceUser) {
+        this.sampleRate = sampleRate;
+        this.traceUser = traceUser == null || traceUser.isBlank() ? null : traceUser.trim();
+    }
+
+    /**
+     * Sorteia a requisição atual e marca o MDC se ela entrar na amostra.
+     */
+    public void sampleRequest() {
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            MDC.put(MDC_TRACE, "sampled");
+        }
+    }
+
+    /**
+     * Marca o MDC se o email for o do usuário configurado para trace.
+     */
+    public void traceIfUser(String email) {
+        if (traceUser != null && traceUser.equalsIgnoreCase(email)) {
+            MDC.put(MDC_TRACE, "user");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.NorthrnLights.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * TurboFilter do Logback: libera DEBUG dos loggers da aplicação apenas nas requisições
+ * marcadas pelo {@link RequestTraceSampler}. Fora delas não interfere (NEUTRAL), então
+ * log.isDebugEnabled() continua barato e falso no caminho normal.
+ */
+public class SampledTraceTurboFilter extends TurboFilter {
+
+    private static final String APP_PACKAGE = "com.NorthrnLights";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.levelInt < Level.DEBUG_INT) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!logger.getName().startsWith(APP_PACKAGE) || MDC.get(RequestTraceSampler.MDC_TRACE) == null) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.ACCEPT;
+    }
+}
@@ -2,6 +2,10 @@ package com.NorthrnLights.demo.controller;
 
 import com.NorthrnLights.demo.domain.Answer;
 import com.NorthrnLights.demo.domain.Student;
+import com.NorthrnLights.demo.dto.AnswerSummary;
+import com.NorthrnLights.demo.dto.CursorPage;
+import com.NorthrnLights.demo.security.AuthenticatedUser;
+import com.NorthrnLights.demo.security.AuthenticatedUserResolver;
 import com.NorthrnLights.demo.service.AnswerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +26,7 @@ import java.util.List;
 public class AnswerController {
 
     private final AnswerService answerService;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     // Criar uma resposta
     @PostMapping(consumes = org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -32,35 +37,34 @@ public class AnswerController {
             @RequestParam(value = "imageFile", required = false) MultipartFile imageFile,
             Authentication authentication) throws IOException { // O arquivo de imagem (opcional)
 
-        log.info("🔍 DEBUG AnswerController: Recebendo POST /answers");
-        log.info("🔍 DEBUG AnswerController: Authentication: {}", authentication != null ? "present" : "null");
-        log.info("🔍 DEBUG AnswerController: studentId recebido: {}", studentId);
+        log.debug("Recebendo POST /answers");
+        log.debug("Authentication: {}", authentication != null ? "present" : "null");
+        log.debug("studentId recebido: {}", studentId);
         
         if (authentication == null || authentication.getPrincipal() == null) {
             log.error("❌ Authentication é null ou principal é null");
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário não autenticado");
         }
         
-        Object principal = authentication.getPrincipal();
-        log.info("🔍 DEBUG AnswerController: Principal type: {}", principal.getClass().getSimpleName());
-        log.info("🔍 DEBUG AnswerController: Authorities: {}", authentication.getAuthorities());
+        AuthenticatedUser authenticatedUser = authenticatedUserResolver.current(authentication);
+        log.debug("Principal role: {}", authenticatedUser.role());
+        log.debug("Authorities: {}", authentication.getAuthorities());
         
         // Usar o Student do Authentication ao invés do studentId do frontend
-        if (principal instanceof Student) {
-            Student authenticatedStudent = (Student) principal;
-            log.info("🔍 DEBUG AnswerController: Student ID do principal: {}", authenticatedStudent.getId());
+        if (authenticatedUser.isStudent()) {
+            log.debug("Student ID do principal: {}", authenticatedUser.id());
             
             // Validar que o studentId fornecido corresponde ao estudante autenticado
-            if (!authenticatedStudent.getId().equals(studentId)) {
+            if (!authenticatedUser.id().equals(studentId)) {
                 log.warn("⚠️ Tentativa de criar resposta com studentId diferente do autenticado. Autenticado: {}, Fornecido: {}", 
-                        authenticatedStudent.getId(), studentId);
+                        authenticatedUser.id(), studentId);
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
                         "Você só pode criar respostas para seu próprio perfil");
             }
             
             // Usar o ID do Student autenticado
-            studentId = authenticatedStudent.getId();
-        } else if (principal instanceof com.NorthrnLights.demo.domain.Teacher) {
+            studentId = authenticatedUser.id();
+        } else if (authenticatedUser.isTeacher()) {
             // Se o principal é Teacher, não pode criar respostas como estudante
             // Professores podem criar respostas para testes, mas precisam fornecer um studentId válido
             log.warn("⚠️ Principal é Teacher mas tentando criar resposta. Verificando studentId: {}", studentId);
@@ -68,7 +72,7 @@ public class AnswerController {
             // Verificar se o studentId fornecido existe e é válido
             try {
                 com.NorthrnLights.demo.domain.Student student = answerService.findStudentById(studentId);
-                log.info("✅ Student encontrado - ID: {}, Email: {}", student.getId(), student.getEmail());
+                log.debug("Student encontrado - ID: {}, Email: {}", student.getId(), student.getEmail());
                 // Manter o studentId fornecido para permitir que professores criem respostas para estudantes (testes)
             } catch (IllegalArgumentException e) {
                 log.error("❌ Student não encontrado com ID: {}. Erro: {}", studentId, e.getMessage());
@@ -78,15 +82,18 @@ public class AnswerController {
                         "Faça login como estudante para responder questões ou forneça um ID de estudante válido.");
             }
         } else {
-            log.error("❌ Principal não é um Student nem Teacher. Tipo: {}", principal.getClass().getSimpleName());
-            log.error("❌ Principal details: {}", principal);
+            log.error("❌ Principal não é um Student nem Teacher. Role: {}", authenticatedUser.role());
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
                     "Apenas estudantes ou professores podem criar respostas");
         }
 
         // Chama o serviço para criar a resposta usando o ID correto do Student
         Answer answer = answerService.createAnswer(text, questionId, studentId, imageFile);
-        log.info("✅ Resposta criada com sucesso: ID={}, Student ID={}", answer.getId(), studentId);
+        log.debug("Resposta criada: ID={}, Student ID={}", answer.getId(), studentId);
+        if (answer.getId() == null) {
+            // Ingestão via journal: aceita, gravada no banco em seguida
+            return ResponseEntity.accepted().body(answer);
+        }
         return ResponseEntity.ok(answer);
     }
 
@@ -100,10 +107,12 @@ public class AnswerController {
         return ResponseEntity.ok(answerService.getQuantity());
     }
 
-    // Buscar todas as respostas
+    // Buscar todas as respostas (paginadas por cursor)
     @GetMapping
-    public ResponseEntity<List<Answer>> getAllAnswers() {
-        return ResponseEntity.ok(answerService.findAll());
+    public ResponseEntity<CursorPage<AnswerSummary>> getAllAnswers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(answerService.findPage(null, cursor, size));
     }
 
     // Atualizar uma resposta
@@ -127,8 +136,11 @@ public class AnswerController {
 
     // Buscar todas as respostas de uma questão
     @GetMapping("/question/{questionId}")
-    public ResponseEntity<List<Answer>> getAnswersByQuestion(@PathVariable Long questionId) {
-        return ResponseEntity.ok(answerService.findAnswersByQuestionId(questionId));
+    public ResponseEntity<CursorPage<AnswerSummary>> getAnswersByQuestion(
+            @PathVariable Long questionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(answerService.findPage(questionId, cursor, size));
     }
 
     // Buscar respostas do estudante autenticado agrupadas por dia
@@ -138,10 +150,9 @@ public class AnswerController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof Student) {
-            Student student = (Student) principal;
-            List<Answer> answers = answerService.findAnswersByStudentId(student.getId());
+        if (authenticatedUserResolver.isStudent(authentication)) {
+            Long studentId = authenticatedUserResolver.current(authentication).id();
+            List<Answer> answers = answerService.findAnswersByStudentId(studentId);
             return ResponseEntity.ok(answers);
         }
 
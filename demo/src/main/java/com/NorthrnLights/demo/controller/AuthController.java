@@ -4,7 +4,9 @@ import com.NorthrnLights.demo.domain.Role;
 import com.NorthrnLights.demo.dto.AuthLogin;
 import com.NorthrnLights.demo.dto.AuthRegister;
 import com.NorthrnLights.demo.dto.AuthResponse;
+import com.NorthrnLights.demo.security.AuthRateLimiter;
 import com.NorthrnLights.demo.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,14 +17,20 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter authRateLimiter;
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@RequestBody AuthRegister registerRequest) {
+    public ResponseEntity<AuthResponse> register(@RequestBody AuthRegister registerRequest,
+                                                 HttpServletRequest request) {
+        // Admissão antes do AuthService: rejeitar aqui evita o custo do BCrypt
+        authRateLimiter.acquire(request, registerRequest.getEmail());
         return ResponseEntity.ok(authService.register(registerRequest, Role.STUDENT));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthLogin loginRequest) {
+    public ResponseEntity<AuthResponse> login(@RequestBody AuthLogin loginRequest,
+                                              HttpServletRequest request) {
+        authRateLimiter.acquire(request, loginRequest.getEmail());
         return ResponseEntity.ok(authService.login(loginRequest));
     }
 }
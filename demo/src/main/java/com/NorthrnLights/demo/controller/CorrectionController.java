@@ -2,6 +2,8 @@ package com.NorthrnLights.demo.controller;
 
 import com.NorthrnLights.demo.domain.Correction;
 import com.NorthrnLights.demo.dto.CorrectionDTO;
+import com.NorthrnLights.demo.dto.CorrectionSummary;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.service.CorrectionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -25,8 +27,10 @@ public class CorrectionController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Correction>> getAll() {
-        return ResponseEntity.ok(correctionService.findAll());
+    public ResponseEntity<CursorPage<CorrectionSummary>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(correctionService.findPage(null, cursor, size));
     }
 
     @GetMapping("/{id}")
@@ -47,10 +51,12 @@ public class CorrectionController {
     }
 
     @GetMapping("/my-corrections")
-    public ResponseEntity<List<Correction>> getMyCorrections(Authentication authentication) {
+    public ResponseEntity<CursorPage<CorrectionSummary>> getMyCorrections(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         // Endpoint para o teacher autenticado ver suas próprias correções
-        List<Correction> corrections = correctionService.findByAuthenticatedTeacher(authentication);
-        return ResponseEntity.ok(corrections);
+        return ResponseEntity.ok(correctionService.findPageByAuthenticatedTeacher(authentication, cursor, size));
     }
 
     @GetMapping("/answer/{answerId}")
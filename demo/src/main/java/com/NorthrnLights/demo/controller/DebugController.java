@@ -1,5 +1,15 @@
 package com.NorthrnLights.demo.controller;
 
+import com.NorthrnLights.demo.security.AuthRateLimiter;
+import com.NorthrnLights.demo.security.OffloadingPasswordEncoder;
+import com.NorthrnLights.demo.security.PrincipalCache;
+import com.NorthrnLights.demo.service.AnswerJournalService;
+import com.NorthrnLights.demo.service.ImageDerivativeService;
+import com.NorthrnLights.demo.service.QuestionExpiryCache;
+import com.NorthrnLights.demo.util.AutoCorrectionDeadlineScheduler;
+import com.NorthrnLights.demo.util.ContentAddressedUploadStore;
+import com.NorthrnLights.demo.util.OrphanedUploadSweeper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,8 +22,19 @@ import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/debug")
+@RequiredArgsConstructor
 public class DebugController {
 
+    private final PrincipalCache principalCache;
+    private final OffloadingPasswordEncoder passwordEncoder;
+    private final AuthRateLimiter authRateLimiter;
+    private final ImageDerivativeService imageDerivativeService;
+    private final QuestionExpiryCache questionExpiryCache;
+    private final AnswerJournalService answerJournalService;
+    private final ContentAddressedUploadStore uploadStore;
+    private final OrphanedUploadSweeper orphanedUploadSweeper;
+    private final AutoCorrectionDeadlineScheduler autoCorrectionDeadlines;
+
     @GetMapping("/test-public")
     public Map<String, String> testPublic() {
         Map<String, String> response = new HashMap<>();
@@ -59,4 +80,58 @@ public class DebugController {
         
         return response;
     }
-}
\ No newline at end of file
+
+    @GetMapping("/principal-cache")
+    @PreAuthorize("hasRole('TEACHER')")
+    public Map<String, Object> principalCacheStats() {
+        return principalCache.stats();
+    }
+
+    @GetMapping("/password-hashing")
+    @PreAuthorize("hasRole('TEACHER')")
+    public Map<String, Object> passwordHashingStats() {
+        return passwordEncoder.stats();
+    }
+
+    @GetMapping("/auth-rate-limit")
+    @PreAuthorize("hasRole('TEACHER')")
+    public Map<String, Object> authRateLimitStats() {
+        return authRateLimiter.stats();
+    }
+
+    @GetMapping("/image-derivatives")
+    @PreAuthorize("hasRole('TEACHER')")
+    public Map<String, Object> imageDerivativesStats() {
+        return imageDerivativeService.stats();
+    }
+
+    @GetMapping("/question-expiry-cache")
+    @PreAuthorize("hasRole('TEACHER')")
+    public Map<String, Object> questionExpiryCacheStats() {
+        return questionExpiryCache.stats();
+    }
+
+    @GetMapping("/answer-journal")
+    @PreAuthorize("hasRole('TEACHER')")
+    public Map<String, Object> answerJournalStats() {
+        return answerJournalService.stats();
+    }
+
+    @GetMapping("/upload-store")
+    @PreAuthorize("hasRole('TEACHER')")
+    public Map<String, Object> uploadStoreStats() {
+        return uploadStore.stats();
+    }
+
+    @GetMapping("/upload-sweeper")
+    @PreAuthorize("hasRole('TEACHER')")
+    public Map<String, Object> uploadSweeperStats() {
+        return orphanedUploadSweeper.stats();
+    }
+
+    @GetMapping("/auto-correction")
+    @PreAuthorize("hasRole('TEACHER')")
+    public Map<String, Object> autoCorrectionStats() {
+        return autoCorrectionDeadlines.stats();
+    }
+}
@@ -1,7 +1,10 @@
 package com.NorthrnLights.demo.controller;
 
 import com.NorthrnLights.demo.domain.Exam;
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.dto.ExamDTO;
+import com.NorthrnLights.demo.dto.ExamSummary;
 import com.NorthrnLights.demo.service.ExamService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -24,8 +27,10 @@ public class ExamController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Exam>> getAll() {
-        return ResponseEntity.ok(examService.findAll());
+    public ResponseEntity<CursorPage<ExamSummary>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(examService.findPage(cursor, size));
     }
 
     @GetMapping("/my-exams")
@@ -38,6 +43,11 @@ public class ExamController {
         return ResponseEntity.ok(examService.findById(id));
     }
 
+    @GetMapping("/{id}/questions")
+    public ResponseEntity<List<Question>> getQuestions(@PathVariable Long id) {
+        return ResponseEntity.ok(examService.findQuestions(id));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Exam> update(@PathVariable Long id, @RequestBody ExamDTO dto, Authentication authentication) {
         Exam exam = examService.updateExam(id, dto, authentication);
@@ -1,7 +1,9 @@
 package com.NorthrnLights.demo.controller;
 
 import com.NorthrnLights.demo.domain.ExamGrade;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.dto.ExamGradeDTO;
+import com.NorthrnLights.demo.dto.ExamGradeSummary;
 import com.NorthrnLights.demo.service.ExamGradeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -46,10 +49,14 @@ public class ExamGradeController {
     }
 
     @GetMapping("/exam/{examId}")
-    public ResponseEntity<List<ExamGrade>> getExamGrades(@PathVariable Long examId) {
+    public ResponseEntity<CursorPage<ExamGradeSummary>> getExamGrades(
+            @PathVariable Long examId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<ExamGrade> grades = examGradeService.getExamGrades(examId);
-            return ResponseEntity.ok(grades);
+            return ResponseEntity.ok(examGradeService.getExamGrades(examId, cursor, size));
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Erro ao buscar notas da prova", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -1,21 +1,42 @@
 package com.NorthrnLights.demo.controller;
 
+import com.NorthrnLights.demo.service.ImageDerivativeService;
+import com.NorthrnLights.demo.util.ContentAddressedUploadStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @RestController
+@RequiredArgsConstructor
 public class FileController {
 
+    private final ImageDerivativeService imageDerivativeService;
+
+    /**
+     * Serve arquivos enviados. Para imagens, ?size=thumb ou ?size=medium retorna a versão
+     * reduzida; se ela ainda não foi gerada, retorna o original (e agenda a geração).
+     *
+     * Arquivos nomeados pelo conteúdo (sha256) nunca mudam e são servidos com cache imutável;
+     * o original servido no lugar de uma versão ainda não gerada não entra nesse cache.
+     */
     @GetMapping("/uploads/**")
-    public ResponseEntity<Resource> serveFile(jakarta.servlet.http.HttpServletRequest request) {
+    public ResponseEntity<Resource> serveFile(jakarta.servlet.http.HttpServletRequest request,
+                                              @RequestParam(value = "size", required = false) String size) {
         try {
             // Obter o caminho completo da requisição
             String requestPath = request.getRequestURI();
@@ -38,9 +59,23 @@ public class FileController {
                 filePath = URLDecoder.decode(filePath, StandardCharsets.UTF_8.toString());
             } catch (Exception e) {
                 // Se falhar a decodificação, usar o caminho original
-                System.out.println("⚠️ DEBUG FileController - Erro ao decodificar URL: " + e.getMessage());
+                log.debug("Erro ao decodificar URL {}: {}", filePath, e.getMessage());
             }
             
+            Optional<ImageDerivativeService.Size> variant = ImageDerivativeService.Size.fromParameter(size);
+            if (variant.isPresent()) {
+                Optional<Path> derivative = imageDerivativeService.findDerivative(filePath, variant.get());
+                if (derivative.isPresent()) {
+                    Path derivativeFile = derivative.get();
+                    return immutableIfContentAddressed(filePath)
+                            .contentType(MediaType.parseMediaType(determineContentType(derivativeFile.toString())))
+                            .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + derivativeFile.getFileName() + "\"")
+                            .body(new FileSystemResource(derivativeFile));
+                }
+                // Imagens anteriores ao pipeline (ou fila cheia no upload): gerar agora, servir o original
+                imageDerivativeService.resolveOriginal(filePath).ifPresent(imageDerivativeService::schedule);
+            }
+
             // Tentar primeiro com user.dir (normalmente /app no Render)
             String userDir = System.getProperty("user.dir");
             java.io.File file1 = new java.io.File(userDir, filePath);
@@ -54,37 +89,8 @@ public class FileController {
                 if (file2.exists() && file2.isFile()) {
                     resource = new FileSystemResource(file2);
                 } else {
-                    // Log para debug
-                    System.out.println("❌ DEBUG FileController - Arquivo não encontrado:");
-                    System.out.println("   Request URI: " + request.getRequestURI());
-                    System.out.println("   File Path (decoded): " + filePath);
-                    System.out.println("   Tentado em: " + file1.getAbsolutePath());
-                    System.out.println("   Tentado em: " + file2.getAbsolutePath());
-                    
-                    // Tentar listar o diretório para debug
-                    java.io.File parentDir1 = file1.getParentFile();
-                    if (parentDir1 != null && parentDir1.exists()) {
-                        System.out.println("   Parent directory 1 exists: " + parentDir1.getAbsolutePath());
-                        java.io.File[] files = parentDir1.listFiles();
-                        if (files != null) {
-                            System.out.println("   Files in directory 1:");
-                            for (java.io.File f : files) {
-                                System.out.println("     - " + f.getName());
-                            }
-                        }
-                    }
-                    
-                    java.io.File parentDir2 = file2.getParentFile();
-                    if (parentDir2 != null && parentDir2.exists()) {
-                        System.out.println("   Parent directory 2 exists: " + parentDir2.getAbsolutePath());
-                        java.io.File[] files = parentDir2.listFiles();
-                        if (files != null) {
-                            System.out.println("   Files in directory 2:");
-                            for (java.io.File f : files) {
-                                System.out.println("     - " + f.getName());
-                            }
-                        }
-                    }
+                    log.debug("Arquivo não encontrado: {} (tentado em {} e {})",
+                            filePath, file1.getAbsolutePath(), file2.getAbsolutePath());
                 }
             }
 
@@ -102,7 +108,10 @@ public class FileController {
                 filename = filePath.substring(filePath.lastIndexOf('/') + 1);
             }
 
-            return ResponseEntity.ok()
+            ResponseEntity.BodyBuilder response = variant.isPresent()
+                    ? ResponseEntity.ok() // original no lugar da versão pedida: não pode ficar em cache imutável
+                    : immutableIfContentAddressed(filePath);
+            return response
                     .contentType(MediaType.parseMediaType(contentType))
                     .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
                     .body(resource);
@@ -111,6 +120,14 @@ public class FileController {
         }
     }
 
+    private ResponseEntity.BodyBuilder immutableIfContentAddressed(String filePath) {
+        String filename = filePath.substring(filePath.lastIndexOf('/') + 1);
+        if (ContentAddressedUploadStore.isContentAddressed(filename)) {
+            return ResponseEntity.ok().cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+        }
+        return ResponseEntity.ok();
+    }
+
     private String determineContentType(String filePath) {
         String lowerPath = filePath.toLowerCase();
         if (lowerPath.endsWith(".png")) {
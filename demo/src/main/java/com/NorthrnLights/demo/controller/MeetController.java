@@ -1,6 +1,7 @@
 package com.NorthrnLights.demo.controller;
 
 import com.NorthrnLights.demo.domain.Meet;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.dto.MeetDTO;
 import com.NorthrnLights.demo.service.MeetServiceImpl;
 import com.NorthrnLights.demo.service.EmailService;
@@ -83,11 +84,13 @@ public class MeetController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Meet>> findWithFilters(
+    public ResponseEntity<CursorPage<Meet>> findWithFilters(
             @RequestParam(required = false) Long id,
             @RequestParam(required = false) LocalDateTime startDate,
-            @RequestParam(required = false) LocalDateTime endDate) {
-        return ResponseEntity.ok(meetService.findWithFilters(id, startDate, endDate));
+            @RequestParam(required = false) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(meetService.findWithFilters(id, startDate, endDate, cursor, size));
     }
 
     @GetMapping("/{id}")
@@ -1,13 +1,19 @@
 package com.NorthrnLights.demo.controller;
 
 import com.NorthrnLights.demo.domain.Question;
-import com.NorthrnLights.demo.dto.QuestionBatchDTO;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.dto.QuestionDTO;
+import com.NorthrnLights.demo.dto.SearchPage;
+import com.NorthrnLights.demo.security.AuthenticatedUserResolver;
+import com.NorthrnLights.demo.service.CounterService;
+import com.NorthrnLights.demo.service.QuestionCatalogueSnapshot;
 import com.NorthrnLights.demo.service.QuestionService;
-import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +35,9 @@ import java.util.List;
 public class QuestionController {
 
     private final QuestionService questionService;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+    private final QuestionCatalogueSnapshot catalogueSnapshot;
+    private final CounterService counterService;
 
     /**
      * Criar uma questão individual via FormData.
@@ -117,17 +126,12 @@ public class QuestionController {
                     .body("Usuário não autenticado");
             }
             
-            Object principal = authentication.getPrincipal();
-            log.info("Principal type: {}", principal.getClass().getName());
-            
-            com.NorthrnLights.demo.domain.Teacher teacher;
-            if (principal instanceof com.NorthrnLights.demo.domain.Teacher) {
-                teacher = (com.NorthrnLights.demo.domain.Teacher) principal;
-            } else {
-                log.error("Principal não é um Teacher. Tipo: {}", principal.getClass().getName());
+            if (!authenticatedUserResolver.isTeacher(authentication)) {
+                log.error("Principal não é um Teacher. Tipo: {}", authentication.getPrincipal().getClass().getName());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body("Apenas professores podem criar questões");
             }
+            com.NorthrnLights.demo.domain.Teacher teacher = authenticatedUserResolver.requireTeacher(authentication);
             
             dto.setTeacher(teacher);
             
@@ -152,23 +156,19 @@ public class QuestionController {
     /**
      * Criar várias questões em lote via JSON.
      * Aceita imagens como base64 String no campo imageBase64.
+     * O corpo é lido de forma incremental (sem carregar o lote inteiro em memória)
+     * e as imagens são gravadas direto em arquivo enquanto o lote é lido.
      * 
-     * @param questionsBatchDTOs Lista de DTOs para criação em lote
+     * @param request Requisição com o array JSON de QuestionBatchDTO no corpo
      * @return Lista de questões criadas
      */
     @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> createQuestionsBatch(
-            @Valid @RequestBody List<QuestionBatchDTO> questionsBatchDTOs) {
+    public ResponseEntity<?> createQuestionsBatch(HttpServletRequest request) {
 
         try {
-            log.info("Recebida requisição para criar {} questões em lote", questionsBatchDTOs.size());
-            
-            if (questionsBatchDTOs == null || questionsBatchDTOs.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body("Lista de questões não pode estar vazia");
-            }
+            log.info("Recebida requisição para criar questões em lote ({} bytes)", request.getContentLengthLong());
 
-            List<Question> savedQuestions = questionService.createQuestionsBatch(questionsBatchDTOs);
+            List<Question> savedQuestions = questionService.createQuestionsBatch(request.getInputStream());
             
             log.info("{} questões criadas com sucesso", savedQuestions.size());
             return ResponseEntity.status(HttpStatus.CREATED).body(savedQuestions);
@@ -239,7 +239,7 @@ public class QuestionController {
             }
             
             // Get teacher from authentication
-            com.NorthrnLights.demo.domain.Teacher teacher = (com.NorthrnLights.demo.domain.Teacher) authentication.getPrincipal();
+            com.NorthrnLights.demo.domain.Teacher teacher = authenticatedUserResolver.requireTeacher(authentication);
             dto.setTeacher(teacher);
             
             // Preserve existing question type and multiple choice
@@ -269,7 +269,7 @@ public class QuestionController {
 
     @GetMapping("/quantity")
     public ResponseEntity<Long> getTotalQuestions() {
-        return ResponseEntity.ok((long) questionService.findAll().size());
+        return ResponseEntity.ok(counterService.get(CounterService.Counter.QUESTIONS));
     }
 
     @GetMapping("/{id}")
@@ -277,7 +277,7 @@ public class QuestionController {
         Question question = questionService.findById(id);
         
         // Se o usuário for estudante, verificar se a questão está visível
-        if (authentication != null && authentication.getPrincipal() instanceof com.NorthrnLights.demo.domain.Student) {
+        if (authenticatedUserResolver.isStudent(authentication)) {
             java.time.LocalDateTime now = java.time.LocalDateTime.now();
             if (question.getVisibleAt() != null && question.getVisibleAt().isAfter(now)) {
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
@@ -290,26 +290,72 @@ public class QuestionController {
         return ResponseEntity.ok(question);
     }
 
+    /**
+     * Catálogo de questões paginado por cursor. Alunos veem apenas questões já visíveis;
+     * professores veem todas. Para a próxima página, repetir a chamada com cursor = nextCursor.
+     */
     @GetMapping
-    public ResponseEntity<List<Question>> getQuestions(
+    public ResponseEntity<CursorPage<Question>> getQuestions(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String description,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Long teacherId,
+            @RequestParam(required = false) Long examId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             Authentication authentication
     ) {
-        List<Question> questions = questionService.filterQuestions(title, description, startDate, endDate);
-        
-        // Se o usuário for estudante, filtrar questões não visíveis
-        if (authentication != null && authentication.getPrincipal() instanceof com.NorthrnLights.demo.domain.Student) {
-            java.time.LocalDateTime now = java.time.LocalDateTime.now();
-            questions = questions.stream()
-                .filter(q -> q.getVisibleAt() == null || q.getVisibleAt().isBefore(now) || q.getVisibleAt().isEqual(now))
-                .collect(java.util.stream.Collectors.toList());
+        boolean onlyVisible = authenticatedUserResolver.isStudent(authentication);
+        return ResponseEntity.ok(questionService.findCataloguePage(
+                title, description, startDate, endDate, teacherId, examId, onlyVisible, cursor, size));
+    }
+
+    /**
+     * Catálogo completo de questões visíveis para alunos, servido a partir do snapshot em memória.
+     * Clientes que fazem polling devem reenviar o ETag em If-None-Match: sem mudanças, a resposta é 304.
+     */
+    @GetMapping("/visible")
+    public ResponseEntity<byte[]> getVisibleCatalogue(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        QuestionCatalogueSnapshot.Snapshot snapshot = catalogueSnapshot.current();
+        if (snapshot == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Catálogo ainda não disponível");
         }
-        // Professores veem todas as questões (sem filtro de visibilidade)
-        
-        return ResponseEntity.ok(questions);
+
+        if (ifNoneMatch != null && (ifNoneMatch.contains(snapshot.etag()) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    /**
+     * Busca textual por relevância em título, descrição, tradução e opções,
+     * sem diferenciar acentos (ex: "acao" encontra "ação").
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SearchPage<Question>> searchQuestions(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication
+    ) {
+        boolean onlyVisible = authenticatedUserResolver.isStudent(authentication);
+        return ResponseEntity.ok(questionService.search(query, onlyVisible, page, size));
     }
 
     @DeleteMapping("/{id}")
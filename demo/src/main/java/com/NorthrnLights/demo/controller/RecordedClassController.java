@@ -1,7 +1,9 @@
 package com.NorthrnLights.demo.controller;
 
 import com.NorthrnLights.demo.domain.RecordedClass;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.dto.RecordedClassDTO;
+import com.NorthrnLights.demo.dto.RecordedClassSummary;
 import com.NorthrnLights.demo.service.RecordedClassService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -61,10 +64,13 @@ public class RecordedClassController {
     }
 
     @GetMapping
-    public ResponseEntity<List<RecordedClass>> getAllRecordedClasses() {
+    public ResponseEntity<CursorPage<RecordedClassSummary>> getAllRecordedClasses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<RecordedClass> classes = recordedClassService.getAllRecordedClasses();
-            return ResponseEntity.ok(classes);
+            return ResponseEntity.ok(recordedClassService.getRecordedClassesPage(cursor, size));
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Erro ao buscar aulas gravadas", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
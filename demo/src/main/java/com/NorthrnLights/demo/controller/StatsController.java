@@ -0,0 +1,26 @@
+package com.NorthrnLights.demo.controller;
+
+import com.NorthrnLights.demo.service.CounterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final CounterService counterService;
+
+    /**
+     * Todos os contadores do dashboard em uma única chamada.
+     */
+    @GetMapping("/counters")
+    public ResponseEntity<Map<String, Long>> getCounters() {
+        return ResponseEntity.ok(counterService.getAll());
+    }
+}
@@ -1,11 +1,16 @@
 package com.NorthrnLights.demo.controller;
 
 import com.NorthrnLights.demo.domain.Student;
+import com.NorthrnLights.demo.dto.CursorPage;
+import com.NorthrnLights.demo.dto.StudentActivityItem;
 import com.NorthrnLights.demo.dto.StudentRegisterDTO;
+import com.NorthrnLights.demo.security.AuthenticatedUserResolver;
+import com.NorthrnLights.demo.service.AnswerService;
 import com.NorthrnLights.demo.service.StudentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,6 +22,8 @@ import java.util.List;
 public class StudentController {
 
     private final StudentService studentService;
+    private final AnswerService answerService;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @PostMapping
     public ResponseEntity<Student> createStudent(@RequestBody StudentRegisterDTO studentDTO) {
@@ -35,6 +42,16 @@ public class StudentController {
         return ResponseEntity.ok(studentService.findStudentsQuantity());
     }
 
+    // Atividade do estudante autenticado: respostas com título da questão e correção, paginadas por cursor
+    @GetMapping("/me/activity")
+    public ResponseEntity<CursorPage<StudentActivityItem>> getMyActivity(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Long studentId = authenticatedUserResolver.requireStudentId(authentication);
+        return ResponseEntity.ok(answerService.findActivityPage(studentId, cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Student> getStudentById(@PathVariable Long id) {
         Student student = studentService.findById(id);
@@ -31,7 +31,7 @@ public class TeacherController {
 
     @GetMapping("/quantity")
     public ResponseEntity<Integer> getTeacherQuatity() {
-        return ResponseEntity.ok(teacherService.findAll().size());
+        return ResponseEntity.ok(teacherService.findListedQuantity());
     }
 
     @GetMapping("/{id}")
@@ -5,9 +5,13 @@ import com.NorthrnLights.demo.domain.Teacher;
 import com.NorthrnLights.demo.domain.User;
 import com.NorthrnLights.demo.repository.StudentRepository;
 import com.NorthrnLights.demo.repository.TeacherRepository;
+import com.NorthrnLights.demo.security.AuthenticatedUser;
+import com.NorthrnLights.demo.security.AuthenticatedUserResolver;
+import com.NorthrnLights.demo.security.PrincipalCache;
+import com.NorthrnLights.demo.service.ImageDerivativeService;
 import com.NorthrnLights.demo.service.StudentService;
 import com.NorthrnLights.demo.service.TeacherService;
-import com.NorthrnLights.demo.util.UploadDirectoryManager;
+import com.NorthrnLights.demo.util.ContentAddressedUploadStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -18,13 +22,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/users")
@@ -37,7 +35,10 @@ public class UserController {
     private final StudentRepository studentRepository;
     private final TeacherRepository teacherRepository;
     private final PasswordEncoder passwordEncoder;
-    private final UploadDirectoryManager uploadDirectoryManager;
+    private final ContentAddressedUploadStore uploadStore;
+    private final ImageDerivativeService imageDerivativeService;
+    private final PrincipalCache principalCache;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @PutMapping(value = "/{id}", consumes = {"multipart/form-data"})
     public ResponseEntity<?> updateProfile(
@@ -54,19 +55,13 @@ public class UserController {
                 throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário não autenticado");
             }
             
-            Object principal = authentication.getPrincipal();
-            User authenticatedUser = null;
-            
-            if (principal instanceof Student) {
-                authenticatedUser = (Student) principal;
-            } else if (principal instanceof Teacher) {
-                authenticatedUser = (Teacher) principal;
-            } else {
+            AuthenticatedUser authenticatedUser = authenticatedUserResolver.current(authentication);
+            if (!authenticatedUser.isStudent() && !authenticatedUser.isTeacher()) {
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Tipo de usuário não reconhecido");
             }
             
             // Verificar se o usuário está tentando atualizar seu próprio perfil
-            if (!authenticatedUser.getId().equals(id)) {
+            if (!authenticatedUser.id().equals(id)) {
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
                     "Você só pode atualizar seu próprio perfil");
             }
@@ -74,7 +69,7 @@ public class UserController {
             User updatedUser = null;
             
             // Atualizar baseado no tipo de usuário
-            if (authenticatedUser instanceof Student) {
+            if (authenticatedUser.isStudent()) {
                 Student student = studentService.findById(id);
                 if (userName != null && !userName.trim().isEmpty()) {
                     student.setUserName(userName);
@@ -88,30 +83,13 @@ public class UserController {
                 
                 // Processar imagem de perfil
                 if (profileImage != null && !profileImage.isEmpty()) {
-                    String imagePath = saveProfileImage(profileImage, id, "student");
-                    student.setProfileImage(imagePath);
-                }
-                
-                // Atualizar campos básicos
-                if (userName != null && !userName.trim().isEmpty()) {
-                    student.setUserName(userName);
-                }
-                if (email != null && !email.trim().isEmpty()) {
-                    student.setEmail(email);
-                }
-                if (password != null && !password.trim().isEmpty()) {
-                    student.setPassword(passwordEncoder.encode(password));
-                }
-                
-                // Processar imagem de perfil
-                if (profileImage != null && !profileImage.isEmpty()) {
-                    String imagePath = saveProfileImage(profileImage, id, "student");
+                    String imagePath = saveProfileImage(profileImage);
                     student.setProfileImage(imagePath);
                 }
                 
                 // Salvar usando repository diretamente
                 updatedUser = studentRepository.save(student);
-            } else if (authenticatedUser instanceof Teacher) {
+            } else if (authenticatedUser.isTeacher()) {
                 Teacher teacher = teacherService.findById(id);
                 if (userName != null && !userName.trim().isEmpty()) {
                     teacher.setUserName(userName);
@@ -125,7 +103,7 @@ public class UserController {
                 
                 // Processar imagem de perfil
                 if (profileImage != null && !profileImage.isEmpty()) {
-                    String imagePath = saveProfileImage(profileImage, id, "teacher");
+                    String imagePath = saveProfileImage(profileImage);
                     teacher.setProfileImage(imagePath);
                 }
                 
@@ -133,6 +111,12 @@ public class UserController {
                 updatedUser = teacherRepository.save(teacher);
             }
             
+            // Principal em cache está desatualizado (email, senha ou imagem podem ter mudado)
+            principalCache.invalidate(authenticatedUser.email());
+            if (updatedUser != null) {
+                principalCache.invalidate(updatedUser.getEmail());
+            }
+
             log.info("✅ Perfil do usuário {} atualizado com sucesso", id);
             return ResponseEntity.ok(updatedUser);
             
@@ -145,7 +129,7 @@ public class UserController {
         }
     }
     
-    private String saveProfileImage(MultipartFile file, Long userId, String userType) throws IOException {
+    private String saveProfileImage(MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             return null;
         }
@@ -161,27 +145,13 @@ public class UserController {
             throw new IllegalArgumentException("Imagem deve ter no máximo 5MB");
         }
         
-        // Obter diretório usando o gerenciador centralizado
-        String uploadDir = uploadDirectoryManager.getUploadDir("profiles");
-        Path uploadPath = Paths.get(uploadDir);
-        
-        // Gerar nome único para o arquivo
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        // Nome pelo conteúdo: reenviar a mesma foto não grava outro arquivo
+        ContentAddressedUploadStore.StoredFile stored = uploadStore.store("profiles", file);
+        if (stored.created()) {
+            imageDerivativeService.schedule(stored.file());
         }
-        String filename = userType + "_" + userId + "_" + UUID.randomUUID().toString() + extension;
-        
-        // Salvar arquivo
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        
-        // Retornar caminho relativo
-        String relativePath = "/uploads/profiles/" + filename;
-        log.info("✅ Imagem de perfil salva: {}", filePath.toAbsolutePath());
-        log.info("🔍 Caminho relativo: {}", relativePath);
-        return relativePath;
+        log.info("✅ Imagem de perfil salva: {} (nova: {})", stored.urlPath(), stored.created());
+        return stored.urlPath();
     }
 }
 
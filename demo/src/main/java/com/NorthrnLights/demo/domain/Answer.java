@@ -10,17 +10,28 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = Answer.UNIQUE_QUESTION_STUDENT, columnNames = {"question_id", "student_id"}),
+        indexes = {
+                @Index(name = "idx_answer_student_created_at", columnList = "student_id, created_at"),
+                @Index(name = "idx_answer_image_path", columnList = "image_path")
+        })
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Answer {
 
+    // Uma resposta por aluno e questão (ver AnswerService.createAnswer)
+    public static final String UNIQUE_QUESTION_STUDENT = "uk_answer_question_student";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "answer_seq")
+    @SequenceGenerator(name = "answer_seq", sequenceName = "answer_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
+    @JoinColumn(name = "student_id")
     @JsonIgnoreProperties({"answers", "createAt", "lastLogin", "levelEnglish", "status"})
     private Student student; // Student herda de User, então tem userName, email, id
 
@@ -40,6 +51,9 @@ public class Answer {
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Respostas vindas do journal já trazem o horário do envio
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 }
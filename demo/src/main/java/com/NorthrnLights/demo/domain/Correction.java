@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+// Uma correção por resposta: impede a correção automática de corrigir a mesma resposta duas vezes
+@Table(indexes = @Index(name = "idx_correction_answer_id", columnList = "answer_id", unique = true))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,7 +14,8 @@ import lombok.*;
 public class Correction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "correction_seq")
+    @SequenceGenerator(name = "correction_seq", sequenceName = "correction_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -21,6 +24,10 @@ public class Correction {
     @Column(columnDefinition = "TEXT")
     private String feedback; // Texto da correção
 
+    // Pontuação da correção automática (fração da questão, negativa com desconto por erro);
+    // null nas correções manuais
+    private Double points;
+
     @ManyToOne
     @JoinColumn(name = "answer_id")
     @JsonIgnoreProperties({"corrections", "student", "question"})
@@ -19,7 +19,8 @@ import java.util.List;
 public class Exam {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exams_seq")
+    @SequenceGenerator(name = "exams_seq", sequenceName = "exams_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class ExamGrade {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exam_grade_seq")
+    @SequenceGenerator(name = "exam_grade_seq", sequenceName = "exam_grade_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "points_obtained", nullable = false)
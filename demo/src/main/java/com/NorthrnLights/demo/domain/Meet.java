@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Data;
 
 
@@ -14,7 +15,8 @@ import java.time.LocalDateTime;
 public class Meet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meet_seq")
+    @SequenceGenerator(name = "meet_seq", sequenceName = "meet_seq", allocationSize = 50)
     private Long id;
 
     private String title;
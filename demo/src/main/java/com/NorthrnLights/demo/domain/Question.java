@@ -1,5 +1,6 @@
 package com.NorthrnLights.demo.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -11,6 +12,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_question_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_question_exam_id", columnList = "exam_id"),
+        @Index(name = "idx_question_image_path", columnList = "image_path"),
+        @Index(name = "idx_question_auto_correction", columnList = "auto_corrected_at, expires_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,7 +25,8 @@ import java.util.List;
 public class Question {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_seq")
+    @SequenceGenerator(name = "question_seq", sequenceName = "question_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -61,6 +69,12 @@ public class Question {
     @Column(name = "visible_at")
     private LocalDateTime visibleAt; // Data em que a questão ficará visível para os alunos
 
+    // Marca d'água da correção automática: preenchida quando todas as respostas da questão
+    // expirada já têm correção; a partir daí o AutoCorrectionScheduler não a consulta mais
+    @Column(name = "auto_corrected_at")
+    @JsonIgnore
+    private LocalDateTime autoCorrectedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -15,7 +15,8 @@ import lombok.NoArgsConstructor;
 public class QuestionOption {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_option_seq")
+    @SequenceGenerator(name = "question_option_seq", sequenceName = "question_option_seq", allocationSize = 50)
     private Long id;
 
     private String text; // Texto da opção
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class RecordedClass {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recorded_classes_seq")
+    @SequenceGenerator(name = "recorded_classes_seq", sequenceName = "recorded_classes_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
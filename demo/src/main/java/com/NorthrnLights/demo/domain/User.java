@@ -9,7 +9,8 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "\"user\"") // Escapa o nome da tabela pois "user" é palavra reservada no PostgreSQL
+@Table(name = "\"user\"", // Escapa o nome da tabela pois "user" é palavra reservada no PostgreSQL
+        indexes = @Index(name = "idx_user_profile_image", columnList = "profile_image"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,7 +18,8 @@ import lombok.experimental.SuperBuilder;
 @Inheritance(strategy = InheritanceType.JOINED) // ou SINGLE_TABLE ou TABLE_PER_CLASS
 public abstract class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
     private String userName;
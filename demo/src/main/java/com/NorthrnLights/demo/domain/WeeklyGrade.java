@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class WeeklyGrade {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "weekly_grade_seq")
+    @SequenceGenerator(name = "weekly_grade_seq", sequenceName = "weekly_grade_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "points_obtained")
@@ -0,0 +1,17 @@
+package com.NorthrnLights.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da listagem de respostas: só as colunas exibidas, com questão e aluno achatados
+ * (uma consulta por página, sem carregar as entidades relacionadas).
+ */
+public record AnswerSummary(Long id,
+                            String text,
+                            String imagePath,
+                            LocalDateTime createdAt,
+                            Long questionId,
+                            String questionTitle,
+                            Long studentId,
+                            String studentName) {
+}
@@ -0,0 +1,19 @@
+package com.NorthrnLights.demo.dto;
+
+import com.NorthrnLights.demo.domain.Grade;
+
+/**
+ * Linha da listagem de correções: resposta, questão, aluno e professor achatados.
+ */
+public record CorrectionSummary(Long id,
+                                Grade grade,
+                                String feedback,
+                                Double points,
+                                Long answerId,
+                                Long questionId,
+                                String questionTitle,
+                                Long studentId,
+                                String studentName,
+                                Long teacherId,
+                                String teacherName) {
+}
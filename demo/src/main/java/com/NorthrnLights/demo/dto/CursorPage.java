@@ -0,0 +1,9 @@
+package com.NorthrnLights.demo.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados paginados por cursor. nextCursor é null na última página.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasMore) {
+}
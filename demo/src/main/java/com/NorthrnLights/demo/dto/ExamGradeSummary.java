@@ -0,0 +1,29 @@
+package com.NorthrnLights.demo.dto;
+
+import com.NorthrnLights.demo.domain.Grade;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da listagem de notas de uma prova, com o aluno achatado.
+ */
+public record ExamGradeSummary(Long id,
+                               Double pointsObtained,
+                               Double totalPoints,
+                               Double percentage,
+                               Grade grade,
+                               String feedback,
+                               LocalDateTime createdAt,
+                               Long studentId,
+                               String studentName) {
+
+    /**
+     * Usado pela consulta; percentage é calculado como em ExamGrade.getPercentage().
+     */
+    public ExamGradeSummary(Long id, Double pointsObtained, Double totalPoints, Grade grade, String feedback,
+                            LocalDateTime createdAt, Long studentId, String studentName) {
+        this(id, pointsObtained, totalPoints,
+                totalPoints == null || totalPoints == 0 ? 0.0 : (pointsObtained / totalPoints) * 100.0,
+                grade, feedback, createdAt, studentId, studentName);
+    }
+}
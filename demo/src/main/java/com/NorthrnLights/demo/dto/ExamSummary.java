@@ -0,0 +1,19 @@
+package com.NorthrnLights.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da listagem de provas, sem as questões (GET /exams/{id}/questions).
+ */
+public record ExamSummary(Long id,
+                          String title,
+                          String description,
+                          LocalDateTime startDate,
+                          LocalDateTime endDate,
+                          Integer durationMinutes,
+                          Integer totalScore,
+                          Boolean isActive,
+                          LocalDateTime createdAt,
+                          Long teacherId,
+                          String teacherName) {
+}
@@ -0,0 +1,17 @@
+package com.NorthrnLights.demo.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Linha da listagem de aulas gravadas, com o professor achatado.
+ */
+public record RecordedClassSummary(Long id,
+                                   String title,
+                                   String description,
+                                   String videoUrl,
+                                   LocalDate classDate,
+                                   LocalDateTime createdAt,
+                                   Long teacherId,
+                                   String teacherName) {
+}
@@ -0,0 +1,9 @@
+package com.NorthrnLights.demo.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados de busca ranqueada (paginação por número de página).
+ */
+public record SearchPage<T>(List<T> items, int page, int size, long totalHits) {
+}
@@ -0,0 +1,22 @@
+package com.NorthrnLights.demo.dto;
+
+import com.NorthrnLights.demo.domain.Grade;
+
+import java.time.LocalDateTime;
+
+/**
+ * Item da atividade do aluno: a resposta, o título da questão e a sua correção.
+ * correctionId, grade, feedback e points são null enquanto a resposta não foi corrigida
+ * (points também em correções manuais).
+ */
+public record StudentActivityItem(Long answerId,
+                                  String text,
+                                  String imagePath,
+                                  LocalDateTime createdAt,
+                                  Long questionId,
+                                  String questionTitle,
+                                  Long correctionId,
+                                  Grade grade,
+                                  String feedback,
+                                  Double points) {
+}
@@ -1,6 +1,7 @@
 package com.NorthrnLights.demo.exception;
 
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -41,6 +42,19 @@ public class GlobalExceptionHandler {
         log.warn("Erro de validação: {}", errors);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
-}
 
+    /**
+     * Trata excesso de tentativas (rate limit) com 429 e Retry-After.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceeded(RateLimitExceededException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", ex.getMessage());
+        response.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        response.put("retryAfterSeconds", ex.getRetryAfterSeconds());
 
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+}
@@ -0,0 +1,18 @@
+package com.NorthrnLights.demo.exception;
+
+import lombok.Getter;
+
+/**
+ * Lançada quando uma requisição excede o limite de taxa configurado.
+ * Tratada pelo {@link GlobalExceptionHandler} como 429 com header Retry-After.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,141 @@
+package com.NorthrnLights.demo.grading;
+
+import com.NorthrnLights.demo.domain.QuestionOption;
+
+import java.util.List;
+
+/**
+ * Gabarito compilado de uma questão de múltipla escolha: opções corretas como bitset (bit i =
+ * opção i, letra 'A' + i), quantidade de opções e os textos das opções já sem espaços nas
+ * pontas. Imutável; compilado uma vez por questão e reutilizado para todas as respostas.
+ *
+ * select() interpreta a resposta sem regex e sem alocar: "A) texto", "A", listas de letras
+ * ("A, C", "A;C", "A C") ou o texto de uma das opções (sem diferenciar maiúsculas).
+ * Só as primeiras 26 opções têm letra; opções além de 64 são ignoradas.
+ */
+public final class AnswerKey {
+
+    public static final int MAX_OPTIONS = 64;
+    private static final int LETTERS = 26;
+
+    private final long correctMask;
+    private final int optionCount;
+    private final String[] optionTexts;
+
+    private AnswerKey(long correctMask, int optionCount, String[] optionTexts) {
+        this.correctMask = correctMask;
+        this.optionCount = optionCount;
+        this.optionTexts = optionTexts;
+    }
+
+    public static AnswerKey compile(List<QuestionOption> options) {
+        int count = options == null ? 0 : Math.min(options.size(), MAX_OPTIONS);
+        long mask = 0;
+        String[] texts = new String[count];
+        for (int i = 0; i < count; i++) {
+            QuestionOption option = options.get(i);
+            if (option.isCorrect()) {
+                mask |= 1L << i;
+            }
+            texts[i] = option.getText() == null ? "" : option.getText().trim();
+        }
+        return new AnswerKey(mask, count, texts);
+    }
+
+    public long correctMask() {
+        return correctMask;
+    }
+
+    public int optionCount() {
+        return optionCount;
+    }
+
+    public int correctCount() {
+        return Long.bitCount(correctMask);
+    }
+
+    /**
+     * Opções escolhidas na resposta.
+     *
+     * @return bitset das opções, ou 0 se a resposta estiver vazia, citar uma letra fora das
+     * opções ou não corresponder a nenhuma opção
+     */
+    public long select(String answer) {
+        if (answer == null) {
+            return 0;
+        }
+        int start = 0;
+        int end = answer.length();
+        while (start < end && answer.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && answer.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return 0;
+        }
+
+        // "A) texto da opção": vale a letra
+        char first = answer.charAt(start);
+        if (isLetter(first) && start + 1 < end && answer.charAt(start + 1) == ')') {
+            return letterBit(first);
+        }
+
+        long letters = selectLetters(answer, start, end);
+        if (letters != -1) {
+            return letters;
+        }
+        return selectByText(answer, start, end - start);
+    }
+
+    /**
+     * Lista de letras isoladas separadas por vírgula, ponto e vírgula, barra ou espaço.
+     *
+     * @return bitset (0 se alguma letra estiver fora das opções), ou -1 se não for uma lista
+     */
+    private long selectLetters(String answer, int start, int end) {
+        long mask = 0;
+        boolean invalid = false;
+        int i = start;
+        while (i < end) {
+            char c = answer.charAt(i);
+            if (!isLetter(c) || (i + 1 < end && !isSeparator(answer.charAt(i + 1)))) {
+                return -1;
+            }
+            long bit = letterBit(c);
+            if (bit == 0) {
+                invalid = true;
+            }
+            mask |= bit;
+            i++;
+            while (i < end && isSeparator(answer.charAt(i))) {
+                i++;
+            }
+        }
+        return invalid ? 0 : mask;
+    }
+
+    private long selectByText(String answer, int start, int length) {
+        for (int i = 0; i < optionTexts.length; i++) {
+            String text = optionTexts[i];
+            if (text.length() == length && answer.regionMatches(true, start, text, 0, length)) {
+                return 1L << i;
+            }
+        }
+        return 0;
+    }
+
+    private long letterBit(char letter) {
+        int index = letter - 'A';
+        return index < Math.min(optionCount, LETTERS) ? 1L << index : 0;
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == ';' || c == '/' || c <= ' ';
+    }
+}
@@ -0,0 +1,87 @@
+package com.NorthrnLights.demo.grading;
+
+import com.NorthrnLights.demo.domain.Grade;
+import com.NorthrnLights.demo.util.GradeCalculator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Correção de respostas de múltipla escolha com a estratégia de corrections.auto.strategy:
+ * single-choice (padrão, tudo ou nada), partial-credit (múltipla seleção com crédito
+ * parcial) ou negative-marking (desconto de negative-penalty por resposta errada).
+ * A pontuação vai para Correction.points: a Grade não fica abaixo de F, então é ali que o
+ * desconto (ou o crédito parcial exato) fica registrado.
+ *
+ * Nota e feedback saem de constantes montadas na inicialização: corrigir uma resposta não
+ * aloca nada além do que o chamador já tem (gabarito compilado e texto da resposta).
+ */
+@Slf4j
+@Component
+public class MultipleChoiceGrader {
+
+    private static final String CORRECT_FEEDBACK = "Resposta correta! Parabéns!";
+    private static final String PARTIAL_FEEDBACK = "Resposta parcialmente correta. Revise as opções marcadas.";
+    private static final String INCORRECT_FEEDBACK = "Resposta incorreta. Revise o conteúdo.";
+
+    private final ScoringStrategy strategy;
+    private final String penaltyFeedback;
+
+    @Autowired
+    public MultipleChoiceGrader(@Value("${corrections.auto.strategy:single-choice}") String strategy,
+                                @Value("${corrections.auto.negative-penalty:0.25}") double negativePenalty) {
+        this(forName(strategy, negativePenalty));
+        log.info("📝 Estratégia de correção de múltipla escolha: {}", strategy);
+    }
+
+    public MultipleChoiceGrader(ScoringStrategy strategy) {
+        this.strategy = strategy;
+        this.penaltyFeedback = strategy instanceof NegativeMarkingScoring negative
+                ? String.format(Locale.ROOT, "Resposta incorreta (-%.2f). Revise o conteúdo.", negative.penalty())
+                : INCORRECT_FEEDBACK;
+    }
+
+    public static ScoringStrategy forName(String name, double negativePenalty) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "single-choice" -> new SingleChoiceScoring();
+            case "partial-credit" -> new PartialCreditScoring();
+            case "negative-marking" -> new NegativeMarkingScoring(negativePenalty);
+            default -> throw new IllegalArgumentException("Estratégia de correção desconhecida: " + name);
+        };
+    }
+
+    /**
+     * Fração da questão obtida pela resposta (ver ScoringStrategy.score).
+     */
+    public double score(AnswerKey key, String answer) {
+        return strategy.score(key, key.select(answer));
+    }
+
+    /**
+     * Nota da correção: A para a questão inteira (como a correção original), F para zero ou
+     * negativo e, no crédito parcial, pela porcentagem (no máximo A-).
+     */
+    public Grade gradeFor(double score) {
+        if (score >= 1.0) {
+            return Grade.A;
+        }
+        if (score <= 0.0) {
+            return Grade.F;
+        }
+        Grade grade = GradeCalculator.calculateGradeFromPercentage(score * 100.0);
+        return grade.compareTo(Grade.A_MINUS) < 0 ? Grade.A_MINUS : grade;
+    }
+
+    public String feedbackFor(double score) {
+        if (score >= 1.0) {
+            return CORRECT_FEEDBACK;
+        }
+        if (score < 0.0) {
+            return penaltyFeedback;
+        }
+        return score > 0.0 ? PARTIAL_FEEDBACK : INCORRECT_FEEDBACK;
+    }
+}
@@ -0,0 +1,29 @@
+package com.NorthrnLights.demo.grading;
+
+/**
+ * Uma opção, com desconto por erro: correta vale 1, errada (ou mais de uma opção) vale
+ * -penalty e resposta em branco ou inválida vale 0, sem desconto.
+ */
+public final class NegativeMarkingScoring implements ScoringStrategy {
+
+    private final double penalty;
+
+    public NegativeMarkingScoring(double penalty) {
+        if (penalty < 0 || penalty > 1) {
+            throw new IllegalArgumentException("Desconto por erro deve estar entre 0 e 1: " + penalty);
+        }
+        this.penalty = penalty;
+    }
+
+    public double penalty() {
+        return penalty;
+    }
+
+    @Override
+    public double score(AnswerKey key, long selected) {
+        if (selected == 0) {
+            return 0.0;
+        }
+        return Long.bitCount(selected) == 1 && (selected & key.correctMask()) != 0 ? 1.0 : -penalty;
+    }
+}
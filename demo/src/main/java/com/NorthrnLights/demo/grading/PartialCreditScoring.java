@@ -0,0 +1,29 @@
+package com.NorthrnLights.demo.grading;
+
+/**
+ * Múltipla seleção com crédito parcial: cada opção correta escolhida vale 1/corretas e cada
+ * opção incorreta escolhida desconta 1/incorretas, com resultado entre 0 e 1.
+ *
+ * Só vale para questões com mais de uma opção correta: nas de resposta única, marcar várias
+ * opções não pode render nota parcial, então a correção é tudo ou nada (SingleChoiceScoring).
+ */
+public final class PartialCreditScoring implements ScoringStrategy {
+
+    private final SingleChoiceScoring singleChoice = new SingleChoiceScoring();
+
+    @Override
+    public double score(AnswerKey key, long selected) {
+        int correct = key.correctCount();
+        if (correct <= 1) {
+            return singleChoice.score(key, selected);
+        }
+        if (selected == 0) {
+            return 0.0;
+        }
+        int incorrect = key.optionCount() - correct;
+        int hits = Long.bitCount(selected & key.correctMask());
+        int misses = Long.bitCount(selected & ~key.correctMask());
+        double score = (double) hits / correct - (incorrect == 0 ? 0.0 : (double) misses / incorrect);
+        return Math.max(0.0, Math.min(1.0, score));
+    }
+}
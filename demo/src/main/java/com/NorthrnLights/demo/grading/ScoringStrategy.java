@@ -0,0 +1,13 @@
+package com.NorthrnLights.demo.grading;
+
+/**
+ * Pontuação de uma resposta de múltipla escolha a partir das opções escolhidas.
+ */
+public interface ScoringStrategy {
+
+    /**
+     * @param selected bitset das opções escolhidas (AnswerKey.select), 0 se nenhuma válida
+     * @return fração da questão obtida: 1 = totalmente correta; pode ser negativa
+     */
+    double score(AnswerKey key, long selected);
+}
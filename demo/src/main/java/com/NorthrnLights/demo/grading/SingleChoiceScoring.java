@@ -0,0 +1,13 @@
+package com.NorthrnLights.demo.grading;
+
+/**
+ * Tudo ou nada (comportamento original): correta se exatamente uma opção foi escolhida e ela
+ * está marcada como correta.
+ */
+public final class SingleChoiceScoring implements ScoringStrategy {
+
+    @Override
+    public double score(AnswerKey key, long selected) {
+        return Long.bitCount(selected) == 1 && (selected & key.correctMask()) != 0 ? 1.0 : 0.0;
+    }
+}
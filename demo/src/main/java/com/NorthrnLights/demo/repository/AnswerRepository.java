@@ -1,6 +1,11 @@
 package com.NorthrnLights.demo.repository;
 
 import com.NorthrnLights.demo.domain.Answer;
+import com.NorthrnLights.demo.domain.QuestionType;
+import com.NorthrnLights.demo.domain.Role;
+import com.NorthrnLights.demo.dto.AnswerSummary;
+import com.NorthrnLights.demo.dto.StudentActivityItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -9,6 +14,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,13 +24,109 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
 
     boolean existsByQuestionIdAndStudentId(Long questionId, Long studentId);
     List<Answer> findByQuestionId(Long questionId);
+
+    // Respostas sem correção de questões de múltipla escolha expiradas e ainda sem marca d'água
+    // (anti-join NOT EXISTS em correction), em ordem de id para percorrer em lotes
+    @Query("SELECT a.id AS id, a.text AS text, q.id AS questionId FROM Answer a JOIN a.question q " +
+            "WHERE q.multipleChoice = true AND q.autoCorrectedAt IS NULL AND q.expiresAt < :now " +
+            "AND a.id > :afterId " +
+            "AND NOT EXISTS (SELECT 1 FROM Correction c WHERE c.answer = a) " +
+            "ORDER BY a.id")
+    List<PendingCorrectionView> findPendingAutoCorrections(@Param("now") LocalDateTime now,
+                                                           @Param("afterId") long afterId,
+                                                           Limit limit);
+
+    // Mesmo anti-join, restrito às questões cujo prazo acabou de passar
+    @Query("SELECT a.id AS id, a.text AS text, q.id AS questionId FROM Answer a JOIN a.question q " +
+            "WHERE q.id IN :questionIds AND q.multipleChoice = true AND q.expiresAt < :now " +
+            "AND a.id > :afterId " +
+            "AND NOT EXISTS (SELECT 1 FROM Correction c WHERE c.answer = a) " +
+            "ORDER BY a.id")
+    List<PendingCorrectionView> findPendingAutoCorrectionsForQuestions(@Param("questionIds") Collection<Long> questionIds,
+                                                                       @Param("now") LocalDateTime now,
+                                                                       @Param("afterId") long afterId,
+                                                                       Limit limit);
+
+    interface PendingCorrectionView {
+        Long getId();
+        String getText();
+        Long getQuestionId();
+    }
+
+    // Quais destes caminhos de imagem ainda são referenciados (limpeza de uploads órfãos)
+    @Query("SELECT DISTINCT a.imagePath FROM Answer a WHERE a.imagePath IN :paths")
+    List<String> findReferencedImagePaths(@Param("paths") Collection<String> paths);
+
+    // Listagem paginada por keyset (id DESC); questionId null lista todas as respostas
+    @Query("SELECT new com.NorthrnLights.demo.dto.AnswerSummary(a.id, a.text, a.imagePath, a.createdAt, " +
+            "q.id, q.title, s.id, s.userName) " +
+            "FROM Answer a LEFT JOIN a.question q LEFT JOIN a.student s " +
+            "WHERE a.id < :afterId AND (:questionId IS NULL OR q.id = :questionId) " +
+            "ORDER BY a.id DESC")
+    List<AnswerSummary> findSummaries(@Param("questionId") Long questionId,
+                                      @Param("afterId") long afterId,
+                                      Limit limit);
     
     @EntityGraph(attributePaths = {"question", "question.options", "question.teacher"})
     @Query("SELECT a FROM Answer a WHERE a.student.id = :studentId ORDER BY a.createdAt DESC")
     List<Answer> findByStudentIdOrderByCreatedAtDesc(@Param("studentId") Long studentId);
     
+    /**
+     * Atividade do aluno: respostas com o título da questão e a correção (se houver; o índice
+     * único idx_correction_answer_id garante no máximo uma por resposta),
+     * paginadas por keyset em (createdAt DESC, id DESC) sobre o índice (student_id, created_at).
+     * afterCreatedAt null na primeira página.
+     */
+    @Query("SELECT new com.NorthrnLights.demo.dto.StudentActivityItem(a.id, a.text, a.imagePath, a.createdAt, " +
+            "q.id, q.title, c.id, c.grade, c.feedback, c.points) " +
+            "FROM Answer a LEFT JOIN a.question q " +
+            "LEFT JOIN Correction c ON c.answer = a " +
+            "WHERE a.student.id = :studentId " +
+            "AND (:afterCreatedAt IS NULL OR a.createdAt < :afterCreatedAt " +
+            "OR (a.createdAt = :afterCreatedAt AND a.id < :afterId)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<StudentActivityItem> findActivityByStudentId(@Param("studentId") Long studentId,
+                                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                      @Param("afterId") Long afterId,
+                                                      Limit limit);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM Answer a WHERE a.student.id = :studentId")
     void deleteByStudentId(@Param("studentId") Long studentId);
-}
\ No newline at end of file
+
+    /**
+     * Campos do aluno e da questão devolvidos por POST /answers (os mesmos que a entidade
+     * Answer serializava), em uma consulta e sem options/teacher/exam.
+     */
+    @Query("SELECT s.userName AS studentUserName, s.email AS studentEmail, s.age AS studentAge, " +
+            "s.classRoom AS studentClassRoom, s.role AS studentRole, s.profileImage AS studentProfileImage, " +
+            "q.title AS questionTitle, q.description AS questionDescription, " +
+            "q.portugueseTranslation AS questionPortugueseTranslation, q.hasHelp AS questionHasHelp, " +
+            "q.imagePath AS questionImagePath, q.multipleChoice AS questionMultipleChoice, q.type AS questionType, " +
+            "q.createdAt AS questionCreatedAt, q.updatedAt AS questionUpdatedAt, " +
+            "q.expiresAt AS questionExpiresAt, q.visibleAt AS questionVisibleAt " +
+            "FROM Student s, Question q WHERE s.id = :studentId AND q.id = :questionId")
+    Optional<CreatedAnswerView> findCreatedAnswerView(@Param("questionId") Long questionId,
+                                                      @Param("studentId") Long studentId);
+
+    interface CreatedAnswerView {
+        String getStudentUserName();
+        String getStudentEmail();
+        Integer getStudentAge();
+        String getStudentClassRoom();
+        Role getStudentRole();
+        String getStudentProfileImage();
+        String getQuestionTitle();
+        String getQuestionDescription();
+        String getQuestionPortugueseTranslation();
+        Boolean getQuestionHasHelp();
+        String getQuestionImagePath();
+        boolean getQuestionMultipleChoice();
+        QuestionType getQuestionType();
+        LocalDateTime getQuestionCreatedAt();
+        LocalDateTime getQuestionUpdatedAt();
+        LocalDateTime getQuestionExpiresAt();
+        LocalDateTime getQuestionVisibleAt();
+    }
+}
@@ -1,6 +1,8 @@
 package com.NorthrnLights.demo.repository;
 
 import com.NorthrnLights.demo.domain.Correction;
+import com.NorthrnLights.demo.dto.CorrectionSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -12,6 +14,17 @@ import java.util.List;
 public interface CorrectionRepository extends JpaRepository<Correction, Long> {
     List<Correction> findByTeacherId(Long teacherId);
     List<Correction> findByAnswerId(Long answerId);
+
+    // Listagem paginada por keyset (id DESC); teacherId null lista todas as correções
+    @Query("SELECT new com.NorthrnLights.demo.dto.CorrectionSummary(c.id, c.grade, c.feedback, c.points, " +
+            "a.id, q.id, q.title, s.id, s.userName, t.id, t.userName) " +
+            "FROM Correction c LEFT JOIN c.answer a LEFT JOIN a.question q LEFT JOIN a.student s " +
+            "LEFT JOIN c.teacher t " +
+            "WHERE c.id < :afterId AND (:teacherId IS NULL OR t.id = :teacherId) " +
+            "ORDER BY c.id DESC")
+    List<CorrectionSummary> findSummaries(@Param("teacherId") Long teacherId,
+                                          @Param("afterId") long afterId,
+                                          Limit limit);
     
     @Modifying
     @Transactional
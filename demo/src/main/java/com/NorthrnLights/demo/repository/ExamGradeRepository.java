@@ -1,6 +1,8 @@
 package com.NorthrnLights.demo.repository;
 
 import com.NorthrnLights.demo.domain.ExamGrade;
+import com.NorthrnLights.demo.dto.ExamGradeSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,6 +21,15 @@ public interface ExamGradeRepository extends JpaRepository<ExamGrade, Long> {
     
     List<ExamGrade> findByExamId(Long examId);
 
+    // Notas de uma prova paginadas por keyset (id DESC)
+    @Query("SELECT new com.NorthrnLights.demo.dto.ExamGradeSummary(eg.id, eg.pointsObtained, eg.totalPoints, " +
+            "eg.grade, eg.feedback, eg.createdAt, s.id, s.userName) " +
+            "FROM ExamGrade eg LEFT JOIN eg.student s " +
+            "WHERE eg.exam.id = :examId AND eg.id < :afterId ORDER BY eg.id DESC")
+    List<ExamGradeSummary> findSummariesByExamId(@Param("examId") Long examId,
+                                                 @Param("afterId") long afterId,
+                                                 Limit limit);
+
     List<ExamGrade> findByTeacherId(Long teacherId);
     
     // Buscar notas gerais (sem examId) para um estudante
@@ -1,7 +1,11 @@
 package com.NorthrnLights.demo.repository;
 
 import com.NorthrnLights.demo.domain.Exam;
+import com.NorthrnLights.demo.dto.ExamSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,6 +14,13 @@ import java.util.List;
 public interface ExamRepository extends JpaRepository<Exam, Long> {
     List<Exam> findByIsActiveTrue();
     List<Exam> findByTeacherId(Long teacherId);
+
+    // Listagem paginada por keyset (id DESC), sem carregar as questões
+    @Query("SELECT new com.NorthrnLights.demo.dto.ExamSummary(e.id, e.title, e.description, e.startDate, " +
+            "e.endDate, e.durationMinutes, e.totalScore, e.isActive, e.createdAt, t.id, t.userName) " +
+            "FROM Exam e LEFT JOIN e.teacher t " +
+            "WHERE e.id < :afterId ORDER BY e.id DESC")
+    List<ExamSummary> findSummaries(@Param("afterId") long afterId, Limit limit);
 }
 
 
@@ -1,15 +1,27 @@
 package com.NorthrnLights.demo.repository;
 
 import com.NorthrnLights.demo.domain.Meet;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface MeetRepository extends JpaRepository<Meet, Long> {
-    List<Meet> findBydateTimeEndAfter(LocalDateTime dateTime);
-
-    List<Meet> findBydateTimeStartBefore(LocalDateTime dateTime);
-
-    List<Meet> findByDateTimeStartBetween(LocalDateTime start, LocalDateTime end);
+    // Listagem paginada por keyset (id DESC); filtros null são ignorados
+    @Query("SELECT m FROM Meet m " +
+            "WHERE m.id < :afterId " +
+            "AND (:startFrom IS NULL OR m.dateTimeStart >= :startFrom) " +
+            "AND (:startTo IS NULL OR m.dateTimeStart <= :startTo) " +
+            "AND (:startBefore IS NULL OR m.dateTimeStart < :startBefore) " +
+            "AND (:endAfter IS NULL OR m.dateTimeEnd > :endAfter) " +
+            "ORDER BY m.id DESC")
+    List<Meet> findPage(@Param("startFrom") LocalDateTime startFrom,
+                        @Param("startTo") LocalDateTime startTo,
+                        @Param("startBefore") LocalDateTime startBefore,
+                        @Param("endAfter") LocalDateTime endAfter,
+                        @Param("afterId") long afterId,
+                        Limit limit);
 }
\ No newline at end of file
@@ -1,44 +1,121 @@
 package com.NorthrnLights.demo.repository;
 
+import com.NorthrnLights.demo.domain.Exam;
 import com.NorthrnLights.demo.domain.Question;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface QuestionRepository extends JpaRepository<Question, Long> {
+public interface QuestionRepository extends JpaRepository<Question, Long>, JpaSpecificationExecutor<Question> {
+
+    // Todos os finders carregam options, teacher e exam na mesma consulta (evita N+1 ao serializar)
 
     // Filtrar por título (usando como exemplo "contains" para buscar algo no título)
+    @EntityGraph(attributePaths = {"options", "teacher", "exam"})
     List<Question> findByTitleContainingIgnoreCase(String title);
 
-    // Filtrar por descrição - Query customizada para trabalhar com CLOB/TEXT
-    @Query(value = "SELECT * FROM question WHERE LOWER(description) LIKE LOWER(CONCAT('%', :description, '%'))", nativeQuery = true)
+    // Filtrar por descrição (JPQL para permitir o entity graph; description é TEXT)
+    @EntityGraph(attributePaths = {"options", "teacher", "exam"})
+    @Query("SELECT q FROM Question q WHERE LOWER(q.description) LIKE LOWER(CONCAT('%', :description, '%'))")
     List<Question> findByDescriptionContainingIgnoreCase(@Param("description") String description);
 
-    // Filtrar por título e descrição - Query customizada para trabalhar com CLOB/TEXT
-    @Query(value = "SELECT * FROM question WHERE LOWER(title) LIKE LOWER(CONCAT('%', :title, '%')) AND LOWER(description) LIKE LOWER(CONCAT('%', :description, '%'))", nativeQuery = true)
+    // Filtrar por título e descrição
+    @EntityGraph(attributePaths = {"options", "teacher", "exam"})
+    @Query("SELECT q FROM Question q WHERE LOWER(q.title) LIKE LOWER(CONCAT('%', :title, '%')) AND LOWER(q.description) LIKE LOWER(CONCAT('%', :description, '%'))")
     List<Question> findByTitleContainingIgnoreCaseAndDescriptionContainingIgnoreCase(@Param("title") String title, @Param("description") String description);
 
     // Outras consultas, como por data de criação ou atualização
+    @EntityGraph(attributePaths = {"options", "teacher", "exam"})
     List<Question> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
 
     // Buscar questão com opções (eager fetch)
-    @EntityGraph(attributePaths = {"options"})
+    @EntityGraph(attributePaths = {"options", "teacher", "exam"})
     @Query("SELECT q FROM Question q WHERE q.id = :id")
     Optional<Question> findByIdWithOptions(@Param("id") Long id);
 
     // Buscar todas as questões com opções
-    @EntityGraph(attributePaths = {"options"})
+    @EntityGraph(attributePaths = {"options", "teacher", "exam"})
     @Query("SELECT q FROM Question q")
     List<Question> findAllWithOptions();
+
+    // Carregar as opções de uma página de questões em uma única consulta
+    @EntityGraph(attributePaths = {"options"})
+    @Query("SELECT q FROM Question q WHERE q.id IN :ids")
+    List<Question> findAllWithOptionsByIdIn(@Param("ids") java.util.Collection<Long> ids);
     
     // Buscar questões por professor e intervalo de data
+    @EntityGraph(attributePaths = {"options", "teacher", "exam"})
     List<Question> findByTeacherAndCreatedAtBetween(com.NorthrnLights.demo.domain.Teacher teacher, LocalDateTime start, LocalDateTime end);
 
+    // Questões de uma prova com opções, em uma única consulta (usa idx_question_exam_id)
+    @EntityGraph(attributePaths = {"options", "teacher", "exam"})
+    @Query("SELECT q FROM Question q WHERE q.exam.id = :examId ORDER BY q.id")
+    List<Question> findByExamIdWithOptions(@Param("examId") Long examId);
+
+    // Associa as questões à prova em um único UPDATE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Question q SET q.exam = :exam WHERE q.id IN :questionIds")
+    int assignExam(@Param("exam") Exam exam, @Param("questionIds") java.util.Collection<Long> questionIds);
+
+    // Desassocia todas as questões da prova em um único UPDATE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Question q SET q.exam = null WHERE q.exam.id = :examId")
+    int clearExam(@Param("examId") Long examId);
+
+    // Desassocia da prova as questões que não estão na nova lista
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Question q SET q.exam = null WHERE q.exam.id = :examId AND q.id NOT IN :keepIds")
+    int clearExamExcept(@Param("examId") Long examId, @Param("keepIds") java.util.Collection<Long> keepIds);
+
+    // Questões de um lote da correção automática, com opções e professor na mesma consulta
+    @EntityGraph(attributePaths = {"options", "teacher"})
+    @Query("SELECT q FROM Question q WHERE q.id IN :ids")
+    List<Question> findAllWithOptionsAndTeacherByIdIn(@Param("ids") java.util.Collection<Long> ids);
+
+    // Próximos prazos da correção automática (carregados na inicialização)
+    @Query("SELECT q.id AS id, q.expiresAt AS expiresAt FROM Question q " +
+            "WHERE q.multipleChoice = true AND q.autoCorrectedAt IS NULL AND q.expiresAt >= :now")
+    List<DeadlineView> findUpcomingAutoCorrectionDeadlines(@Param("now") LocalDateTime now);
+
+    interface DeadlineView {
+        Long getId();
+        LocalDateTime getExpiresAt();
+    }
+
+    // Marca d'água: questões de múltipla escolha expiradas antes de settledBefore cujas
+    // respostas já têm todas correção deixam de ser consultadas pela correção automática
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Question q SET q.autoCorrectedAt = :now " +
+            "WHERE q.multipleChoice = true AND q.autoCorrectedAt IS NULL AND q.expiresAt < :settledBefore " +
+            "AND NOT EXISTS (SELECT 1 FROM Answer a WHERE a.question = q " +
+            "AND NOT EXISTS (SELECT 1 FROM Correction c WHERE c.answer = a))")
+    int markAutoCorrected(@Param("now") LocalDateTime now, @Param("settledBefore") LocalDateTime settledBefore);
+
+    // Quais destes caminhos de imagem ainda são referenciados (limpeza de uploads órfãos)
+    @Query("SELECT DISTINCT q.imagePath FROM Question q WHERE q.imagePath IN :paths")
+    List<String> findReferencedImagePaths(@Param("paths") java.util.Collection<String> paths);
+
+    // Só as colunas necessárias para validar uma resposta (sem options/teacher/exam)
+    @Query("SELECT q.id AS id, q.title AS title, q.expiresAt AS expiresAt FROM Question q WHERE q.id = :id")
+    Optional<ExpiryView> findExpiryById(@Param("id") Long id);
+
+    interface ExpiryView {
+        Long getId();
+        String getTitle();
+        LocalDateTime getExpiresAt();
+    }
 }
\ No newline at end of file
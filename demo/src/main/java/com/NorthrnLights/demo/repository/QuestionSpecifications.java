@@ -0,0 +1,88 @@
+package com.NorthrnLights.demo.repository;
+
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.util.KeysetCursor;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filtros dinâmicos do catálogo de questões, aplicados no banco em uma única consulta.
+ */
+public final class QuestionSpecifications {
+
+    private QuestionSpecifications() {
+    }
+
+    /**
+     * Catálogo paginado por keyset em (createdAt DESC, id DESC).
+     * Parâmetros null são ignorados; visibleAt != null restringe às questões já visíveis nesse instante.
+     * Questões sem Teacher válido (referência órfã) são sempre excluídas pelo inner join.
+     */
+    public static Specification<Question> catalogue(String title,
+                                                    String description,
+                                                    LocalDateTime startDate,
+                                                    LocalDateTime endDate,
+                                                    Long teacherId,
+                                                    Long examId,
+                                                    LocalDateTime visibleAt,
+                                                    KeysetCursor after) {
+        return (root, query, cb) -> {
+            // Fetch apenas na consulta de entidades (não em eventuais consultas de contagem)
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("teacher", JoinType.INNER);
+                root.fetch("exam", JoinType.LEFT);
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isNotNull(root.get("teacher").get("id")));
+
+            if (title != null && !title.isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("title")), likePattern(title), '\\'));
+            }
+            if (description != null && !description.isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("description")), likePattern(description), '\\'));
+            }
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), endDate));
+            }
+            if (teacherId != null) {
+                predicates.add(cb.equal(root.get("teacher").get("id"), teacherId));
+            }
+            if (examId != null) {
+                predicates.add(cb.equal(root.get("exam").get("id"), examId));
+            }
+            if (visibleAt != null) {
+                predicates.add(cb.or(
+                        cb.isNull(root.get("visibleAt")),
+                        cb.lessThanOrEqualTo(root.get("visibleAt"), visibleAt)));
+            }
+            if (after != null) {
+                // (createdAt, id) < (cursor.createdAt, cursor.id)
+                predicates.add(cb.or(
+                        cb.lessThan(root.get("createdAt"), after.timestamp()),
+                        cb.and(
+                                cb.equal(root.get("createdAt"), after.timestamp()),
+                                cb.lessThan(root.get("id"), after.id()))));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String likePattern(String value) {
+        String escaped = value.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
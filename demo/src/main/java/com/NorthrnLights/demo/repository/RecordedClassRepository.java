@@ -1,9 +1,14 @@
 package com.NorthrnLights.demo.repository;
 
 import com.NorthrnLights.demo.domain.RecordedClass;
+import com.NorthrnLights.demo.dto.RecordedClassSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -11,7 +16,16 @@ public interface RecordedClassRepository extends JpaRepository<RecordedClass, Lo
     
     List<RecordedClass> findByTeacherIdOrderByClassDateDesc(Long teacherId);
     
-    List<RecordedClass> findAllByOrderByClassDateDesc();
+    // Listagem paginada por keyset em (classDate DESC, id DESC); afterDate null na primeira página
+    @Query("SELECT new com.NorthrnLights.demo.dto.RecordedClassSummary(r.id, r.title, r.description, " +
+            "r.videoUrl, r.classDate, r.createdAt, t.id, t.userName) " +
+            "FROM RecordedClass r LEFT JOIN r.teacher t " +
+            "WHERE :afterDate IS NULL OR r.classDate < :afterDate " +
+            "OR (r.classDate = :afterDate AND r.id < :afterId) " +
+            "ORDER BY r.classDate DESC, r.id DESC")
+    List<RecordedClassSummary> findSummaries(@Param("afterDate") LocalDate afterDate,
+                                             @Param("afterId") Long afterId,
+                                             Limit limit);
 }
 
 
@@ -2,9 +2,17 @@ package com.NorthrnLights.demo.repository;
 
 import com.NorthrnLights.demo.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    // Quais destes caminhos de imagem de perfil ainda são referenciados (limpeza de uploads órfãos)
+    @Query("SELECT DISTINCT u.profileImage FROM User u WHERE u.profileImage IN :paths")
+    List<String> findReferencedProfileImages(@Param("paths") Collection<String> paths);
 }
@@ -0,0 +1,147 @@
+package com.NorthrnLights.demo.security;
+
+import com.NorthrnLights.demo.exception.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Controle de admissão para /api/auth: token buckets por IP e por email.
+ *
+ * Cada bucket é um único AtomicLong com o "theoretical arrival time" (GCRA), atualizado
+ * via CAS, sem locks. Os buckets ficam em ConcurrentHashMap (segmentado) e buckets
+ * ociosos (já cheios de novo) são removidos periodicamente.
+ *
+ * O bucket por IP usa request.getRemoteAddr(): atrás de proxy, o Tomcat (RemoteIpValve, via
+ * server.forward-headers-strategy=native) o preenche com o último endereço do
+ * X-Forwarded-For que não é de um proxy confiável, e não com o primeiro, que o cliente
+ * escolhe. O limite por IP é folgado (uma turma inteira atrás do mesmo NAT faz login junta);
+ * a proteção contra força bruta numa conta é o bucket por email.
+ */
+@Slf4j
+@Component
+public class AuthRateLimiter {
+
+    private final Limit ipLimit;
+    private final Limit emailLimit;
+    private final long idleNanos;
+
+    private final ConcurrentHashMap<String, AtomicLong> ipBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> emailBuckets = new ConcurrentHashMap<>();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByEmail = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * Parâmetros de um bucket: capacity tentativas em rajada, reabastecidas a
+     * refillPerMinute por minuto.
+     */
+    private record Limit(long emissionIntervalNanos, long burstToleranceNanos) {
+        static Limit of(int capacity, int refillPerMinute) {
+            long interval = TimeUnit.MINUTES.toNanos(1) / Math.max(1, refillPerMinute);
+            return new Limit(interval, interval * Math.max(0, capacity - 1));
+        }
+    }
+
+    public AuthRateLimiter(@Value("${security.auth-rate-limit.ip.capacity:120}") int ipCapacity,
+                           @Value("${security.auth-rate-limit.ip.refill-per-minute:120}") int ipRefillPerMinute,
+                           @Value("${security.auth-rate-limit.email.capacity:5}") int emailCapacity,
+                           @Value("${security.auth-rate-limit.email.refill-per-minute:5}") int emailRefillPerMinute,
+                           @Value("${security.auth-rate-limit.idle-minutes:10}") long idleMinutes) {
+        this.ipLimit = Limit.of(ipCapacity, ipRefillPerMinute);
+        this.emailLimit = Limit.of(emailCapacity, emailRefillPerMinute);
+        this.idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+    }
+
+    /**
+     * Consome um token do bucket do IP e, se informado, do bucket do email.
+     *
+     * @throws RateLimitExceededException se algum dos buckets estiver vazio
+     */
+    public void acquire(HttpServletRequest request, String email) {
+        long now = System.nanoTime();
+
+        long ipWait = tryAcquire(ipBuckets, request.getRemoteAddr(), ipLimit, now);
+        if (ipWait > 0) {
+            rejectedByIp.increment();
+            throw new RateLimitExceededException("Muitas tentativas deste endereço. Tente novamente mais tarde.",
+                    toRetryAfterSeconds(ipWait));
+        }
+
+        if (email != null && !email.isBlank()) {
+            long emailWait = tryAcquire(emailBuckets, email.trim().toLowerCase(Locale.ROOT), emailLimit, now);
+            if (emailWait > 0) {
+                rejectedByEmail.increment();
+                throw new RateLimitExceededException("Muitas tentativas para este email. Tente novamente mais tarde.",
+                        toRetryAfterSeconds(emailWait));
+            }
+        }
+
+        allowed.increment();
+    }
+
+    /**
+     * GCRA: aceita se o TAT não estiver além de now + tolerância de rajada.
+     *
+     * @return 0 se aceito; caso contrário, nanos até o próximo token
+     */
+    private static long tryAcquire(ConcurrentHashMap<String, AtomicLong> buckets, String key, Limit limit, long now) {
+        AtomicLong tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long wait = base - now - limit.burstToleranceNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + limit.emissionIntervalNanos())) {
+                return 0;
+            }
+        }
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * Remove buckets cujo TAT ficou no passado há mais que o tempo ocioso (bucket cheio).
+     */
+    @Scheduled(fixedDelayString = "${security.auth-rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long threshold = System.nanoTime() - idleNanos;
+        int before = ipBuckets.size() + emailBuckets.size();
+        ipBuckets.entrySet().removeIf(e -> e.getValue().get() < threshold);
+        emailBuckets.entrySet().removeIf(e -> e.getValue().get() < threshold);
+        int removed = before - (ipBuckets.size() + emailBuckets.size());
+        if (removed > 0) {
+            evicted.add(removed);
+            log.debug("Buckets de rate limit ociosos removidos: {}", removed);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("allowed", allowed.sum());
+        stats.put("rejectedByIp", rejectedByIp.sum());
+        stats.put("rejectedByEmail", rejectedByEmail.sum());
+        // Cada rejeição é um hash/verificação BCrypt que não chegou a ser executado
+        stats.put("shedHashOperations", rejectedByIp.sum() + rejectedByEmail.sum());
+        stats.put("ipBuckets", ipBuckets.size());
+        stats.put("emailBuckets", emailBuckets.size());
+        stats.put("evictedBuckets", evicted.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,32 @@
+package com.NorthrnLights.demo.security;
+
+import com.NorthrnLights.demo.domain.Role;
+import com.NorthrnLights.demo.domain.User;
+
+import java.security.Principal;
+
+/**
+ * Principal leve e imutável colocado pelo JwtFilter: construído a partir das claims do JWT
+ * (modo claims-only) ou do usuário lido do banco (guardado no PrincipalCache).
+ * Não carrega nenhuma entidade: serviços que precisarem de um Teacher/Student
+ * gerenciado devem resolvê-lo via {@link AuthenticatedUserResolver}.
+ */
+public record AuthenticatedUser(Long id, String email, Role role, String classRoom) implements Principal {
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), user.getClassRoom());
+    }
+
+    public boolean isTeacher() {
+        return role == Role.TEACHER;
+    }
+
+    public boolean isStudent() {
+        return role == Role.STUDENT;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,104 @@
+package com.NorthrnLights.demo.security;
+
+import com.NorthrnLights.demo.domain.Student;
+import com.NorthrnLights.demo.domain.Teacher;
+import com.NorthrnLights.demo.repository.StudentRepository;
+import com.NorthrnLights.demo.repository.TeacherRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Ponto único para obter o usuário autenticado ({@link AuthenticatedUser}, o principal
+ * colocado pelo JwtFilter).
+ *
+ * Identidade e papel são resolvidos sem acesso ao banco; a entidade gerenciada só é
+ * buscada quando o chamador realmente precisa dela.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthenticatedUserResolver {
+
+    private final TeacherRepository teacherRepository;
+    private final StudentRepository studentRepository;
+
+    /**
+     * @return identidade do usuário autenticado (sem consulta ao banco)
+     * @throws ResponseStatusException 401 se não houver autenticação
+     */
+    public AuthenticatedUser current(Authentication authentication) {
+        if (authentication == null || authentication.getPrincipal() == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário não autenticado");
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário não autenticado");
+    }
+
+    public boolean isStudent(Authentication authentication) {
+        if (authentication == null) {
+            return false;
+        }
+        return authentication.getPrincipal() instanceof AuthenticatedUser user && user.isStudent();
+    }
+
+    public boolean isTeacher(Authentication authentication) {
+        if (authentication == null) {
+            return false;
+        }
+        return authentication.getPrincipal() instanceof AuthenticatedUser user && user.isTeacher();
+    }
+
+    /**
+     * @return id do professor autenticado (sem consulta ao banco)
+     * @throws ResponseStatusException 403 se o usuário não for professor
+     */
+    public Long requireTeacherId(Authentication authentication) {
+        AuthenticatedUser user = current(authentication);
+        if (!user.isTeacher()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Usuário autenticado não é um professor");
+        }
+        return user.id();
+    }
+
+    /**
+     * @return id do estudante autenticado (sem consulta ao banco)
+     * @throws ResponseStatusException 403 se o usuário não for estudante
+     */
+    public Long requireStudentId(Authentication authentication) {
+        AuthenticatedUser user = current(authentication);
+        if (!user.isStudent()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Usuário autenticado não é um estudante");
+        }
+        return user.id();
+    }
+
+    /**
+     * Retorna o Teacher autenticado, gerenciado, buscado pelo id apenas neste momento.
+     */
+    public Teacher requireTeacher(Authentication authentication) {
+        Long id = requireTeacherId(authentication);
+        return teacherRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Professor não encontrado"));
+    }
+
+    /**
+     * Retorna o Student autenticado, gerenciado, buscado pelo id apenas neste momento.
+     */
+    public Student requireStudent(Authentication authentication) {
+        Long id = requireStudentId(authentication);
+        return studentRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Estudante não encontrado"));
+    }
+
+    /**
+     * Referência (proxy) ao professor autenticado, sem consulta ao banco.
+     * Serve para associar o professor a uma entidade que será persistida.
+     */
+    public Teacher teacherReference(Authentication authentication) {
+        return teacherRepository.getReferenceById(requireTeacherId(authentication));
+    }
+}
@@ -1,13 +1,11 @@
 package com.NorthrnLights.demo.security;
 
+import com.NorthrnLights.demo.config.RequestTraceSampler;
 import com.NorthrnLights.demo.domain.Role;
-import com.NorthrnLights.demo.domain.Student;
-import com.NorthrnLights.demo.domain.Teacher;
 import com.NorthrnLights.demo.domain.User;
-import com.NorthrnLights.demo.repository.StudentRepository;
-import com.NorthrnLights.demo.repository.TeacherRepository;
 import com.NorthrnLights.demo.repository.UserRepository;
 import com.NorthrnLights.demo.util.JwtService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -15,8 +13,9 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -25,16 +24,19 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
-import java.util.Optional;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
-    private final TeacherRepository teacherRepository;
-    private final StudentRepository studentRepository;
+    private final PrincipalCache principalCache;
+    private final RequestTraceSampler traceSampler;
+
+    @Value("${jwt.claims-only:false}")
+    private boolean claimsOnly;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -50,7 +52,7 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println("⚠️ DEBUG: No Authorization header or not Bearer token for: " + requestPath);
+            log.debug("Sem token Bearer para {}", requestPath);
             // Continuar a cadeia - o Spring Security vai retornar 401/403 se necessário
             filterChain.doFilter(request, response);
             return;
@@ -58,134 +60,104 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String token = authHeader.substring(7);
         String email = null;
+        Claims claims;
         try {
-            email = jwtService.extractUsername(token);
-            // Validar token antes de processar
-            if (!jwtService.validateToken(token)) {
-                System.out.println("❌ DEBUG: Token inválido ou expirado para: " + requestPath);
-                filterChain.doFilter(request, response);
-                return;
-            }
+            // Verificação única: assinatura + expiração; as claims valem para toda a requisição
+            claims = jwtService.parseClaims(token);
+            email = claims.getSubject();
         } catch (ExpiredJwtException e) {
-            System.out.println("❌ DEBUG: Token expirado para: " + requestPath);
-            System.out.println("❌ DEBUG: Data de expiração: " + e.getClaims().getExpiration());
+            log.debug("Token expirado em {} para {}", e.getClaims().getExpiration(), requestPath);
             filterChain.doFilter(request, response);
             return;
         } catch (JwtException | IllegalArgumentException e) {
-            System.out.println("❌ DEBUG: Erro ao extrair email do token: " + e.getMessage());
-            System.out.println("❌ DEBUG: Token pode estar inválido para: " + requestPath);
+            log.debug("Token inválido para {}: {}", requestPath, e.getMessage());
             filterChain.doFilter(request, response);
             return;
         }
 
-        System.out.println("🔐 DEBUG: Processing request to: " + request.getRequestURI());
-        System.out.println("🔐 DEBUG: Token email: " + email);
-        
-        // Log específico para requisições a /teachers
-        if (requestPath != null && requestPath.startsWith("/teachers")) {
-            System.out.println("🔍 DEBUG: Requisição para /teachers detectada");
-            System.out.println("🔍 DEBUG: Method: " + request.getMethod());
-            System.out.println("🔍 DEBUG: Email do token: " + email);
+        traceSampler.traceIfUser(email);
+        log.debug("{} {} - token de {}", request.getMethod(), requestPath, email);
+
+        if (claimsOnly && email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Modo claims-only: principal montado a partir do token, sem acesso ao banco
+            AuthenticatedUser claimsUser = toAuthenticatedUser(claims);
+            if (claimsUser != null) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        claimsUser,
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + claimsUser.role().name()))
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                filterChain.doFilter(request, response);
+                return;
+            }
+            // Tokens emitidos antes do modo claims-only não têm uid: seguir pelo caminho com banco
         }
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userRepository.findByEmail(email).orElse(null);
-
-            if (user != null && jwtService.validateToken(token)) {
-                String roleName = user.getRole() != null ? user.getRole().name() : "USER";
-                String authority = "ROLE_" + roleName;
-
-                System.out.println("✅ DEBUG: Authenticating user: " + email + " with authority: " + authority);
-                System.out.println("🔍 DEBUG: User role from database: " + user.getRole());
-                System.out.println("🔍 DEBUG: Request URI: " + request.getRequestURI());
-                System.out.println("🔍 DEBUG: Request Method: " + request.getMethod());
-
-                // Buscar o objeto específico (Teacher ou Student) para usar como principal
-                Object principal = user;
-                if (user.getRole() == Role.TEACHER) {
-                    Optional<Teacher> teacherOpt = teacherRepository.findByEmail(email);
-                    if (teacherOpt.isPresent()) {
-                        principal = teacherOpt.get();
-                        System.out.println("✅ DEBUG: Teacher encontrado - ID: " + teacherOpt.get().getId());
-                    } else {
-                        System.out.println("⚠️ DEBUG: User tem role TEACHER mas não foi encontrado na tabela Teacher");
-                        principal = user;
-                    }
-                } else if (user.getRole() == Role.STUDENT) {
-                    Optional<Student> studentOpt = studentRepository.findByEmail(email);
-                    if (studentOpt.isPresent()) {
-                        principal = studentOpt.get();
-                        System.out.println("✅ DEBUG: Student encontrado - ID: " + studentOpt.get().getId());
-                    } else {
-                        System.out.println("⚠️ DEBUG: User tem role STUDENT mas não foi encontrado na tabela Student");
-                        principal = user;
-                    }
-                } else {
-                    System.out.println("⚠️ DEBUG: Role desconhecido: " + user.getRole());
-                }
+            PrincipalCache.CachedPrincipal cached = principalCache.get(email);
+            if (cached == null) {
+                cached = loadPrincipal(email);
+            }
+
+            if (cached != null) {
+                AuthenticatedUser principal = cached.principal();
+                String authority = cached.authority();
 
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        principal, // Usar Teacher/Student como principal, não o email
+                        principal,
                         null,
                         Collections.singletonList(new SimpleGrantedAuthority(authority))
                 );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                // Debug após autenticação
-                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-                
-                // Log específico para /teachers
-                if (requestPath != null && requestPath.startsWith("/teachers")) {
-                    System.out.println("🔍 DEBUG: ========== AUTENTICAÇÃO PARA /teachers ==========");
-                    System.out.println("🔍 DEBUG: Autenticação configurada para /teachers");
-                    System.out.println("🔍 DEBUG: Authority criada: " + authority);
-                    System.out.println("🔍 DEBUG: Authorities no contexto: " + auth.getAuthorities());
-                    System.out.println("🔍 DEBUG: Principal type: " + auth.getPrincipal().getClass().getSimpleName());
-                    System.out.println("🔍 DEBUG: Is authenticated: " + auth.isAuthenticated());
-                    System.out.println("🔍 DEBUG: Has ROLE_TEACHER: " + auth.getAuthorities().stream()
-                        .anyMatch(a -> a.getAuthority().equals("ROLE_TEACHER")));
-                    System.out.println("🔍 DEBUG: =================================================");
-                }
-                System.out.println("🔍 DEBUG: Authentication set: " + (auth != null));
-                if (auth != null) {
-                    System.out.println("🔍 DEBUG: Principal type: " + auth.getPrincipal().getClass().getSimpleName());
-                    System.out.println("🔍 DEBUG: Authorities: " + auth.getAuthorities());
-                    System.out.println("🔍 DEBUG: Request URI: " + request.getRequestURI());
-                    System.out.println("🔍 DEBUG: Request Method: " + request.getMethod());
-                    
-                    // Log específico para requisições a /teachers
-                    if (requestPath != null && requestPath.startsWith("/teachers")) {
-                        System.out.println("🔍 DEBUG: Verificando acesso a /teachers");
-                        System.out.println("🔍 DEBUG: Has ROLE_TEACHER: " + auth.getAuthorities().stream()
-                                .anyMatch(a -> a.getAuthority().equals("ROLE_TEACHER")));
-                        System.out.println("🔍 DEBUG: All authorities: " + auth.getAuthorities());
-                    }
-                    
-                    // Verificar se a authority está correta para DELETE /students
-                    if (request.getRequestURI().startsWith("/students") && request.getMethod().equals("DELETE")) {
-                        System.out.println("🔍 DEBUG: Verificando DELETE /students - Authorities: " + auth.getAuthorities());
-                        System.out.println("🔍 DEBUG: Has ROLE_TEACHER: " + auth.getAuthorities().stream()
-                                .anyMatch(a -> a.getAuthority().equals("ROLE_TEACHER")));
-                    }
-                }
+                log.debug("Autenticado {} como {} (id {})", email, authority, principal.id());
             } else {
-                System.out.println("❌ DEBUG: User not found or token invalid for: " + requestPath);
-                System.out.println("❌ DEBUG: Email from token: " + email);
-                if (email != null) {
-                    User userCheck = userRepository.findByEmail(email).orElse(null);
-                    if (userCheck == null) {
-                        System.out.println("❌ DEBUG: User não encontrado no banco de dados");
-                    } else {
-                        boolean tokenValid = jwtService.validateToken(token);
-                        System.out.println("❌ DEBUG: Token válido? " + tokenValid);
-                    }
-                }
+                log.debug("Usuário do token não encontrado: {}", email);
             }
-        } else {
-            System.out.println("ℹ️ DEBUG: Already authenticated or no email for: " + requestPath);
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Monta o principal leve a partir das claims. Retorna null se o token não tiver
+     * as claims necessárias (uid e role).
+     */
+    private AuthenticatedUser toAuthenticatedUser(Claims claims) {
+        Number userId = claims.get(JwtService.CLAIM_USER_ID, Number.class);
+        String roleName = claims.get(JwtService.CLAIM_ROLE, String.class);
+        if (userId == null || roleName == null) {
+            return null;
+        }
+        try {
+            return new AuthenticatedUser(
+                    userId.longValue(),
+                    claims.getSubject(),
+                    Role.valueOf(roleName),
+                    claims.get(JwtService.CLAIM_CLASS_ROOM, String.class)
+            );
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Busca o usuário e guarda no PrincipalCache um retrato imutável (id, role, classRoom),
+     * nunca a entidade.
+     */
+    private PrincipalCache.CachedPrincipal loadPrincipal(String email) {
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        if (user.getRole() != Role.TEACHER && user.getRole() != Role.STUDENT) {
+            log.warn("⚠️ Role desconhecido para {}: {}", email, user.getRole());
+        }
+
+        String roleName = user.getRole() != null ? user.getRole().name() : "USER";
+        return principalCache.put(email, AuthenticatedUser.of(user), "ROLE_" + roleName);
+    }
+}
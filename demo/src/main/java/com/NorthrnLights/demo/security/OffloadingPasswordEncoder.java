@@ -0,0 +1,177 @@
+package com.NorthrnLights.demo.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PasswordEncoder BCrypt que executa hash e verificação em um pool dedicado e limitado,
+ * em vez de ocupar livremente as threads do Tomcat. Quando a fila enche, a requisição
+ * falha rápido com 503 em vez de enfileirar CPU indefinidamente.
+ *
+ * O custo do BCrypt pode ser fixo ou calibrado na inicialização para atingir um tempo-alvo.
+ * {@link #upgradeEncoding(String)} indica hashes com custo menor que o atual, para
+ * re-hash transparente no login.
+ *
+ * O timeout só libera quem está esperando: o BCrypt não verifica interrupção, então um hash
+ * que já começou ocupa a thread do pool até o fim mesmo depois do 503. Por isso a fila é
+ * limitada ao que o pool consegue processar dentro do timeout (medido com um hash na
+ * inicialização), e tarefas que expiram ainda na fila são removidas dela em vez de rodar
+ * depois. O trabalho abandonado fica assim limitado a no máximo um hash por thread do pool.
+ */
+@Slf4j
+public class OffloadingPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 14;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public OffloadingPasswordEncoder(int strength, int poolSize, int queueCapacity, long timeoutMillis) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+
+        // Com a fila cheia, a última tarefa começa depois de (fila / pool) hashes; acima disso
+        // ela expiraria antes de rodar e só aumentaria o trabalho abandonado
+        long hashMillis = Math.max(1, measureHashMillis(delegate));
+        int maxQueue = (int) Math.max(1, Math.min(Integer.MAX_VALUE, poolSize * (timeoutMillis / hashMillis) - poolSize));
+        if (queueCapacity > maxQueue) {
+            log.warn("⚠️ Fila de hashing reduzida de {} para {}: cada hash leva ~{} ms e o timeout é {} ms",
+                    queueCapacity, maxQueue, hashMillis, timeoutMillis);
+            queueCapacity = maxQueue;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        log.info("🔐 Password hashing: BCrypt custo {}, pool {}, fila {}", strength, poolSize, queueCapacity);
+    }
+
+    private static long measureHashMillis(BCryptPasswordEncoder encoder) {
+        long start = System.nanoTime();
+        encoder.encode("calibration-password");
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Escolhe o maior custo BCrypt (entre 10 e 14) cujo hash fica abaixo do tempo-alvo nesta máquina.
+     */
+    public static int calibrateStrength(long targetMillis) {
+        String sample = "calibration-password";
+        int chosen = MIN_STRENGTH;
+        // Aquecimento para não medir JIT/inicialização
+        new BCryptPasswordEncoder(MIN_STRENGTH).encode(sample);
+
+        for (int candidate = MIN_STRENGTH; candidate <= MAX_STRENGTH; candidate++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(candidate).encode(sample);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("🔐 Calibração BCrypt: custo {} levou {} ms", candidate, elapsedMillis);
+            if (elapsedMillis > targetMillis) {
+                break;
+            }
+            chosen = candidate;
+            // Cada incremento dobra o tempo: parar se o próximo com certeza estoura o alvo
+            if (elapsedMillis * 2 > targetMillis) {
+                break;
+            }
+        }
+        return chosen;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("⚠️ Fila de hashing de senha cheia ({} aguardando)", executor.getQueue().size());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Servidor ocupado, tente novamente em instantes");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Se ainda estava na fila, sai dela; se já está rodando, o hash vai até o fim
+            future.cancel(false);
+            executor.remove((Runnable) future);
+            timedOut.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Servidor ocupado, tente novamente em instantes");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            executor.remove((Runnable) future);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando hashing de senha", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Erro no hashing de senha", cause);
+        }
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("strength", strength);
+        stats.put("poolSize", executor.getMaximumPoolSize());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueRemainingCapacity", executor.getQueue().remainingCapacity());
+        stats.put("completedTasks", executor.getCompletedTaskCount());
+        stats.put("rejected", rejected.sum());
+        stats.put("timedOut", timedOut.sum());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,135 @@
+package com.NorthrnLights.demo.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache em memória do principal autenticado, indexado pelo subject do token (email).
+ * Evita a consulta ao banco que o JwtFilter faria em toda requisição.
+ *
+ * Guarda só o AuthenticatedUser (id, email, role, classRoom), imutável: a mesma entrada é
+ * compartilhada entre as threads das requisições, então não pode ser uma entidade JPA
+ * (desanexada, mutável, com associações lazy).
+ *
+ * Limitado por tamanho (LRU) e por TTL. Deve ser invalidado explicitamente
+ * sempre que o usuário for alterado ou removido.
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    /**
+     * Entrada do cache: principal já resolvido e a authority correspondente.
+     */
+    public record CachedPrincipal(AuthenticatedUser principal, String authority, long expiresAtMillis) {
+    }
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, CachedPrincipal> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PrincipalCache(@Value("${security.principal-cache.max-size:2000}") int maxSize,
+                          @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000L;
+        // LinkedHashMap em ordem de acesso = LRU; acesso protegido pelo lock do próprio cache
+        this.entries = new LinkedHashMap<>(Math.max(16, Math.min(maxSize, 1024)), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                if (size() > PrincipalCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return entrada válida para o email ou null se ausente/expirada
+     */
+    public CachedPrincipal get(String email) {
+        if (email == null || maxSize <= 0) {
+            misses.increment();
+            return null;
+        }
+        synchronized (entries) {
+            CachedPrincipal cached = entries.get(email);
+            if (cached == null) {
+                misses.increment();
+                return null;
+            }
+            if (cached.expiresAtMillis() <= System.currentTimeMillis()) {
+                entries.remove(email);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return cached;
+        }
+    }
+
+    public CachedPrincipal put(String email, AuthenticatedUser principal, String authority) {
+        CachedPrincipal cached = new CachedPrincipal(principal, authority, System.currentTimeMillis() + ttlMillis);
+        if (email == null || maxSize <= 0) {
+            return cached;
+        }
+        synchronized (entries) {
+            entries.put(email, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Remove o principal do cache. Chamar após atualizar ou excluir o usuário.
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (entries.remove(email) != null) {
+                invalidations.increment();
+            }
+        }
+        log.debug("Principal removido do cache: {}", email);
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlMillis / 1000L);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+}
@@ -7,6 +7,8 @@ import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
@@ -17,8 +19,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.logging.Filter;
 
+@Slf4j
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -41,23 +42,23 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-        System.out.println("🔧 DEBUG: Configurando SecurityFilterChain...");
+        log.debug("Configurando SecurityFilterChain...");
 
         http
                 .csrf(csrf -> {
-                    System.out.println("🔧 DEBUG: CSRF desabilitado");
+                    log.debug("CSRF desabilitado");
                     csrf.disable();
                 })
                 .cors(cors -> {
-                    System.out.println("🔧 DEBUG: CORS configurado");
+                    log.debug("CORS configurado");
                     cors.configurationSource(corsConfigurationSource());
                 })
                 .sessionManagement(session -> {
-                    System.out.println("🔧 DEBUG: Session STATELESS");
+                    log.debug("Session STATELESS");
                     session.sessionCreationPolicy(SessionCreationPolicy.STATELESS);
                 })
                 .authorizeHttpRequests(auth -> {
-                    System.out.println("🔧 DEBUG: Configurando autorizações HTTP");
+                    log.debug("Configurando autorizações HTTP");
                     auth
                             // Permitir endpoints públicos
                             .requestMatchers(
@@ -155,14 +156,14 @@ public class SecurityConfig {
                 })
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
 
-        System.out.println("✅ DEBUG: SecurityFilterChain configurado");
+        log.debug("SecurityFilterChain configurado");
         return http.build();
     }
 
     // ... resto do código permanece igual
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
-        System.out.println("🔧 DEBUG: Configurando CORS...");
+        log.debug("Configurando CORS...");
 
         CorsConfiguration configuration = new CorsConfiguration();
 
@@ -173,7 +174,7 @@ public class SecurityConfig {
             // Se houver variável de ambiente, usar ela (separada por vírgula)
             String[] origins = allowedOriginsEnv.split(",");
             configuration.setAllowedOrigins(Arrays.asList(origins));
-            System.out.println("✅ DEBUG: CORS configurado com origens específicas: " + Arrays.toString(origins));
+            log.debug("CORS configurado com origens específicas: {}", Arrays.toString(origins));
         } else {
             // Padrão: usar patterns para aceitar localhost + todos os domínios do Vercel
             // setAllowedOriginPatterns permite wildcards e funciona com allowCredentials
@@ -182,7 +183,7 @@ public class SecurityConfig {
                 "https://*.vercel.app",                            // Todos os domínios do Vercel (preview e production)
                 "https://northern-lights-frontend-2i36.vercel.app" // URL específica do frontend
             ));
-            System.out.println("✅ DEBUG: CORS configurado com patterns (localhost + Vercel)");
+            log.debug("CORS configurado com patterns (localhost + Vercel)");
         }
 
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
@@ -203,7 +204,7 @@ public class SecurityConfig {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
 
-        System.out.println("✅ DEBUG: CORS configurado com sucesso");
+        log.debug("CORS configurado com sucesso");
         return source;
     }
 
@@ -212,9 +213,19 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt executado em pool dedicado. Com strength <= 0 o custo é calibrado na
+     * inicialização para ficar abaixo de target-millis nesta máquina.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public OffloadingPasswordEncoder passwordEncoder(
+            @Value("${security.password.bcrypt-strength:0}") int strength,
+            @Value("${security.password.target-millis:250}") long targetMillis,
+            @Value("${security.password.pool-size:2}") int poolSize,
+            @Value("${security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.timeout-millis:10000}") long timeoutMillis) {
+        int effectiveStrength = strength > 0 ? strength : OffloadingPasswordEncoder.calibrateStrength(targetMillis);
+        return new OffloadingPasswordEncoder(effectiveStrength, poolSize, queueCapacity, timeoutMillis);
     }
 
 }
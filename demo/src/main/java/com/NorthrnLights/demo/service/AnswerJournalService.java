@@ -0,0 +1,331 @@
+package com.NorthrnLights.demo.service;
+
+import com.NorthrnLights.demo.domain.Answer;
+import com.NorthrnLights.demo.repository.AnswerRepository;
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import com.NorthrnLights.demo.repository.StudentRepository;
+import com.NorthrnLights.demo.util.AnswerJournal;
+import com.NorthrnLights.demo.util.AnswerJournal.Appended;
+import com.NorthrnLights.demo.util.AnswerJournal.Entry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingestão de respostas em grupo (opcional, answers.journal.enabled).
+ *
+ * Perto do expiresAt a turma inteira responde ao mesmo tempo e cada POST /answers ocupava uma
+ * conexão do pool por um commit. Com o journal ligado, a resposta é confirmada assim que é
+ * gravada no AnswerJournal (arquivo local mapeado em memória, com msync agrupado) e uma thread
+ * grava o journal na tabela answer em lotes, uma transação por lote. Na inicialização o journal
+ * é relido a partir do checkpoint, então nenhuma resposta confirmada se perde.
+ *
+ * Duplicatas são rejeitadas na hora, como sem o journal: contra respostas ainda no journal
+ * pelo conjunto em memória e contra as já gravadas por uma consulta de existência pelo índice
+ * da uk_answer_question_student. A chave só sai do conjunto depois do commit do lote, então
+ * sempre uma das duas verificações enxerga a resposta anterior.
+ *
+ * Um lote que falha é tentado de novo com backoff. Depois de max-retries falhas seguidas ele
+ * é gravado uma resposta por vez: falhas de banco indisponível continuam voltando para a
+ * fila, mas uma resposta que falha por outro motivo vai para o dead letter (contador e log com
+ * os dados da resposta) em vez de travar as respostas confirmadas depois dela.
+ */
+@Slf4j
+@Service
+public class AnswerJournalService implements DisposableBean {
+
+    /**
+     * Par questão/aluno de uma resposta ainda não gravada no banco.
+     */
+    private record PendingKey(long questionId, long studentId) {
+    }
+
+    /**
+     * Resultado de um commit: entradas processadas (início do lote, na ordem) e inseridas.
+     */
+    private record Committed(int processed, int inserted) {
+    }
+
+    private final AnswerRepository answerRepository;
+    private final QuestionRepository questionRepository;
+    private final StudentRepository studentRepository;
+    private final CounterService counterService;
+    private final TransactionTemplate transaction;
+
+    private final boolean enabled;
+    private final String directory;
+    private final int segmentBytes;
+    private final int batchSize;
+    private final int maxRetries;
+    private final boolean sync;
+
+    private final Set<PendingKey> pending = ConcurrentHashMap.newKeySet();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    private AnswerJournal journal;
+    private Thread committer;
+    private volatile boolean running;
+
+    public AnswerJournalService(AnswerRepository answerRepository,
+                                QuestionRepository questionRepository,
+                                StudentRepository studentRepository,
+                                CounterService counterService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${answers.journal.enabled:false}") boolean enabled,
+                                @Value("${answers.journal.dir:journal}") String directory,
+                                @Value("${answers.journal.segment-size-mb:16}") int segmentSizeMb,
+                                @Value("${answers.journal.batch-size:200}") int batchSize,
+                                @Value("${answers.journal.max-retries:5}") int maxRetries,
+                                @Value("${answers.journal.sync:true}") boolean sync) {
+        this.answerRepository = answerRepository;
+        this.questionRepository = questionRepository;
+        this.studentRepository = studentRepository;
+        this.counterService = counterService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.directory = directory;
+        // Um segmento é um único MappedByteBuffer: no máximo Integer.MAX_VALUE bytes
+        long segmentBytes = segmentSizeMb * 1024L * 1024L;
+        if (segmentSizeMb < 1 || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "answers.journal.segment-size-mb deve estar entre 1 e 2047: " + segmentSizeMb);
+        }
+        this.segmentBytes = (int) segmentBytes;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRetries = Math.max(1, maxRetries);
+        this.sync = sync;
+    }
+
+    /**
+     * Abre o journal, recupera as respostas pendentes e inicia a thread de commit.
+     * Roda depois do schema (repositórios injetados), antes de a aplicação aceitar requisições.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = AnswerJournal.open(Paths.get(directory).toAbsolutePath(), segmentBytes);
+        for (Appended appended : journal.recovered()) {
+            pending.add(keyOf(appended.entry()));
+        }
+        running = true;
+        committer = new Thread(this::commitLoop, "answer-journal-committer");
+        committer.setDaemon(true);
+        committer.start();
+        log.info("📒 Ingestão de respostas via journal ativa em {} (lote: {}, sync: {})",
+                Paths.get(directory).toAbsolutePath(), batchSize, sync);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registra a resposta no journal; ao retornar ela já está confirmada e será gravada no banco.
+     *
+     * @throws IllegalArgumentException se o aluno já tiver respondido a questão (no journal ou no banco)
+     */
+    public void submit(Answer answer, Long questionId, Long studentId) {
+        Entry entry = new Entry(questionId, studentId, answer.getCreatedAt(), answer.getText(), answer.getImagePath());
+        PendingKey key = keyOf(entry);
+        if (!pending.add(key)) {
+            throw new IllegalArgumentException("Student has already answered this question");
+        }
+        try {
+            if (answerRepository.existsByQuestionIdAndStudentId(questionId, studentId)) {
+                throw new IllegalArgumentException("Student has already answered this question");
+            }
+            Appended appended = journal.append(entry);
+            if (sync) {
+                journal.awaitDurable(appended.endPosition());
+            }
+        } catch (IOException e) {
+            pending.remove(key);
+            throw new UncheckedIOException("Erro ao gravar resposta no journal: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            pending.remove(key);
+            throw e;
+        }
+        accepted.increment();
+    }
+
+    private void commitLoop() {
+        long backoffMillis = 0;
+        int failedAttempts = 0;
+        while (running || journal.pendingCount() > 0) {
+            List<Appended> batch;
+            try {
+                batch = journal.poll(batchSize, 500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            String failure;
+            try {
+                // Depois de max-retries falhas, uma por vez: só a resposta problemática é descartada
+                Committed result = failedAttempts < maxRetries ? commit(batch) : commitIndividually(batch, true);
+                if (result.processed() > 0) {
+                    List<Appended> done = batch.subList(0, result.processed());
+                    journal.checkpoint(done.get(done.size() - 1).endPosition());
+                    for (Appended appended : done) {
+                        pending.remove(keyOf(appended.entry()));
+                    }
+                    counterService.adjust(CounterService.Counter.ANSWERS, result.inserted());
+                    committed.add(result.inserted());
+                    batches.increment();
+                }
+                if (result.processed() == batch.size()) {
+                    backoffMillis = 0;
+                    failedAttempts = 0;
+                    continue;
+                }
+                journal.requeue(batch.subList(result.processed(), batch.size()));
+                failure = "lote gravado em parte";
+            } catch (RuntimeException | IOException e) {
+                // Banco indisponível (ou erro no lote): o lote volta para a fila e é tentado de novo
+                journal.requeue(batch);
+                failure = e.getMessage();
+            }
+            failedAttempts++;
+            backoffMillis = Math.min(Math.max(backoffMillis * 2, 100), 5000);
+            log.error("❌ Erro ao gravar lote de {} respostas do journal (tentativa {}), nova tentativa em {} ms: {}",
+                    batch.size(), failedAttempts, backoffMillis, failure);
+            if (!running) {
+                return;
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Grava o lote em uma transação. Se alguma resposta violar uma constraint, o lote é
+     * refeito uma a uma para descartar só as inválidas.
+     */
+    private Committed commit(List<Appended> batch) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                List<Answer> answers = new ArrayList<>(batch.size());
+                for (Appended appended : batch) {
+                    answers.add(toAnswer(appended.entry()));
+                }
+                answerRepository.saveAll(answers);
+            });
+            return new Committed(batch.size(), batch.size());
+        } catch (DataIntegrityViolationException e) {
+            log.warn("⚠️ Lote do journal violou constraint, gravando respostas individualmente: {}",
+                    e.getMostSpecificCause().getMessage());
+        }
+        return commitIndividually(batch, false);
+    }
+
+    /**
+     * Grava o lote uma resposta por transação; respostas que violam constraint são descartadas.
+     * Para no primeiro erro de banco indisponível (o restante volta para a fila) e, se
+     * deadLetter, manda para o dead letter a resposta que falhar por outro motivo.
+     */
+    private Committed commitIndividually(List<Appended> batch, boolean deadLetter) {
+        int inserted = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Entry entry = batch.get(i).entry();
+            try {
+                transaction.executeWithoutResult(status -> answerRepository.save(toAnswer(entry)));
+                inserted++;
+            } catch (DataIntegrityViolationException e) {
+                // Resposta repetida (ou questão/aluno removidos): a confirmada antes prevalece
+                discarded.increment();
+                log.warn("⚠️ Resposta do journal descartada - questionId: {}, studentId: {}: {}",
+                        entry.questionId(), entry.studentId(), e.getMostSpecificCause().getMessage());
+            } catch (TransientDataAccessException | DataAccessResourceFailureException
+                     | RecoverableDataAccessException | TransactionException e) {
+                log.debug("Banco indisponível ao gravar resposta do journal: {}", e.getMessage());
+                return new Committed(i, inserted);
+            } catch (RuntimeException e) {
+                if (!deadLetter) {
+                    log.debug("Erro ao gravar resposta do journal: {}", e.getMessage());
+                    return new Committed(i, inserted);
+                }
+                deadLettered.increment();
+                log.error("☠️ Resposta do journal não pôde ser gravada e foi para o dead letter - questionId: {}, "
+                                + "studentId: {}, createdAt: {}, imagePath: {}, texto: {}",
+                        entry.questionId(), entry.studentId(), entry.createdAt(), entry.imagePath(), entry.text(), e);
+            }
+        }
+        return new Committed(batch.size(), inserted);
+    }
+
+    private Answer toAnswer(Entry entry) {
+        Answer answer = new Answer();
+        answer.setText(entry.text());
+        answer.setImagePath(entry.imagePath());
+        answer.setQuestion(questionRepository.getReferenceById(entry.questionId()));
+        answer.setStudent(studentRepository.getReferenceById(entry.studentId()));
+        answer.setCreatedAt(entry.createdAt());
+        return answer;
+    }
+
+    private static PendingKey keyOf(Entry entry) {
+        return new PendingKey(entry.questionId(), entry.studentId());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("sync", sync);
+        stats.put("pending", journal == null ? 0 : journal.pendingCount());
+        stats.put("accepted", accepted.sum());
+        stats.put("committed", committed.sum());
+        stats.put("batches", batches.sum());
+        stats.put("discarded", discarded.sum());
+        stats.put("deadLettered", deadLettered.sum());
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (journal == null) {
+            return;
+        }
+        // Tenta gravar o que falta; o que sobrar é relido na próxima inicialização
+        running = false;
+        committer.join(TimeUnit.SECONDS.toMillis(10));
+        if (committer.isAlive()) {
+            committer.interrupt();
+            committer.join(1000);
+        }
+        journal.close();
+    }
+}
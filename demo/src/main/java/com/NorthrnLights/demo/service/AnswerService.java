@@ -3,18 +3,25 @@ package com.NorthrnLights.demo.service;
 import com.NorthrnLights.demo.domain.Answer;
 import com.NorthrnLights.demo.domain.Question;
 import com.NorthrnLights.demo.domain.Student;
+import com.NorthrnLights.demo.dto.AnswerSummary;
+import com.NorthrnLights.demo.dto.CursorPage;
+import com.NorthrnLights.demo.dto.StudentActivityItem;
 import com.NorthrnLights.demo.repository.AnswerRepository;
 import com.NorthrnLights.demo.repository.QuestionRepository;
 import com.NorthrnLights.demo.repository.StudentRepository;
+import com.NorthrnLights.demo.util.ContentAddressedUploadStore;
+import com.NorthrnLights.demo.util.CursorPaging;
+import com.NorthrnLights.demo.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -26,82 +33,156 @@ public class AnswerService {
     private final AnswerRepository answerRepository;
     private final QuestionRepository questionRepository;
     private final StudentRepository studentRepository;
-    private final com.NorthrnLights.demo.util.UploadDirectoryManager uploadDirectoryManager;
+    private final CounterService counterService;
+    private final ContentAddressedUploadStore uploadStore;
+    private final ImageDerivativeService imageDerivativeService;
+    private final QuestionExpiryCache questionExpiryCache;
+    private final AnswerJournalService answerJournalService;
 
     // Cria uma nova resposta
+    // Insert direto: a constraint uk_answer_question_student garante uma resposta por aluno/questão,
+    // sem o SELECT de verificação prévia. A expiração da questão vem do cache; depois do insert,
+    // uma consulta de colunas monta a resposta com os dados do aluno e da questão.
     public Answer createAnswer(String text, Long questionId, Long studentId, MultipartFile imageFile) throws IOException {
-        log.info("🔍 DEBUG AnswerService: Criando resposta - questionId: {}, studentId: {}", questionId, studentId);
-        
-        // Busca a questão e o estudante
-        Question question = questionRepository.findById(questionId)
+        log.debug("Criando resposta - questionId: {}, studentId: {}", questionId, studentId);
+
+        QuestionExpiryCache.QuestionExpiry expiry = questionExpiryCache.find(questionId)
                 .orElseThrow(() -> {
                     log.error("❌ Questão não encontrada: {}", questionId);
                     return new IllegalArgumentException("Question not found");
                 });
 
-        log.info("🔍 DEBUG AnswerService: Buscando estudante com ID: {}", studentId);
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> {
-                    log.error("❌ Estudante não encontrado com ID: {}", studentId);
-                    // Tentar listar todos os estudantes para debug
-                    List<Student> allStudents = studentRepository.findAll();
-                    log.error("❌ Estudantes disponíveis no banco: {}", 
-                            allStudents.stream().map(s -> s.getId() + ":" + s.getEmail()).toList());
-                    return new IllegalArgumentException("Student not found with ID: " + studentId);
-                });
-        
-        log.info("✅ DEBUG AnswerService: Estudante encontrado - ID: {}, Email: {}", student.getId(), student.getEmail());
-
         // Verifica se a questão expirou
-        if (question.getExpiresAt() != null && question.getExpiresAt().isBefore(java.time.LocalDateTime.now())) {
-            log.warn("⚠️ Tentativa de responder questão expirada. Question ID: {}, ExpiresAt: {}", 
-                    question.getId(), question.getExpiresAt());
-            throw new IllegalArgumentException("Esta questão já expirou e não pode mais ser respondida. Data de expiração: " + 
-                    question.getExpiresAt().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
-        }
-        
-        // Verifica se o estudante já respondeu essa pergunta
-        boolean studentHasAnswered = answerRepository.existsByQuestionIdAndStudentId(questionId, studentId);
-        if (studentHasAnswered) {
-            throw new IllegalArgumentException("Student has already answered this question");
+        if (expiry.isExpired(LocalDateTime.now())) {
+            log.warn("⚠️ Tentativa de responder questão expirada. Question ID: {}, ExpiresAt: {}",
+                    questionId, expiry.expiresAt());
+            throw new IllegalArgumentException("Esta questão já expirou e não pode mais ser respondida. Data de expiração: " +
+                    expiry.expiresAt().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
         }
 
-        // Criação da nova resposta
+        // Criação da nova resposta; questão e estudante como referências (sem SELECT)
         Answer answer = new Answer();
         answer.setText(text);
-        answer.setQuestion(question);
-        answer.setStudent(student);
+        answer.setQuestion(questionRepository.getReferenceById(questionId));
+        answer.setStudent(studentRepository.getReferenceById(studentId));
         answer.setCreatedAt(LocalDateTime.now()); // Definir data de criação explicitamente
 
-        // Se houver imagem, salvar no sistema de arquivos
-        if (imageFile != null && !imageFile.isEmpty()) {
-            String uploadDir = uploadDirectoryManager.getUploadDir("answers");
-            
-            // Tratar nome do arquivo original (pode ter caracteres especiais ou espaços)
-            String originalFilename = imageFile.getOriginalFilename();
-            if (originalFilename == null || originalFilename.trim().isEmpty()) {
-                originalFilename = "image.png";
+        // Se houver imagem, salvar no sistema de arquivos. Se a resposta for rejeitada a imagem
+        // não é apagada: o arquivo é nomeado pelo conteúdo e pode pertencer a outra resposta.
+        Path newImage = storeImage(imageFile, answer);
+
+        if (answerJournalService.isEnabled()) {
+            // Modo journal: confirmada ao gravar no journal; o id é atribuído quando o lote for gravado
+            answerJournalService.submit(answer, questionId, studentId);
+            if (newImage != null) {
+                imageDerivativeService.schedule(newImage);
             }
-            // Remover caracteres problemáticos e espaços do nome do arquivo
-            String sanitizedFilename = originalFilename.replaceAll("[^a-zA-Z0-9._-]", "_");
-            String fileName = System.currentTimeMillis() + "_" + sanitizedFilename;
-            
-            Path path = Paths.get(uploadDir, fileName);
-            
-            try {
-                Files.createDirectories(path.getParent());  // Cria o diretório, se não existir
-                Files.copy(imageFile.getInputStream(), path); // Salva o arquivo no caminho
-                // Retornar caminho relativo para servir via FileController
-                answer.setImagePath("/uploads/answers/" + fileName);
-                log.info("✅ Imagem de resposta salva: {}", path.toAbsolutePath());
-                log.info("🔍 Caminho relativo: {}", answer.getImagePath());
-            } catch (IOException e) {
-                log.error("❌ Erro ao salvar imagem de resposta: {}", e.getMessage(), e);
-                throw new IOException("Erro ao salvar imagem: " + e.getMessage(), e);
+            return toCreatedResponse(answer, expiry, studentId);
+        }
+
+        Answer saved;
+        try {
+            saved = answerRepository.saveAndFlush(answer);  // Salva a resposta no banco de dados
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateAnswer(e)) {
+                throw new IllegalArgumentException("Student has already answered this question");
             }
+            // Chave estrangeira: estudante inexistente ou questão removida depois de entrar no cache
+            log.error("❌ Resposta rejeitada pelo banco - questionId: {}, studentId: {}: {}",
+                    questionId, studentId, e.getMostSpecificCause().getMessage());
+            questionExpiryCache.invalidate(questionId);
+            throw new IllegalArgumentException("Question or student not found");
         }
 
-        return answerRepository.save(answer);  // Salva a resposta no banco de dados
+        if (newImage != null) {
+            imageDerivativeService.schedule(newImage);
+        }
+        counterService.increment(CounterService.Counter.ANSWERS);
+        return toCreatedResponse(saved, expiry, studentId);
+    }
+
+    /**
+     * Violação da uk_answer_question_student (única constraint unique da tabela answer).
+     */
+    private static boolean isDuplicateAnswer(DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName();
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                        || (name != null && name.toLowerCase().contains(Answer.UNIQUE_QUESTION_STUDENT));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Armazena a imagem da resposta (por conteúdo) e define o imagePath.
+     *
+     * @return arquivo se foi gravado agora (para gerar as miniaturas), null se não havia imagem
+     *         ou se o mesmo conteúdo já estava armazenado
+     */
+    private Path storeImage(MultipartFile imageFile, Answer answer) throws IOException {
+        if (imageFile == null || imageFile.isEmpty()) {
+            return null;
+        }
+        try {
+            ContentAddressedUploadStore.StoredFile stored = uploadStore.store("answers", imageFile);
+            // Caminho relativo para servir via FileController
+            answer.setImagePath(stored.urlPath());
+            log.info("✅ Imagem de resposta salva: {} (nova: {})", stored.urlPath(), stored.created());
+            return stored.created() ? stored.file() : null;
+        } catch (IOException e) {
+            log.error("❌ Erro ao salvar imagem de resposta: {}", e.getMessage(), e);
+            throw new IOException("Erro ao salvar imagem: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resposta devolvida ao criar, com os mesmos campos de questão e estudante que a entidade
+     * serializava, lidos em uma única consulta de colunas (sem inicializar as referências nem
+     * carregar options/teacher/exam).
+     */
+    private Answer toCreatedResponse(Answer saved, QuestionExpiryCache.QuestionExpiry expiry, Long studentId) {
+        Question question = new Question();
+        question.setId(expiry.questionId());
+        question.setTitle(expiry.title());
+        question.setExpiresAt(expiry.expiresAt());
+
+        Student student = new Student();
+        student.setId(studentId);
+
+        answerRepository.findCreatedAnswerView(expiry.questionId(), studentId).ifPresent(view -> {
+            student.setUserName(view.getStudentUserName());
+            student.setEmail(view.getStudentEmail());
+            student.setAge(view.getStudentAge());
+            student.setClassRoom(view.getStudentClassRoom());
+            student.setRole(view.getStudentRole());
+            student.setProfileImage(view.getStudentProfileImage());
+
+            question.setTitle(view.getQuestionTitle());
+            question.setDescription(view.getQuestionDescription());
+            question.setPortugueseTranslation(view.getQuestionPortugueseTranslation());
+            question.setHasHelp(view.getQuestionHasHelp());
+            question.setImagePath(view.getQuestionImagePath());
+            question.setMultipleChoice(view.getQuestionMultipleChoice());
+            question.setType(view.getQuestionType());
+            question.setCreatedAt(view.getQuestionCreatedAt());
+            question.setUpdatedAt(view.getQuestionUpdatedAt());
+            question.setExpiresAt(view.getQuestionExpiresAt());
+            question.setVisibleAt(view.getQuestionVisibleAt());
+        });
+
+        return Answer.builder()
+                .id(saved.getId())
+                .text(saved.getText())
+                .imagePath(saved.getImagePath())
+                .createdAt(saved.getCreatedAt())
+                .question(question)
+                .student(student)
+                .build();
     }
 
     // Atualizar uma resposta existente
@@ -112,39 +193,20 @@ public class AnswerService {
         answer.setText(text); // Atualiza o texto
 
         // Se houver imagem, salva no sistema de arquivos
-        if (imageFile != null && !imageFile.isEmpty()) {
-            String uploadDir = uploadDirectoryManager.getUploadDir("answers");
-            
-            // Tratar nome do arquivo original (pode ter caracteres especiais ou espaços)
-            String originalFilename = imageFile.getOriginalFilename();
-            if (originalFilename == null || originalFilename.trim().isEmpty()) {
-                originalFilename = "image.png";
-            }
-            // Remover caracteres problemáticos e espaços do nome do arquivo
-            String sanitizedFilename = originalFilename.replaceAll("[^a-zA-Z0-9._-]", "_");
-            String fileName = System.currentTimeMillis() + "_" + sanitizedFilename;
-            
-            Path path = Paths.get(uploadDir, fileName);
-            
-            try {
-                Files.createDirectories(path.getParent());  // Cria o diretório, se não existir
-                Files.copy(imageFile.getInputStream(), path); // Salva o arquivo no caminho
-                // Retornar caminho relativo para servir via FileController
-                answer.setImagePath("/uploads/answers/" + fileName);
-                log.info("✅ Imagem de resposta atualizada: {}", path.toAbsolutePath());
-                log.info("🔍 Caminho relativo: {}", answer.getImagePath());
-            } catch (IOException e) {
-                log.error("❌ Erro ao atualizar imagem de resposta: {}", e.getMessage(), e);
-                throw new IOException("Erro ao salvar imagem: " + e.getMessage(), e);
-            }
+        Path newImage = storeImage(imageFile, answer);
+        if (newImage != null) {
+            imageDerivativeService.schedule(newImage);
         }
 
         return answerRepository.save(answer); // Salva a resposta atualizada
     }
 
-    // Buscar todas as respostas de uma pergunta específica
-    public List<Answer> findAnswersByQuestionId(Long questionId) {
-        return answerRepository.findByQuestionId(questionId);
+    // Listar respostas paginadas por cursor, da mais recente para a mais antiga (questionId null: todas)
+    public CursorPage<AnswerSummary> findPage(Long questionId, String cursor, Integer size) {
+        int pageSize = CursorPaging.pageSize(size);
+        List<AnswerSummary> rows = answerRepository.findSummaries(
+                questionId, CursorPaging.afterId(cursor), CursorPaging.limit(pageSize));
+        return CursorPaging.page(rows, pageSize, answer -> KeysetCursor.ofId(answer.id()));
     }
 
     // Buscar uma resposta específica pelo ID
@@ -153,14 +215,9 @@ public class AnswerService {
                 .orElseThrow(() -> new IllegalArgumentException("Answer not found"));
     }
 
-    // Buscar todas as respostas
-    public List<Answer> findAll() {
-        return answerRepository.findAll();
-    }
-    
     // Obter quantidade de respostas
     public int getQuantity() {
-        return answerRepository.findAll().size();
+        return (int) counterService.get(CounterService.Counter.ANSWERS);
     }
 
     // Deletar uma resposta
@@ -169,6 +226,7 @@ public class AnswerService {
                 .orElseThrow(() -> new IllegalArgumentException("Answer not found"));
 
         answerRepository.delete(answer);
+        counterService.decrement(CounterService.Counter.ANSWERS);
     }
 
     // Buscar estudante por ID (para validação)
@@ -181,4 +239,15 @@ public class AnswerService {
     public List<Answer> findAnswersByStudentId(Long studentId) {
         return answerRepository.findByStudentIdOrderByCreatedAtDesc(studentId);
     }
+
+    // Atividade do estudante (respostas + correção) paginada por cursor, em uma consulta por página
+    public CursorPage<StudentActivityItem> findActivityPage(Long studentId, String cursor, Integer size) {
+        int pageSize = CursorPaging.pageSize(size);
+        KeysetCursor after = CursorPaging.afterTimestamp(cursor);
+        List<StudentActivityItem> rows = answerRepository.findActivityByStudentId(studentId,
+                after == null ? null : after.timestamp(),
+                after == null ? null : after.id(),
+                CursorPaging.limit(pageSize));
+        return CursorPaging.page(rows, pageSize, item -> new KeysetCursor(item.createdAt(), item.answerId()));
+    }
 }
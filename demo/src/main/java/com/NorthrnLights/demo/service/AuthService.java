@@ -11,6 +11,7 @@ import com.NorthrnLights.demo.repository.UserRepository;
 
 import com.NorthrnLights.demo.util.JwtService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -18,11 +19,13 @@ import org.springframework.web.server.ResponseStatusException;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final CounterService counterService;
 
     public AuthResponse register(AuthRegister request, Role role) {
         if (role != Role.STUDENT) {
@@ -42,6 +45,7 @@ public class AuthService {
                 .build();
 
         userRepository.save(user);
+        counterService.increment(CounterService.Counter.STUDENTS);
 
         String token = jwtService.generateToken(user);
 
@@ -62,6 +66,13 @@ public class AuthService {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid password");
         }
 
+        // Hash com custo BCrypt antigo: regravar com o custo atual (senha em claro só existe aqui)
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            userRepository.save(user);
+            log.info("🔐 Hash de senha atualizado para o custo atual - usuário ID: {}", user.getId());
+        }
+
         String token = jwtService.generateToken(user);
 
         return new AuthResponse(
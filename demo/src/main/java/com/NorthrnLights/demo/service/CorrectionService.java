@@ -4,11 +4,17 @@ import com.NorthrnLights.demo.domain.Answer;
 import com.NorthrnLights.demo.domain.Correction;
 import com.NorthrnLights.demo.domain.Teacher;
 import com.NorthrnLights.demo.dto.CorrectionDTO;
+import com.NorthrnLights.demo.dto.CorrectionSummary;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.repository.AnswerRepository;
 import com.NorthrnLights.demo.repository.CorrectionRepository;
 import com.NorthrnLights.demo.repository.TeacherRepository;
+import com.NorthrnLights.demo.security.AuthenticatedUserResolver;
+import com.NorthrnLights.demo.util.CursorPaging;
+import com.NorthrnLights.demo.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.http.HttpStatus;
@@ -24,6 +30,7 @@ public class CorrectionService {
     private final CorrectionRepository correctionRepository;
     private final AnswerRepository answerRepository;
     private final TeacherRepository teacherRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     public Correction createCorrection(CorrectionDTO dto, Authentication authentication) {
         log.info("Creating correction for Answer ID: {}", dto.getAnswerId());
@@ -31,7 +38,7 @@ public class CorrectionService {
         Answer answer = answerRepository.findById(dto.getAnswerId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Answer not found"));
 
-        Teacher teacher = getAuthenticatedTeacher(authentication);
+        Teacher teacher = authenticatedUserResolver.requireTeacher(authentication);
 
         Correction correction = Correction.builder()
                 .grade(dto.getGrade())
@@ -40,11 +47,20 @@ public class CorrectionService {
                 .teacher(teacher)
                 .build();
 
-        return correctionRepository.save(correction);
+        try {
+            return correctionRepository.saveAndFlush(correction);
+        } catch (DataIntegrityViolationException e) {
+            // Índice único de answer_id: a resposta já tem correção (manual ou automática)
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Answer already corrected");
+        }
     }
 
-    public List<Correction> findAll() {
-        return correctionRepository.findAll();
+    // Correções paginadas por cursor, da mais recente para a mais antiga (teacherId null: todas)
+    public CursorPage<CorrectionSummary> findPage(Long teacherId, String cursor, Integer size) {
+        int pageSize = CursorPaging.pageSize(size);
+        List<CorrectionSummary> rows = correctionRepository.findSummaries(
+                teacherId, CursorPaging.afterId(cursor), CursorPaging.limit(pageSize));
+        return CursorPaging.page(rows, pageSize, correction -> KeysetCursor.ofId(correction.id()));
     }
 
     public Correction findById(Long id) {
@@ -55,8 +71,8 @@ public class CorrectionService {
     public Correction updateCorrection(Long id, CorrectionDTO dto, Authentication authentication) {
         Correction existing = findById(id);
 
-        Teacher authenticatedTeacher = getAuthenticatedTeacher(authentication);
-        if (!existing.getTeacher().getId().equals(authenticatedTeacher.getId())) {
+        Long authenticatedTeacherId = authenticatedUserResolver.requireTeacherId(authentication);
+        if (!existing.getTeacher().getId().equals(authenticatedTeacherId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only update your own corrections");
         }
 
@@ -73,8 +89,8 @@ public class CorrectionService {
     public void deleteCorrection(Long id, Authentication authentication) {
         Correction correction = findById(id);
 
-        Teacher authenticatedTeacher = getAuthenticatedTeacher(authentication);
-        if (!correction.getTeacher().getId().equals(authenticatedTeacher.getId())) {
+        Long authenticatedTeacherId = authenticatedUserResolver.requireTeacherId(authentication);
+        if (!correction.getTeacher().getId().equals(authenticatedTeacherId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only delete your own corrections");
         }
 
@@ -82,36 +98,21 @@ public class CorrectionService {
     }
 
     public List<Correction> findByTeacherId(Long teacherId, Authentication authentication) {
-        Teacher authenticatedTeacher = getAuthenticatedTeacher(authentication);
-        if (!authenticatedTeacher.getId().equals(teacherId)) {
+        Long authenticatedTeacherId = authenticatedUserResolver.requireTeacherId(authentication);
+        if (!authenticatedTeacherId.equals(teacherId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only access your own corrections");
         }
 
         return correctionRepository.findByTeacherId(teacherId);
     }
 
-    public List<Correction> findByAuthenticatedTeacher(Authentication authentication) {
-        Teacher teacher = getAuthenticatedTeacher(authentication);
-        return correctionRepository.findByTeacherId(teacher.getId());
+    public CursorPage<CorrectionSummary> findPageByAuthenticatedTeacher(Authentication authentication,
+                                                                        String cursor, Integer size) {
+        Long teacherId = authenticatedUserResolver.requireTeacherId(authentication);
+        return findPage(teacherId, cursor, size);
     }
 
     public List<Correction> findByAnswerId(Long answerId) {
         return correctionRepository.findByAnswerId(answerId);
     }
-
-    private Teacher getAuthenticatedTeacher(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
-        }
-
-        Object principal = authentication.getPrincipal();
-        log.debug("Principal type: {}", principal.getClass().getName());
-
-        if (principal instanceof Teacher) {
-            return (Teacher) principal;
-        } else {
-            log.error("Principal não é um Teacher. Tipo: {}", principal.getClass().getName());
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Authenticated user is not a teacher");
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.NorthrnLights.demo.service;
+
+import com.NorthrnLights.demo.repository.AnswerRepository;
+import com.NorthrnLights.demo.repository.MeetRepository;
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import com.NorthrnLights.demo.repository.StudentRepository;
+import com.NorthrnLights.demo.repository.TeacherRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Contadores do dashboard (questões, alunos, professores, aulas, respostas).
+ *
+ * Cada valor vem de um COUNT(*) e fica em cache; os serviços ajustam o valor em +1/-1
+ * ao criar/excluir e invalidam quando uma operação remove registros em cascata.
+ * O cache também expira após um TTL, para corrigir eventuais divergências.
+ */
+@Log4j2
+@Service
+public class CounterService {
+
+    public enum Counter {
+        QUESTIONS, STUDENTS, TEACHERS, MEETS, ANSWERS
+    }
+
+    /**
+     * Valor em cache e o instante em que foi lido do banco.
+     */
+    private record CachedCount(long value, long loadedAtMillis) {
+    }
+
+    private final Map<Counter, LongSupplier> queries = new EnumMap<>(Counter.class);
+    private final Map<Counter, CachedCount> cache = new EnumMap<>(Counter.class);
+    private final long ttlMillis;
+
+    public CounterService(QuestionRepository questionRepository,
+                          StudentRepository studentRepository,
+                          TeacherRepository teacherRepository,
+                          MeetRepository meetRepository,
+                          AnswerRepository answerRepository,
+                          @Value("${stats.counters.ttl-seconds:300}") long ttlSeconds) {
+        // JpaRepository.count() executa SELECT COUNT(*) sem carregar entidades
+        queries.put(Counter.QUESTIONS, questionRepository::count);
+        queries.put(Counter.STUDENTS, studentRepository::count);
+        queries.put(Counter.TEACHERS, teacherRepository::count);
+        queries.put(Counter.MEETS, meetRepository::count);
+        queries.put(Counter.ANSWERS, answerRepository::count);
+        this.ttlMillis = ttlSeconds * 1000L;
+    }
+
+    public long get(Counter counter) {
+        synchronized (cache) {
+            CachedCount cached = cache.get(counter);
+            if (cached != null && System.currentTimeMillis() - cached.loadedAtMillis() < ttlMillis) {
+                return cached.value();
+            }
+        }
+        // Consulta fora do lock; em corrida, a última leitura prevalece
+        long value = queries.get(counter).getAsLong();
+        synchronized (cache) {
+            cache.put(counter, new CachedCount(value, System.currentTimeMillis()));
+        }
+        log.debug("Contador {} carregado do banco: {}", counter, value);
+        return value;
+    }
+
+    /**
+     * Todos os contadores, na ordem do enum.
+     */
+    public Map<String, Long> getAll() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (Counter counter : Counter.values()) {
+            counters.put(counter.name().toLowerCase(), get(counter));
+        }
+        return counters;
+    }
+
+    /**
+     * Ajusta o valor em cache após criação (delta > 0) ou exclusão (delta < 0).
+     * Se o contador ainda não foi carregado, não faz nada: a próxima leitura consulta o banco.
+     */
+    public void adjust(Counter counter, long delta) {
+        synchronized (cache) {
+            CachedCount cached = cache.get(counter);
+            if (cached != null) {
+                cache.put(counter, new CachedCount(Math.max(0, cached.value() + delta), cached.loadedAtMillis()));
+            }
+        }
+    }
+
+    public void increment(Counter counter) {
+        adjust(counter, 1);
+    }
+
+    public void decrement(Counter counter) {
+        adjust(counter, -1);
+    }
+
+    /**
+     * Descarta o valor em cache (ex: exclusões em cascata com quantidade desconhecida).
+     */
+    public void invalidate(Counter... counters) {
+        synchronized (cache) {
+            for (Counter counter : counters) {
+                cache.remove(counter);
+            }
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.NorthrnLights.demo.service;
 
 import com.NorthrnLights.demo.domain.*;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.dto.ExamGradeDTO;
+import com.NorthrnLights.demo.dto.ExamGradeSummary;
 import com.NorthrnLights.demo.repository.*;
+import com.NorthrnLights.demo.security.AuthenticatedUserResolver;
+import com.NorthrnLights.demo.util.CursorPaging;
 import com.NorthrnLights.demo.util.GradeCalculator;
+import com.NorthrnLights.demo.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -28,6 +33,7 @@ public class ExamGradeService {
     private final ExamRepository examRepository;
     private final TeacherRepository teacherRepository;
     private final EmailService emailService;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @Transactional
     public ExamGrade createExamGrade(ExamGradeDTO dto, Authentication authentication) {
@@ -36,7 +42,7 @@ public class ExamGradeService {
         Student student = studentRepository.findById(dto.getStudentId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Estudante não encontrado"));
 
-        Teacher teacher = getAuthenticatedTeacher(authentication);
+        Teacher teacher = authenticatedUserResolver.requireTeacher(authentication);
 
         // Exam pode ser null - se não fornecido, criar nota de prova geral
         Exam exam = null;
@@ -194,20 +200,11 @@ public class ExamGradeService {
         return examGradeRepository.findByStudentIdOrderByCreatedAtDesc(studentId);
     }
 
-    public List<ExamGrade> getExamGrades(Long examId) {
-        return examGradeRepository.findByExamId(examId);
-    }
-
-    private Teacher getAuthenticatedTeacher(Authentication authentication) {
-        if (authentication == null || authentication.getPrincipal() == null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário não autenticado");
-        }
-
-        if (!(authentication.getPrincipal() instanceof Teacher)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Usuário autenticado não é um professor");
-        }
-
-        return (Teacher) authentication.getPrincipal();
+    public CursorPage<ExamGradeSummary> getExamGrades(Long examId, String cursor, Integer size) {
+        int pageSize = CursorPaging.pageSize(size);
+        List<ExamGradeSummary> rows = examGradeRepository.findSummariesByExamId(
+                examId, CursorPaging.afterId(cursor), CursorPaging.limit(pageSize));
+        return CursorPaging.page(rows, pageSize, grade -> KeysetCursor.ofId(grade.id()));
     }
 }
 
@@ -3,16 +3,20 @@ package com.NorthrnLights.demo.service;
 import com.NorthrnLights.demo.domain.Exam;
 import com.NorthrnLights.demo.domain.Question;
 import com.NorthrnLights.demo.domain.Teacher;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.dto.ExamDTO;
+import com.NorthrnLights.demo.dto.ExamSummary;
 import com.NorthrnLights.demo.repository.ExamRepository;
 import com.NorthrnLights.demo.repository.QuestionRepository;
 import com.NorthrnLights.demo.repository.TeacherRepository;
+import com.NorthrnLights.demo.security.AuthenticatedUserResolver;
+import com.NorthrnLights.demo.util.CursorPaging;
+import com.NorthrnLights.demo.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -22,10 +26,12 @@ public class ExamService {
     private final ExamRepository examRepository;
     private final QuestionRepository questionRepository;
     private final TeacherRepository teacherRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+    private final QuestionCatalogueSnapshot catalogueSnapshot;
 
     @Transactional
     public Exam createExam(ExamDTO dto, Authentication authentication) {
-        Teacher teacher = (Teacher) authentication.getPrincipal();
+        Teacher teacher = authenticatedUserResolver.requireTeacher(authentication);
         
         Exam exam = Exam.builder()
                 .title(dto.getTitle())
@@ -42,18 +48,18 @@ public class ExamService {
 
         // Associar questões à prova
         if (dto.getQuestionIds() != null && !dto.getQuestionIds().isEmpty()) {
-            List<Question> questions = questionRepository.findAllById(dto.getQuestionIds());
-            for (Question question : questions) {
-                question.setExam(exam);
-            }
-            questionRepository.saveAll(questions);
+            questionRepository.assignExam(exam, dto.getQuestionIds());
+            catalogueSnapshot.invalidate();
         }
 
         return exam;
     }
 
-    public List<Exam> findAll() {
-        return examRepository.findAll();
+    // Provas paginadas por cursor, da mais recente para a mais antiga, sem as questões
+    public CursorPage<ExamSummary> findPage(String cursor, Integer size) {
+        int pageSize = CursorPaging.pageSize(size);
+        List<ExamSummary> rows = examRepository.findSummaries(CursorPaging.afterId(cursor), CursorPaging.limit(pageSize));
+        return CursorPaging.page(rows, pageSize, exam -> KeysetCursor.ofId(exam.id()));
     }
 
     public Exam findById(Long id) {
@@ -61,17 +67,28 @@ public class ExamService {
                 .orElseThrow(() -> new RuntimeException("Prova não encontrada"));
     }
 
+    /**
+     * Questões da prova com opções, carregadas em uma única consulta.
+     */
+    public List<Question> findQuestions(Long examId) {
+        List<Question> questions = questionRepository.findByExamIdWithOptions(examId);
+        if (questions.isEmpty() && !examRepository.existsById(examId)) {
+            throw new RuntimeException("Prova não encontrada");
+        }
+        return questions;
+    }
+
     public List<Exam> findByTeacher(Authentication authentication) {
-        Teacher teacher = (Teacher) authentication.getPrincipal();
-        return examRepository.findByTeacherId(teacher.getId());
+        Long teacherId = authenticatedUserResolver.requireTeacherId(authentication);
+        return examRepository.findByTeacherId(teacherId);
     }
 
     @Transactional
     public Exam updateExam(Long id, ExamDTO dto, Authentication authentication) {
         Exam exam = findById(id);
-        Teacher teacher = (Teacher) authentication.getPrincipal();
+        Long teacherId = authenticatedUserResolver.requireTeacherId(authentication);
 
-        if (!exam.getTeacher().getId().equals(teacher.getId())) {
+        if (!exam.getTeacher().getId().equals(teacherId)) {
             throw new RuntimeException("Você não tem permissão para editar esta prova");
         }
 
@@ -85,50 +102,36 @@ public class ExamService {
             exam.setIsActive(dto.getIsActive());
         }
 
-        // Atualizar questões associadas
+        // Atualizar questões associadas: dois UPDATEs, sem carregar o banco de questões
         if (dto.getQuestionIds() != null) {
-            // Remover associação de questões antigas
-            List<Question> oldQuestions = questionRepository.findAll()
-                    .stream()
-                    .filter(q -> exam.equals(q.getExam()))
-                    .toList();
-            for (Question q : oldQuestions) {
-                q.setExam(null);
-            }
-
-            // Adicionar novas questões
-            if (!dto.getQuestionIds().isEmpty()) {
-                List<Question> questions = questionRepository.findAllById(dto.getQuestionIds());
-                for (Question question : questions) {
-                    question.setExam(exam);
-                }
-                questionRepository.saveAll(questions);
+            if (dto.getQuestionIds().isEmpty()) {
+                questionRepository.clearExam(exam.getId());
+            } else {
+                // Remover associação das questões que saíram da prova e associar a nova lista
+                questionRepository.clearExamExcept(exam.getId(), dto.getQuestionIds());
+                questionRepository.assignExam(exam, dto.getQuestionIds());
             }
         }
 
-        return examRepository.save(exam);
+        Exam saved = examRepository.save(exam);
+        catalogueSnapshot.invalidate();
+        return saved;
     }
 
     @Transactional
     public void deleteExam(Long id, Authentication authentication) {
         Exam exam = findById(id);
-        Teacher teacher = (Teacher) authentication.getPrincipal();
+        Long teacherId = authenticatedUserResolver.requireTeacherId(authentication);
 
-        if (!exam.getTeacher().getId().equals(teacher.getId())) {
+        if (!exam.getTeacher().getId().equals(teacherId)) {
             throw new RuntimeException("Você não tem permissão para excluir esta prova");
         }
 
-        // Remover associação de questões
-        List<Question> questions = questionRepository.findAll()
-                .stream()
-                .filter(q -> exam.equals(q.getExam()))
-                .toList();
-        for (Question q : questions) {
-            q.setExam(null);
-        }
-        questionRepository.saveAll(questions);
+        // Remover associação de questões (antes do delete, para o cascade não apagar as questões)
+        questionRepository.clearExam(exam.getId());
 
         examRepository.delete(exam);
+        catalogueSnapshot.invalidate();
     }
 }
 
@@ -0,0 +1,531 @@
+package com.NorthrnLights.demo.service;
+
+import com.NorthrnLights.demo.util.UploadDirectoryManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gera versões reduzidas (thumb e medium) das imagens enviadas, em um pool limitado.
+ *
+ * As versões são re-codificadas a partir dos pixels (sem EXIF/metadados, com a orientação
+ * da câmera já aplicada) e gravadas em {base}/derivatives/{tamanho}/{subdir}/{nome}.jpg
+ * (ou .png quando a imagem tem transparência). Enquanto não existem, o FileController
+ * serve o original.
+ *
+ * Originais que o ImageIO não consegue decodificar ficam em um cache negativo (LRU de
+ * undecodable-cache-size entradas, pela data de modificação do arquivo) e não são
+ * reagendados a cada pedido com ?size=; se o arquivo for substituído, a geração é tentada de novo.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService implements DisposableBean {
+
+    private static final String DERIVATIVES_DIR = "derivatives";
+    private static final String URL_PREFIX = "/uploads/";
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+    /**
+     * Versões geradas; o maior lado de cada uma vem de uploads.derivatives.*-size.
+     */
+    public enum Size {
+        THUMB("thumb"),
+        MEDIUM("medium");
+
+        private final String directory;
+
+        Size(String directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Tamanho pelo parâmetro da requisição (ex: "thumb"); vazio para original ou desconhecido.
+         */
+        public static Optional<Size> fromParameter(String value) {
+            if (value == null) {
+                return Optional.empty();
+            }
+            for (Size size : values()) {
+                if (size.directory.equalsIgnoreCase(value.trim())) {
+                    return Optional.of(size);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final UploadDirectoryManager uploadDirectoryManager;
+    private final int thumbMaxDimension;
+    private final int mediumMaxDimension;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor executor;
+
+    // Originais com geração em andamento, para não enfileirar a mesma imagem duas vezes
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder skippedUndecodable = new LongAdder();
+
+    // Originais que falharam na decodificação -> data de modificação do arquivo na falha
+    private final int undecodableCacheSize;
+    private final Map<Path, Long> undecodable;
+
+    public ImageDerivativeService(UploadDirectoryManager uploadDirectoryManager,
+                                  @Value("${uploads.derivatives.thumb-size:240}") int thumbMaxDimension,
+                                  @Value("${uploads.derivatives.medium-size:1024}") int mediumMaxDimension,
+                                  @Value("${uploads.derivatives.jpeg-quality:0.82}") float jpegQuality,
+                                  @Value("${uploads.derivatives.workers:2}") int workers,
+                                  @Value("${uploads.derivatives.queue-capacity:100}") int queueCapacity,
+                                  @Value("${uploads.derivatives.undecodable-cache-size:1000}") int undecodableCacheSize) {
+        this.uploadDirectoryManager = uploadDirectoryManager;
+        this.undecodableCacheSize = Math.max(0, undecodableCacheSize);
+        // LinkedHashMap em ordem de acesso = LRU; acesso protegido pelo lock do próprio mapa
+        this.undecodable = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Long> eldest) {
+                return size() > ImageDerivativeService.this.undecodableCacheSize;
+            }
+        };
+        this.thumbMaxDimension = thumbMaxDimension;
+        this.mediumMaxDimension = mediumMaxDimension;
+        this.jpegQuality = jpegQuality;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Agenda a geração das versões de uma imagem recém-gravada. Não bloqueia: com a fila cheia
+     * a imagem fica sem versões por enquanto e é reagendada na próxima vez que for pedida.
+     * Imagens que já falharam na decodificação (e não mudaram desde então) não são reagendadas.
+     *
+     * @param original arquivo gravado no diretório de uploads
+     */
+    public void schedule(Path original) {
+        if (original == null || !isSupported(original)) {
+            return;
+        }
+        if (isKnownUndecodable(original)) {
+            skippedUndecodable.increment();
+            return;
+        }
+        if (!pending.add(original)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(original);
+                } finally {
+                    pending.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(original);
+            rejected.increment();
+            log.warn("⚠️ Fila de miniaturas cheia; versões de {} ficam para depois", original.getFileName());
+        }
+    }
+
+    /**
+     * Versão já gerada de uma imagem.
+     *
+     * @param urlPath caminho como salvo no banco (ex: "/uploads/questions/file.png")
+     */
+    public Optional<Path> findDerivative(String urlPath, Size size) {
+        String key = toKey(urlPath);
+        if (key == null) {
+            return Optional.empty();
+        }
+        Path base = Paths.get(uploadDirectoryManager.getBaseUploadDir());
+        Path directory = base.resolve(DERIVATIVES_DIR).resolve(size.directory).normalize();
+        String name = stripExtension(key);
+        for (String extension : new String[]{"jpg", "png"}) {
+            Path candidate = directory.resolve(name + "." + extension).normalize();
+            if (candidate.startsWith(directory) && Files.isRegularFile(candidate)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Arquivo original correspondente ao caminho salvo no banco, dentro do diretório de uploads.
+     */
+    public Optional<Path> resolveOriginal(String urlPath) {
+        String key = toKey(urlPath);
+        if (key == null) {
+            return Optional.empty();
+        }
+        Path base = Paths.get(uploadDirectoryManager.getBaseUploadDir()).normalize();
+        Path original = base.resolve(key).normalize();
+        return original.startsWith(base) && Files.isRegularFile(original) ? Optional.of(original) : Optional.empty();
+    }
+
+    /**
+     * Apaga as versões geradas de uma imagem (chamado quando o original é removido).
+     *
+     * @return bytes liberados
+     */
+    public long deleteDerivatives(String urlPath) {
+        long freed = 0;
+        for (Size size : Size.values()) {
+            Optional<Path> derivative;
+            while ((derivative = findDerivative(urlPath, size)).isPresent()) {
+                try {
+                    long bytes = Files.size(derivative.get());
+                    Files.delete(derivative.get());
+                    freed += bytes;
+                } catch (IOException e) {
+                    log.warn("⚠️ Não foi possível apagar a versão {} de {}: {}", size.directory, urlPath, e.getMessage());
+                    break;
+                }
+            }
+        }
+        return freed;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("generated", generated.sum());
+        stats.put("failed", failed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("skippedUndecodable", skippedUndecodable.sum());
+        synchronized (undecodable) {
+            stats.put("undecodableCached", undecodable.size());
+        }
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("activeThreads", executor.getActiveCount());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void generate(Path original) {
+        long start = System.nanoTime();
+        try {
+            BufferedImage medium = readScaled(original, mediumMaxDimension);
+            if (medium == null) {
+                log.debug("Formato não suportado pelo ImageIO: {}", original.getFileName());
+                rememberUndecodable(original);
+                return;
+            }
+            BufferedImage thumb = scaleToFit(medium, thumbMaxDimension);
+
+            String key = relativeKey(original);
+            write(medium, Size.MEDIUM, key);
+            write(thumb, Size.THUMB, key);
+            generated.increment();
+            log.debug("🖼️ Versões de {} geradas em {} ms ({}x{} / {}x{})", key,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    medium.getWidth(), medium.getHeight(), thumb.getWidth(), thumb.getHeight());
+        } catch (Exception | OutOfMemoryError e) {
+            failed.increment();
+            log.warn("⚠️ Erro ao gerar versões de {}: {}", original.getFileName(), e.toString());
+            rememberUndecodable(original);
+        }
+    }
+
+    private boolean isKnownUndecodable(Path original) {
+        Long failedModified;
+        synchronized (undecodable) {
+            failedModified = undecodable.get(original);
+        }
+        if (failedModified == null) {
+            return false;
+        }
+        if (failedModified == lastModified(original)) {
+            return true;
+        }
+        // Arquivo substituído desde a falha: tentar de novo
+        synchronized (undecodable) {
+            undecodable.remove(original);
+        }
+        return false;
+    }
+
+    private void rememberUndecodable(Path original) {
+        if (undecodableCacheSize == 0) {
+            return;
+        }
+        long modified = lastModified(original);
+        synchronized (undecodable) {
+            undecodable.put(original, modified);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Decodifica a imagem já reduzida (subsampling na leitura, para não alocar a resolução
+     * cheia da câmera), aplica a orientação EXIF e redimensiona para o maior lado pedido.
+     */
+    private BufferedImage readScaled(Path original, int maxDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // Mantém pelo menos o dobro do tamanho final, para a redução final ter qualidade
+                int subsampling = Math.max(1, Math.max(width, height) / (maxDimension * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                int orientation = readOrientation(reader);
+                BufferedImage image = reader.read(0, param);
+                return applyOrientation(scaleToFit(image, maxDimension), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage source, int maxDimension) {
+        boolean alpha = source.getColorModel().hasAlpha();
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Reduz pela metade até chegar perto do alvo (bilinear em um passo só serrilha)
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private void write(BufferedImage image, Size size, String key) throws IOException {
+        boolean alpha = image.getColorModel().hasAlpha();
+        String format = alpha ? "png" : "jpg";
+        Path base = Paths.get(uploadDirectoryManager.getBaseUploadDir());
+        Path target = base.resolve(DERIVATIVES_DIR).resolve(size.directory).resolve(stripExtension(key) + "." + format);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".derivative", "." + format);
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName(alpha ? "png" : "jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if (!alpha) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(jpegQuality);
+                    param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                }
+                // Sem metadados: só os pixels são gravados (EXIF, GPS e perfil da câmera ficam de fora)
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            // O FileController nunca vê um arquivo pela metade
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Orientação EXIF (1-8) de um JPEG; 1 quando ausente ou em outros formatos.
+     */
+    private static int readOrientation(ImageReader reader) {
+        try {
+            IIOMetadata metadata = reader.getImageMetadata(0);
+            if (metadata == null || !"javax_imageio_jpeg_image_1.0".equals(metadata.getNativeMetadataFormatName())) {
+                return 1;
+            }
+            Node root = metadata.getAsTree("javax_imageio_jpeg_image_1.0");
+            for (Node sequence = root.getFirstChild(); sequence != null; sequence = sequence.getNextSibling()) {
+                if (!"markerSequence".equals(sequence.getNodeName())) {
+                    continue;
+                }
+                for (Node marker = sequence.getFirstChild(); marker != null; marker = marker.getNextSibling()) {
+                    Node tag = marker.getAttributes() == null ? null : marker.getAttributes().getNamedItem("MarkerTag");
+                    if ("unknown".equals(marker.getNodeName()) && tag != null && "225".equals(tag.getNodeValue())
+                            && marker instanceof javax.imageio.metadata.IIOMetadataNode node
+                            && node.getUserObject() instanceof byte[] app1) {
+                        return parseExifOrientation(app1);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Metadados ilegíveis: {}", e.getMessage());
+        }
+        return 1;
+    }
+
+    /**
+     * Lê a tag Orientation (0x0112) do IFD0 de um segmento APP1 "Exif\0\0" + TIFF.
+     */
+    static int parseExifOrientation(byte[] app1) {
+        if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+            return 1;
+        }
+        int tiff = 6;
+        boolean littleEndian = app1[tiff] == 'I';
+        int ifd = tiff + readInt(app1, tiff + 4, littleEndian);
+        if (ifd + 2 > app1.length) {
+            return 1;
+        }
+        int entries = readShort(app1, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > app1.length) {
+                break;
+            }
+            if (readShort(app1, entry, littleEndian) == 0x0112) {
+                int value = readShort(app1, entry + 8, littleEndian);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean littleEndian) {
+        int b0 = data[offset] & 0xFF;
+        int b1 = data[offset + 1] & 0xFF;
+        return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static int readInt(byte[] data, int offset, boolean littleEndian) {
+        int high = readShort(data, offset + (littleEndian ? 2 : 0), littleEndian);
+        int low = readShort(data, offset + (littleEndian ? 0 : 2), littleEndian);
+        return (high << 16) | low;
+    }
+
+    /**
+     * Aplica a orientação EXIF aos pixels, já que os metadados não são copiados.
+     */
+    static BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { transform.scale(-1, 1); transform.translate(-width, 0); }
+            case 3 -> { transform.translate(width, height); transform.rotate(Math.PI); }
+            case 4 -> { transform.scale(1, -1); transform.translate(0, -height); }
+            case 5 -> { transform.rotate(Math.PI / 2); transform.scale(1, -1); }
+            case 6 -> { transform.translate(height, 0); transform.rotate(Math.PI / 2); }
+            case 7 -> { transform.scale(-1, 1); transform.translate(-height, 0);
+                        transform.translate(0, width); transform.rotate(3 * Math.PI / 2); }
+            default -> { transform.translate(0, width); transform.rotate(3 * Math.PI / 2); }
+        }
+        BufferedImage rotated = new BufferedImage(swap ? height : width, swap ? width : height,
+                image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rotated.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rotated;
+    }
+
+    private boolean isSupported(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && SUPPORTED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private String relativeKey(Path original) {
+        Path base = Paths.get(uploadDirectoryManager.getBaseUploadDir()).toAbsolutePath().normalize();
+        return base.relativize(original.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
+    private static String toKey(String urlPath) {
+        if (urlPath == null || urlPath.isBlank()) {
+            return null;
+        }
+        String key = urlPath.trim().replace('\\', '/');
+        if (key.startsWith(URL_PREFIX)) {
+            key = key.substring(URL_PREFIX.length());
+        } else if (key.startsWith(URL_PREFIX.substring(1))) {
+            key = key.substring(URL_PREFIX.length() - 1);
+        }
+        return key.isEmpty() || key.startsWith(DERIVATIVES_DIR + "/") ? null : key;
+    }
+
+    private static String stripExtension(String key) {
+        int slash = key.lastIndexOf('/');
+        int dot = key.lastIndexOf('.');
+        return dot > slash ? key.substring(0, dot) : key;
+    }
+}
@@ -1,8 +1,11 @@
 package com.NorthrnLights.demo.service;
 
 import com.NorthrnLights.demo.domain.Meet;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.dto.MeetDTO;
 import com.NorthrnLights.demo.repository.MeetRepository;
+import com.NorthrnLights.demo.util.CursorPaging;
+import com.NorthrnLights.demo.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -19,6 +22,7 @@ import java.util.Optional;
 public class MeetServiceImpl  {
 
     private final MeetRepository meetRepository;
+    private final CounterService counterService;
 
 
     public Meet create(MeetDTO meetRequest) {
@@ -59,7 +63,9 @@ public class MeetServiceImpl  {
                 meetRequest.getPresentInClass() != null ? meetRequest.getPresentInClass() : 0
         );
 
-        return meetRepository.save(meet);
+        Meet saved = meetRepository.save(meet);
+        counterService.increment(CounterService.Counter.MEETS);
+        return saved;
     }
 
     public Meet updatePresentCount(Long id, int newCount) {
@@ -71,37 +77,40 @@ public class MeetServiceImpl  {
         return meetRepository.save(meet);
     }
 
-    public List<Meet> findWithFilters(Long id, LocalDateTime startDate, LocalDateTime endDate) {
+    /**
+     * Meets paginados por cursor, do mais recente para o mais antigo. Com id, devolve só esse meet;
+     * com as duas datas, os que começam no intervalo; só startDate, os que terminam depois dela;
+     * só endDate, os que começam antes dela.
+     */
+    public CursorPage<Meet> findWithFilters(Long id, LocalDateTime startDate, LocalDateTime endDate,
+                                            String cursor, Integer size) {
         log.info("Searching meets with filters - ID: {}, StartDate: {}, EndDate: {}", id, startDate, endDate);
 
-        List<Meet> meets;
-        
         if (id != null) {
-            Optional<Meet> meet = meetRepository.findById(id);
-            meets = meet.map(List::of).orElse(List.of());
-        } else if (startDate != null && endDate != null) {
+            List<Meet> meet = meetRepository.findById(id).map(List::of).orElse(List.of());
+            return new CursorPage<>(meet, null, false);
+        }
+
+        LocalDateTime startFrom = null;
+        LocalDateTime startTo = null;
+        LocalDateTime startBefore = null;
+        LocalDateTime endAfter = null;
+        if (startDate != null && endDate != null) {
             if (startDate.isAfter(endDate)) {
                 throw new IllegalArgumentException("Start date cannot be after end date");
             }
-            meets = meetRepository.findByDateTimeStartBetween(startDate, endDate);
+            startFrom = startDate;
+            startTo = endDate;
         } else if (startDate != null) {
-            meets = meetRepository.findBydateTimeEndAfter(startDate);
+            endAfter = startDate;
         } else if (endDate != null) {
-            meets = meetRepository.findBydateTimeStartBefore(endDate);
-        } else {
-            // Se nenhum filtro for passado, retorna tudo
-            meets = meetRepository.findAll();
-        }
-        
-        // Finalizar automaticamente meets expirados
-        LocalDateTime now = LocalDateTime.now();
-        for (Meet meet : meets) {
-            if (meet.getDateTimeEnd() != null && meet.getDateTimeEnd().isBefore(now)) {
-                log.debug("Meet {} expirado em {}", meet.getId(), meet.getDateTimeEnd());
-            }
+            startBefore = endDate;
         }
-        
-        return meets;
+
+        int pageSize = CursorPaging.pageSize(size);
+        List<Meet> rows = meetRepository.findPage(startFrom, startTo, startBefore, endAfter,
+                CursorPaging.afterId(cursor), CursorPaging.limit(pageSize));
+        return CursorPaging.page(rows, pageSize, meet -> KeysetCursor.ofId(meet.getId()));
     }
 
 
@@ -122,8 +131,7 @@ public class MeetServiceImpl  {
     }
 
     public int getQuantityMeets() {
-        log.info("searching Quantity meets");
-        return meetRepository.findAll().size();
+        return (int) counterService.get(CounterService.Counter.MEETS);
     }
 
 
@@ -172,6 +180,7 @@ public class MeetServiceImpl  {
         }
         
         meetRepository.deleteById(id);
+        counterService.decrement(CounterService.Counter.MEETS);
     }
 
 
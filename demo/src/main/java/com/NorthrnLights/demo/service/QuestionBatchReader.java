@@ -0,0 +1,104 @@
+package com.NorthrnLights.demo.service;
+
+import com.NorthrnLights.demo.dto.QuestionBatchDTO;
+import com.NorthrnLights.demo.util.Base64ImageWriter;
+import com.NorthrnLights.demo.util.Base64ImageWriter.SavedImage;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Leitura incremental do corpo de POST /questions/batch.
+ *
+ * O JSON é percorrido com um JsonParser, uma questão por vez: os campos comuns viram o
+ * QuestionBatchDTO e o imageBase64 é enviado ao Base64ImageWriter assim que lido, de modo
+ * que só as imagens em gravação ficam em memória, e não o lote inteiro.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class QuestionBatchReader {
+
+    private static final String IMAGE_FIELD = "imageBase64";
+    private static final String IMAGE_SUBDIR = "questions";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Base64ImageWriter imageWriter;
+
+    /**
+     * Questão lida do lote; image é a gravação em andamento (null se não houver imagem).
+     */
+    public record PendingQuestion(QuestionBatchDTO dto, CompletableFuture<SavedImage> image) {
+    }
+
+    /**
+     * Lê o array de questões do corpo da requisição.
+     * Em caso de erro, as imagens já gravadas são removidas.
+     *
+     * @throws ResponseStatusException 400 se o JSON for inválido ou uma questão não passar na validação
+     */
+    public List<PendingQuestion> read(InputStream body) throws IOException {
+        List<PendingQuestion> pending = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O corpo deve ser uma lista de questões");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                pending.add(readQuestion(parser, pending.size() + 1));
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cada item do lote deve ser um objeto de questão");
+            }
+        } catch (JsonProcessingException e) {
+            // Imagens já gravadas ficam no disco: podem ser compartilhadas por conteúdo com outras questões
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "JSON inválido: " + e.getOriginalMessage());
+        }
+        log.debug("Lote lido: {} questões", pending.size());
+        return pending;
+    }
+
+    private PendingQuestion readQuestion(JsonParser parser, int position) throws IOException {
+        ObjectNode fields = objectMapper.createObjectNode();
+        String image = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (IMAGE_FIELD.equals(name) && value == JsonToken.VALUE_STRING) {
+                image = parser.getText();
+            } else {
+                fields.set(name, parser.readValueAsTree());
+            }
+        }
+
+        QuestionBatchDTO dto = objectMapper.treeToValue(fields, QuestionBatchDTO.class);
+        // Mesmas regras do @Valid, que não se aplica sem @RequestBody
+        Set<ConstraintViolation<QuestionBatchDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Questão " + position + ": " + violations.iterator().next().getMessage());
+        }
+
+        CompletableFuture<SavedImage> saved = image == null || image.isBlank()
+                ? null
+                : imageWriter.submit(IMAGE_SUBDIR, image);
+        return new PendingQuestion(dto, saved);
+    }
+}
@@ -0,0 +1,169 @@
+package com.NorthrnLights.demo.service;
+
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot imutável e versionado do catálogo de questões visíveis para alunos,
+ * já serializado em JSON (e em gzip) com ETag forte calculado sobre o conteúdo.
+ *
+ * É reconstruído após qualquer alteração de questão no QuestionService e, por timer,
+ * no próximo visibleAt pendente; as requisições apenas leem a referência atual.
+ */
+@Log4j2
+@Component
+public class QuestionCatalogueSnapshot {
+
+    /**
+     * Versão publicada do catálogo. Os arrays não devem ser modificados.
+     */
+    public record Snapshot(long version, byte[] json, byte[] gzip, String etag,
+                           int questionCount, LocalDateTime builtAt, LocalDateTime nextVisibleAt) {
+    }
+
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile Snapshot current;
+    private ScheduledFuture<?> nextBoundary;
+
+    public QuestionCatalogueSnapshot(QuestionRepository questionRepository,
+                                     ObjectMapper objectMapper,
+                                     TaskScheduler taskScheduler,
+                                     PlatformTransactionManager transactionManager) {
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * Snapshot atual; constrói na primeira chamada se ainda não existir.
+     */
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            rebuild();
+            snapshot = current;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Agenda a reconstrução após uma alteração de questão. Várias alterações em sequência
+     * (ex: criação em lote) resultam em uma única reconstrução.
+     */
+    public void invalidate() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            }, Instant.now());
+        }
+    }
+
+    public synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            Snapshot snapshot = readOnlyTransaction.execute(status -> build(now));
+            current = snapshot;
+            scheduleNextBoundary(snapshot.nextVisibleAt());
+            log.debug("📦 Snapshot do catálogo v{}: {} questões, {} bytes (gzip {}), próximo visibleAt: {}",
+                    snapshot.version(), snapshot.questionCount(), snapshot.json().length,
+                    snapshot.gzip().length, snapshot.nextVisibleAt());
+        } catch (RuntimeException e) {
+            // Mantém o snapshot anterior; a próxima alteração ou boundary tenta de novo
+            log.error("❌ Erro ao reconstruir snapshot do catálogo: {}", e.getMessage(), e);
+        }
+    }
+
+    private Snapshot build(LocalDateTime now) {
+        List<Question> all = questionRepository.findAllWithOptions();
+        List<Question> visible = all.stream()
+                .filter(q -> q.getTeacher() != null && q.getTeacher().getId() != null)
+                .filter(q -> q.getVisibleAt() == null || !q.getVisibleAt().isAfter(now))
+                .sorted(Comparator.comparing(Question::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Question::getId, Comparator.reverseOrder()))
+                .toList();
+        LocalDateTime nextVisibleAt = all.stream()
+                .map(Question::getVisibleAt)
+                .filter(visibleAt -> visibleAt != null && visibleAt.isAfter(now))
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(visible);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar catálogo", e);
+        }
+        return new Snapshot(versions.incrementAndGet(), json, gzip(json), etag(json),
+                visible.size(), now, nextVisibleAt);
+    }
+
+    private synchronized void scheduleNextBoundary(LocalDateTime nextVisibleAt) {
+        if (nextBoundary != null) {
+            nextBoundary.cancel(false);
+            nextBoundary = null;
+        }
+        if (nextVisibleAt != null) {
+            Instant at = nextVisibleAt.atZone(ZoneId.systemDefault()).toInstant();
+            nextBoundary = taskScheduler.schedule(this::rebuild, at);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            // ETag forte: mesmo conteúdo => mesmo ETag, mesmo após reconstruções
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
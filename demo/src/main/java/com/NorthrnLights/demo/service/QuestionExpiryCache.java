@@ -0,0 +1,130 @@
+package com.NorthrnLights.demo.service;
+
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache da expiração das questões, consultada a cada resposta enviada.
+ *
+ * Em um miss carrega só id, título e expiresAt (QuestionRepository.findExpiryById), sem
+ * options/teacher/exam. Limitado por tamanho (LRU) e por TTL; o QuestionService invalida
+ * a entrada sempre que a questão é alterada ou removida.
+ */
+@Slf4j
+@Component
+public class QuestionExpiryCache {
+
+    /**
+     * Dados da questão necessários para aceitar uma resposta.
+     */
+    public record QuestionExpiry(Long questionId, String title, LocalDateTime expiresAt) {
+
+        public boolean isExpired(LocalDateTime now) {
+            return expiresAt != null && expiresAt.isBefore(now);
+        }
+    }
+
+    private record Entry(QuestionExpiry expiry, long expiresAtMillis) {
+    }
+
+    private final QuestionRepository questionRepository;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<Long, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public QuestionExpiryCache(QuestionRepository questionRepository,
+                               @Value("${questions.expiry-cache.max-size:5000}") int maxSize,
+                               @Value("${questions.expiry-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.questionRepository = questionRepository;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000L;
+        // LinkedHashMap em ordem de acesso = LRU; acesso protegido pelo lock do próprio mapa
+        this.entries = new LinkedHashMap<>(Math.max(16, Math.min(maxSize, 1024)), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > QuestionExpiryCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return expiração da questão, ou vazio se a questão não existir
+     */
+    public Optional<QuestionExpiry> find(Long questionId) {
+        if (questionId == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(questionId);
+            if (entry != null && entry.expiresAtMillis() > now) {
+                hits.increment();
+                return Optional.of(entry.expiry());
+            }
+        }
+        misses.increment();
+
+        // Questões inexistentes não ficam em cache: podem ser criadas com o id já reservado
+        Optional<QuestionExpiry> loaded = questionRepository.findExpiryById(questionId)
+                .map(view -> new QuestionExpiry(view.getId(), view.getTitle(), view.getExpiresAt()));
+        if (loaded.isPresent() && maxSize > 0) {
+            synchronized (entries) {
+                entries.put(questionId, new Entry(loaded.get(), now + ttlMillis));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Remove a questão do cache. Chamar após alterar ou excluir a questão.
+     */
+    public void invalidate(Long questionId) {
+        if (questionId == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (entries.remove(questionId) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+        log.debug("Cache de expiração de questões limpo");
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlMillis / 1000L);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,271 @@
+package com.NorthrnLights.demo.service;
+
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.domain.QuestionOption;
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória para busca de questões.
+ *
+ * Indexa título, descrição, tradução em português e texto das opções, com normalização
+ * para PT/EN (minúsculas, sem acentos, sem stopwords). Carregado na inicialização e
+ * atualizado incrementalmente pelo QuestionService a cada criação, edição ou exclusão.
+ *
+ * Ranking: soma, por termo da consulta, de (frequência ponderada pelo campo × idf).
+ * O último termo da consulta também casa por prefixo, para busca enquanto se digita.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class QuestionSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float OPTION_WEIGHT = 1.5f;
+    private static final float TEXT_WEIGHT = 1.0f;
+    private static final float PREFIX_PENALTY = 0.5f;
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            // Português (já sem acentos)
+            "a", "o", "as", "os", "um", "uma", "uns", "umas", "de", "da", "do", "das", "dos",
+            "em", "na", "no", "nas", "nos", "por", "para", "com", "sem", "que", "e", "ou",
+            "se", "ao", "aos", "como", "mais", "mas", "ja", "nao", "sao", "foi", "ser", "esta",
+            // Inglês
+            "the", "an", "of", "to", "in", "on", "at", "for", "and", "or", "is", "are", "was",
+            "be", "it", "this", "that", "with", "by", "from", "what", "which"
+    );
+
+    private final QuestionRepository questionRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // termo -> (questionId -> peso do termo na questão); TreeMap permite busca por prefixo
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, IndexedQuestion> documents = new HashMap<>();
+
+    /**
+     * Termos de uma questão indexada, guardados para remoção/atualização incremental.
+     */
+    private record IndexedQuestion(Map<String, Float> terms, LocalDateTime visibleAt) {
+    }
+
+    /**
+     * Resultado de uma busca: ids já ordenados por relevância e o total de acertos.
+     */
+    public record SearchHits(List<Long> ids, long total) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Question> questions = questionRepository.findAllWithOptions();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            for (Question question : questions) {
+                addDocument(question);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("🔎 Índice de busca de questões carregado: {} questões, {} termos em {} ms",
+                questions.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Indexa (ou reindexa) a questão. Chamar após salvar.
+     */
+    public void index(Question question) {
+        if (question == null || question.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(question.getId());
+            addDocument(question);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexAll(Collection<Question> questions) {
+        for (Question question : questions) {
+            index(question);
+        }
+    }
+
+    /**
+     * Remove a questão do índice. Chamar após excluir.
+     */
+    public void remove(Long questionId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(questionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca por relevância.
+     *
+     * @param query texto livre
+     * @param visibleAt se informado, considera apenas questões visíveis nesse instante (alunos)
+     * @param offset posição inicial (page * size)
+     * @param limit tamanho da página
+     */
+    public SearchHits search(String query, LocalDateTime visibleAt, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return new SearchHits(List.of(), 0);
+        }
+
+        Map<Long, Float> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = Math.max(1, documents.size());
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                accumulate(scores, postings.get(term), documentCount, 1.0f);
+                if (i == terms.size() - 1) {
+                    // Último termo: também casar por prefixo (ex: "gramm" -> "grammar")
+                    for (Map.Entry<String, Map<Long, Float>> entry
+                            : postings.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+                        accumulate(scores, entry.getValue(), documentCount, PREFIX_PENALTY);
+                    }
+                }
+            }
+
+            if (visibleAt != null) {
+                scores.keySet().removeIf(id -> {
+                    IndexedQuestion document = documents.get(id);
+                    return document == null || (document.visibleAt() != null && document.visibleAt().isAfter(visibleAt));
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+        // Maior pontuação primeiro; empate: questão mais recente (maior id) primeiro
+        ranked.sort((a, b) -> {
+            int byScore = Float.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(b.getKey(), a.getKey());
+        });
+
+        int from = Math.min(offset, ranked.size());
+        int to = Math.min(from + limit, ranked.size());
+        List<Long> ids = new ArrayList<>(to - from);
+        for (Map.Entry<Long, Float> entry : ranked.subList(from, to)) {
+            ids.add(entry.getKey());
+        }
+        return new SearchHits(ids, ranked.size());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void accumulate(Map<Long, Float> scores, Map<Long, Float> posting, int documentCount, float factor) {
+        if (posting == null || posting.isEmpty()) {
+            return;
+        }
+        float idf = (float) Math.log(1.0 + (double) documentCount / posting.size());
+        for (Map.Entry<Long, Float> entry : posting.entrySet()) {
+            scores.merge(entry.getKey(), entry.getValue() * idf * factor, Float::sum);
+        }
+    }
+
+    // Chamadores devem segurar o write lock
+    private void addDocument(Question question) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, question.getTitle(), TITLE_WEIGHT);
+        addField(terms, question.getDescription(), TEXT_WEIGHT);
+        addField(terms, question.getPortugueseTranslation(), TEXT_WEIGHT);
+        if (question.getOptions() != null) {
+            for (QuestionOption option : question.getOptions()) {
+                addField(terms, option.getText(), OPTION_WEIGHT);
+            }
+        }
+
+        for (Map.Entry<String, Float> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(question.getId(), term.getValue());
+        }
+        documents.put(question.getId(), new IndexedQuestion(terms, question.getVisibleAt()));
+    }
+
+    // Chamadores devem segurar o write lock
+    private void removeDocument(Long questionId) {
+        IndexedQuestion previous = documents.remove(questionId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms().keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(questionId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    /**
+     * Normaliza e quebra o texto em termos: minúsculas, sem acentos (ç -> c, ã -> a),
+     * separando em qualquer caractere que não seja letra ou dígito, sem stopwords.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue; // acento separado pela decomposição NFD
+            }
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else {
+                flushToken(current, tokens);
+            }
+        }
+        flushToken(current, tokens);
+        return tokens;
+    }
+
+    private static void flushToken(StringBuilder current, List<String> tokens) {
+        if (current.length() >= MIN_TOKEN_LENGTH) {
+            String token = current.toString();
+            if (!STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        current.setLength(0);
+    }
+}
@@ -3,92 +3,94 @@ package com.NorthrnLights.demo.service;
 import com.NorthrnLights.demo.domain.Question;
 import com.NorthrnLights.demo.domain.QuestionOption;
 import com.NorthrnLights.demo.domain.Teacher;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.dto.OptionDTO;
 import com.NorthrnLights.demo.dto.QuestionBatchDTO;
 import com.NorthrnLights.demo.dto.QuestionDTO;
+import com.NorthrnLights.demo.dto.SearchPage;
 import com.NorthrnLights.demo.repository.QuestionRepository;
+import com.NorthrnLights.demo.repository.QuestionSpecifications;
 import com.NorthrnLights.demo.repository.TeacherRepository;
+import com.NorthrnLights.demo.util.AutoCorrectionDeadlineScheduler;
+import com.NorthrnLights.demo.util.ContentAddressedUploadStore;
+import com.NorthrnLights.demo.util.CursorPaging;
+import com.NorthrnLights.demo.util.KeysetCursor;
 import com.NorthrnLights.demo.util.UploadDirectoryManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 @Service
 @RequiredArgsConstructor
 @Log4j2
 public class QuestionService {
 
+    private static final Sort CATALOGUE_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
 
     private final QuestionRepository questionRepository;
     private final TeacherRepository teacherRepository;
     private final UploadDirectoryManager uploadDirectoryManager;
+    private final ContentAddressedUploadStore uploadStore;
+    private final QuestionSearchIndex questionSearchIndex;
+    private final QuestionCatalogueSnapshot catalogueSnapshot;
+    private final CounterService counterService;
+    private final QuestionBatchReader questionBatchReader;
+    private final ImageDerivativeService imageDerivativeService;
+    private final QuestionExpiryCache questionExpiryCache;
+    private final AutoCorrectionDeadlineScheduler autoCorrectionDeadlines;
 
     /**
-     * Resolve o caminho relativo da imagem para o caminho absoluto correto.
-     * Usa o gerenciador centralizado para encontrar o arquivo.
+     * Verifica se a imagem da questão existe, consultando o manifesto de uploads em memória.
      * @param relativePath Caminho relativo (ex: "/uploads/questions/file.png")
-     * @return File apontando para o arquivo se existir, null caso contrário
      */
-    private File resolveImagePath(String relativePath) {
-        if (relativePath == null || relativePath.trim().isEmpty()) {
-            return null;
-        }
-        
-        // Remover barra inicial e prefixo "uploads/" se houver
-        String pathWithoutSlash = relativePath.startsWith("/") 
-            ? relativePath.substring(1) 
-            : relativePath;
-        
-        // Remover prefixo "uploads/" se presente
-        if (pathWithoutSlash.startsWith("uploads/")) {
-            pathWithoutSlash = pathWithoutSlash.substring("uploads/".length());
-        }
-        
-        // Obter diretório base do gerenciador
-        String baseDir = uploadDirectoryManager.getBaseUploadDir();
-        File file = new File(baseDir, pathWithoutSlash);
-        
-        if (file.exists() && file.isFile()) {
-            return file;
-        }
-        
-        // Se não encontrou, retornar null
-        return null;
+    private boolean imageExists(String relativePath) {
+        return uploadDirectoryManager.exists(relativePath);
     }
 
     /**
-     * Criar várias questões em lote via JSON (batch).
-     * Aceita imagens como base64 String.
+     * Criar várias questões em lote via JSON (batch), lendo o corpo da requisição de forma
+     * incremental. Imagens base64 são gravadas em paralelo enquanto o lote é lido.
      * 
-     * @param questionBatchDTOs Lista de DTOs para criação em lote
+     * @param body Corpo da requisição: array JSON de QuestionBatchDTO
      * @return Lista de questões criadas
-     * @throws IOException Se houver erro ao salvar imagens
+     * @throws IOException Se houver erro ao ler o corpo ou salvar imagens
      * @throws ResponseStatusException Se houver erro de validação
      */
-    public List<Question> createQuestionsBatch(List<QuestionBatchDTO> questionBatchDTOs) throws IOException {
-        if (questionBatchDTOs == null || questionBatchDTOs.isEmpty()) {
+    public List<Question> createQuestionsBatch(InputStream body) throws IOException {
+        // Imagens de um lote rejeitado não são apagadas aqui (podem ser compartilhadas por conteúdo)
+        return createQuestionsBatch(questionBatchReader.read(body));
+    }
+
+    private List<Question> createQuestionsBatch(List<QuestionBatchReader.PendingQuestion> pending) {
+        if (pending == null || pending.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lista de questões não pode estar vazia");
         }
 
         List<Question> questions = new ArrayList<>();
 
-        for (QuestionBatchDTO dto : questionBatchDTOs) {
+        for (QuestionBatchReader.PendingQuestion item : pending) {
+            QuestionBatchDTO dto = item.dto();
             // Validar dados obrigatórios
             if (dto.getTitle() == null || dto.getTitle().trim().isEmpty()) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
@@ -166,15 +168,15 @@ public class QuestionService {
                 log.info("ℹ️ Questão '{}' não tem data de visibilidade definida (ficará visível imediatamente)", question.getTitle());
             }
 
-            // Salvar imagem se houver (base64)
-            if (dto.getImageBase64() != null && !dto.getImageBase64().trim().isEmpty()) {
+            // Imagem base64 já gravada (ou em gravação) pelo QuestionBatchReader
+            if (item.image() != null) {
                 try {
-                    String path = saveImageFromBase64(dto.getImageBase64());
-                    question.setImagePath(path);
-                } catch (Exception e) {
-                    log.error("Erro ao salvar imagem base64 para questão: {}", dto.getTitle(), e);
+                    question.setImagePath(item.image().join().urlPath());
+                } catch (CompletionException e) {
+                    Throwable cause = e.getCause() instanceof UncheckedIOException io ? io.getCause() : e.getCause();
+                    log.error("Erro ao salvar imagem base64 para questão: {}", dto.getTitle(), cause);
                     throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
-                        "Erro ao processar imagem: " + e.getMessage());
+                        "Erro ao processar imagem: " + cause.getMessage());
                 }
             }
 
@@ -200,7 +202,18 @@ public class QuestionService {
         }
 
         log.info("Criando {} questões em lote", questions.size());
-        return questionRepository.saveAll(questions);
+        List<Question> saved = questionRepository.saveAll(questions);
+        // Miniaturas só depois de salvo; imagem já armazenada (mesmo conteúdo) já tem as suas
+        for (QuestionBatchReader.PendingQuestion item : pending) {
+            if (item.image() != null && item.image().join().created()) {
+                imageDerivativeService.schedule(item.image().join().file());
+            }
+        }
+        questionSearchIndex.indexAll(saved);
+        counterService.adjust(CounterService.Counter.QUESTIONS, saved.size());
+        catalogueSnapshot.invalidate();
+        autoCorrectionDeadlines.schedule(saved);
+        return saved;
     }
 
     // Criar várias questões (método original para compatibilidade)
@@ -289,7 +302,12 @@ public class QuestionService {
             questions.add(question);
         }
 
-        return questionRepository.saveAll(questions);
+        List<Question> saved = questionRepository.saveAll(questions);
+        questionSearchIndex.indexAll(saved);
+        counterService.adjust(CounterService.Counter.QUESTIONS, saved.size());
+        catalogueSnapshot.invalidate();
+        autoCorrectionDeadlines.schedule(saved);
+        return saved;
     }
 
     // Atualizar uma questão existente
@@ -308,6 +326,8 @@ public class QuestionService {
         // Atualizar datas de expiração e visibilidade
         if (dto.getExpiresAt() != null) {
             question.setExpiresAt(dto.getExpiresAt());
+            // Nova expiração: a questão volta a ser considerada pela correção automática
+            question.setAutoCorrectedAt(null);
             log.info("✅ Atualizando data de expiração da questão {} para: {}", id, dto.getExpiresAt());
         }
         if (dto.getVisibleAt() != null) {
@@ -340,191 +360,26 @@ public class QuestionService {
             question.getOptions().clear();
         }
 
-        return questionRepository.save(question);
+        Question saved = questionRepository.save(question);
+        questionSearchIndex.index(saved);
+        catalogueSnapshot.invalidate();
+        questionExpiryCache.invalidate(saved.getId());
+        autoCorrectionDeadlines.schedule(List.of(saved));
+        return saved;
     }
 
     /**
      * Função auxiliar para salvar imagem no servidor a partir de MultipartFile.
+     * A mesma ilustração enviada de novo reutiliza o arquivo já armazenado.
      */
     private String saveImage(MultipartFile imageFile) throws IOException {
-        log.info("🔍 DEBUG saveImage: Iniciando salvamento de imagem");
-        log.info("🔍 DEBUG saveImage: Nome original: {}", imageFile.getOriginalFilename());
-        log.info("🔍 DEBUG saveImage: Tamanho: {} bytes", imageFile.getSize());
-        
-        // Obter diretório usando o gerenciador centralizado
-        String uploadDir = uploadDirectoryManager.getUploadDir("questions");
-        
-        String originalFilename = imageFile.getOriginalFilename();
-        if (originalFilename == null || originalFilename.trim().isEmpty()) {
-            originalFilename = "image.png";
-        }
-        String filename = System.currentTimeMillis() + "_" + originalFilename;
-        
-        // Criar diretório completo se não existir
-        File uploadDirectory = new File(uploadDir);
-        log.info("🔍 DEBUG saveImage: Diretório de upload: {}", uploadDirectory.getAbsolutePath());
-        log.info("🔍 DEBUG saveImage: Diretório existe? {}", uploadDirectory.exists());
-        log.info("🔍 DEBUG saveImage: Diretório pai pode escrever? {}", uploadDirectory.getParentFile() != null ? uploadDirectory.getParentFile().canWrite() : "N/A");
-        
-        if (!uploadDirectory.exists()) {
-            // Tentar criar o diretório pai primeiro se necessário
-            File parentDir = uploadDirectory.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                boolean parentCreated = parentDir.mkdirs();
-                log.info("🔍 DEBUG saveImage: Diretório pai criado? {}", parentCreated);
-            }
-            
-            boolean created = uploadDirectory.mkdirs();
-            log.info("🔍 DEBUG saveImage: Tentativa de criar diretório: {}", created);
-            
-            if (!uploadDirectory.exists()) {
-                // Se ainda não existe, tentar criar com Files.createDirectories (mais robusto)
-                try {
-                    Files.createDirectories(uploadDirectory.toPath());
-                    log.info("✅ Diretório criado usando Files.createDirectories: {}", uploadDirectory.getAbsolutePath());
-                } catch (Exception e) {
-                    log.error("❌ Erro ao criar diretório: {}", uploadDirectory.getAbsolutePath(), e);
-                    throw new IOException("Não foi possível criar o diretório: " + uploadDirectory.getAbsolutePath() + ". Erro: " + e.getMessage(), e);
-                }
-            } else {
-                log.info("✅ Diretório criado: {}", uploadDirectory.getAbsolutePath());
-            }
-        }
-        
-        // Verificar permissões de escrita
-        if (!uploadDirectory.canWrite()) {
-            log.error("❌ Diretório existe mas não tem permissões de escrita: {}", uploadDirectory.getAbsolutePath());
-            throw new IOException("Diretório existe mas não tem permissões de escrita: " + uploadDirectory.getAbsolutePath());
-        }
-        
-        File dest = new File(uploadDirectory, filename);
-        
-            // Verificar se o arquivo já existe e adicionar sufixo se necessário
-            int counter = 1;
-            String baseFilename = filename;
-            while (dest.exists()) {
-                int lastDot = baseFilename.lastIndexOf('.');
-                if (lastDot > 0) {
-                    String nameWithoutExt = baseFilename.substring(0, lastDot);
-                    String ext = baseFilename.substring(lastDot);
-                    filename = nameWithoutExt + "_" + counter + ext;
-                } else {
-                    filename = baseFilename + "_" + counter;
-                }
-                dest = new File(uploadDirectory, filename);
-                counter++;
-            }
-        
-        log.info("🔍 DEBUG saveImage: Salvando arquivo em: {}", dest.getAbsolutePath());
-        imageFile.transferTo(dest);
-        log.info("✅ Imagem salva com sucesso: {}", dest.getAbsolutePath());
-        log.info("🔍 DEBUG saveImage: Arquivo existe após salvar? {}", dest.exists());
-        log.info("🔍 DEBUG saveImage: Tamanho do arquivo salvo: {} bytes", dest.length());
-        
-        // Retornar caminho relativo para servir via FileController
-        String relativePath = "/uploads/questions/" + filename;
-        log.info("🔍 DEBUG saveImage: Caminho relativo retornado: {}", relativePath);
-        return relativePath;
-    }
-
-    /**
-     * Função auxiliar para salvar imagem no servidor a partir de base64.
-     * Aceita base64 com ou sem prefixo data:image/[tipo];base64,
-     * 
-     * @param base64String String base64 da imagem (pode incluir prefixo data:image)
-     * @return Caminho relativo da imagem salva
-     * @throws IOException Se houver erro ao salvar o arquivo
-     */
-    private String saveImageFromBase64(String base64String) throws IOException {
-        try {
-            // Remover prefixo data:image/[tipo];base64, se presente
-            String base64Data = base64String;
-            String fileExtension = "png"; // padrão
-            
-            if (base64String.contains(",")) {
-                String[] parts = base64String.split(",");
-                if (parts.length == 2) {
-                    String prefix = parts[0];
-                    base64Data = parts[1];
-                    
-                    // Extrair extensão do tipo MIME
-                    if (prefix.contains("image/")) {
-                        String mimeType = prefix.substring(prefix.indexOf("image/") + 6);
-                        if (mimeType.contains(";")) {
-                            mimeType = mimeType.substring(0, mimeType.indexOf(";"));
-                        }
-                        fileExtension = mimeType.equals("jpeg") ? "jpg" : mimeType;
-                    }
-                }
-            }
-
-            // Decodificar base64
-            byte[] imageBytes = Base64.getDecoder().decode(base64Data);
-
-            // Validar tamanho (máximo 12MB)
-            if (imageBytes.length > 12 * 1024 * 1024) {
-                throw new IOException("Imagem muito grande. Tamanho máximo: 12MB");
-            }
-
-            // Obter diretório usando o gerenciador centralizado
-            String uploadDir = uploadDirectoryManager.getUploadDir("questions");
-            
-            // Criar nome do arquivo
-            String filename = System.currentTimeMillis() + "_" + System.nanoTime() + "." + fileExtension;
-            
-            // Criar diretório completo se não existir
-            File uploadDirectory = new File(uploadDir);
-            if (!uploadDirectory.exists()) {
-                // Tentar criar o diretório pai primeiro se necessário
-                File parentDir = uploadDirectory.getParentFile();
-                if (parentDir != null && !parentDir.exists()) {
-                    parentDir.mkdirs();
-                }
-                
-                // Tentar criar com mkdirs primeiro
-                boolean created = uploadDirectory.mkdirs();
-                if (!uploadDirectory.exists()) {
-                    // Se ainda não existe, tentar criar com Files.createDirectories (mais robusto)
-                    try {
-                        Files.createDirectories(uploadDirectory.toPath());
-                        log.info("✅ Diretório criado usando Files.createDirectories: {}", uploadDirectory.getAbsolutePath());
-                    } catch (Exception e) {
-                        log.error("❌ Erro ao criar diretório: {}", uploadDirectory.getAbsolutePath(), e);
-                        throw new IOException("Não foi possível criar o diretório: " + uploadDirectory.getAbsolutePath() + ". Erro: " + e.getMessage(), e);
-                    }
-                } else {
-                    log.info("✅ Diretório criado: {}", uploadDirectory.getAbsolutePath());
-                }
-            }
-            
-            // Verificar permissões de escrita
-            if (!uploadDirectory.canWrite()) {
-                log.error("❌ Diretório existe mas não tem permissões de escrita: {}", uploadDirectory.getAbsolutePath());
-                throw new IOException("Diretório existe mas não tem permissões de escrita: " + uploadDirectory.getAbsolutePath());
-            }
-            
-            File dest = new File(uploadDirectory, filename);
-            
-            // Verificar se o arquivo já existe e adicionar sufixo se necessário
-            int counter = 1;
-            String originalFilename = filename;
-            while (dest.exists()) {
-                String nameWithoutExt = originalFilename.substring(0, originalFilename.lastIndexOf('.'));
-                String ext = originalFilename.substring(originalFilename.lastIndexOf('.'));
-                filename = nameWithoutExt + "_" + counter + ext;
-                dest = new File(uploadDirectory, filename);
-                counter++;
-            }
-
-            // Salvar arquivo
-            Files.write(dest.toPath(), imageBytes);
-
-            log.info("✅ Imagem salva com sucesso: {}", dest.getAbsolutePath());
-            // Retornar caminho relativo para servir via FileController
-            return "/uploads/questions/" + filename;
-        } catch (IllegalArgumentException e) {
-            throw new IOException("String base64 inválida: " + e.getMessage(), e);
+        ContentAddressedUploadStore.StoredFile stored = uploadStore.store("questions", imageFile);
+        if (stored.created()) {
+            imageDerivativeService.schedule(stored.file());
         }
+        log.info("✅ Imagem de questão salva: {} ({} bytes, nova: {})",
+                stored.urlPath(), stored.size(), stored.created());
+        return stored.urlPath();
     }
 
     public List<Question> findAll() {
@@ -534,8 +389,7 @@ public class QuestionService {
         // Validar e limpar imagePath se o arquivo não existir
         for (Question q : questions) {
             if (q.getImagePath() != null && !q.getImagePath().trim().isEmpty()) {
-                java.io.File imageFile = new java.io.File(q.getImagePath());
-                if (!imageFile.exists()) {
+                if (!imageExists(q.getImagePath())) {
                     log.warn("Imagem não encontrada para questão {}: {}", q.getId(), q.getImagePath());
                     q.setImagePath(null); // Limpar imagePath se arquivo não existir
                 }
@@ -614,21 +468,10 @@ public class QuestionService {
             questions = List.of(); // filtro(s) passados mas não tratado acima, retorna vazio
         }
         
-        // Para questões filtradas, carregar opções se necessário
-        for (Question q : questions) {
-            if (q.getOptions() == null || q.getOptions().isEmpty()) {
-                // Recarregar questão com opções
-                questionRepository.findByIdWithOptions(q.getId()).ifPresent(questionWithOptions -> {
-                    q.setOptions(questionWithOptions.getOptions());
-                });
-            }
-        }
-        
         // Validar e limpar imagePath se o arquivo não existir
         for (Question q : questions) {
             if (q.getImagePath() != null && !q.getImagePath().trim().isEmpty()) {
-                File imageFile = resolveImagePath(q.getImagePath());
-                if (imageFile == null) {
+                if (!imageExists(q.getImagePath())) {
                     log.warn("Imagem não encontrada para questão {}: {}", q.getId(), q.getImagePath());
                     q.setImagePath(null); // Limpar imagePath se arquivo não existir
                 }
@@ -643,6 +486,81 @@ public class QuestionService {
     }
 
 
+    /**
+     * Página do catálogo de questões, paginada por keyset em (createdAt, id), da mais recente
+     * para a mais antiga. Todos os filtros são aplicados no banco em uma única consulta e as
+     * opções da página são carregadas em uma segunda consulta, em lote.
+     *
+     * @param onlyVisible true para alunos: exclui questões com visibleAt no futuro
+     * @param cursor cursor opaco devolvido pela página anterior (null na primeira página)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Question> findCataloguePage(String title, String description,
+                                                  LocalDateTime startDate, LocalDateTime endDate,
+                                                  Long teacherId, Long examId, boolean onlyVisible,
+                                                  String cursor, Integer size) {
+        int pageSize = CursorPaging.pageSize(size);
+        LocalDateTime visibleAt = onlyVisible ? LocalDateTime.now() : null;
+
+        // Busca pageSize + 1 para saber se existe próxima página sem consulta de contagem
+        List<Question> rows = questionRepository.findBy(
+                QuestionSpecifications.catalogue(title, description, startDate, endDate,
+                        teacherId, examId, visibleAt, CursorPaging.afterTimestamp(cursor)),
+                query -> query.sortBy(CATALOGUE_ORDER).limit(pageSize + 1).all());
+
+        CursorPage<Question> result = CursorPaging.page(rows, pageSize,
+                question -> new KeysetCursor(question.getCreatedAt(), question.getId()));
+        List<Question> page = result.items();
+
+        if (!page.isEmpty()) {
+            // Inicializa as coleções de opções das entidades já carregadas nesta sessão
+            questionRepository.findAllWithOptionsByIdIn(page.stream().map(Question::getId).toList());
+        }
+
+        // Leitura somente: a limpeza de imagePath abaixo não é gravada no banco
+        for (Question q : page) {
+            if (q.getImagePath() != null && !q.getImagePath().trim().isEmpty()
+                    && !imageExists(q.getImagePath())) {
+                log.warn("Imagem não encontrada para questão {}: {}", q.getId(), q.getImagePath());
+                q.setImagePath(null);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Busca textual ranqueada sobre o índice em memória (título, descrição, tradução e opções).
+     * As questões da página são carregadas em uma única consulta e mantidas na ordem de relevância.
+     *
+     * @param onlyVisible true para alunos: exclui questões com visibleAt no futuro
+     */
+    @Transactional(readOnly = true)
+    public SearchPage<Question> search(String query, boolean onlyVisible, Integer page, Integer size) {
+        int pageSize = CursorPaging.pageSize(size);
+        // Limitada para pageNumber * pageSize não estourar int (offset negativo)
+        int pageNumber = page == null ? 0 : Math.min(Math.max(0, page), Integer.MAX_VALUE / pageSize);
+
+        QuestionSearchIndex.SearchHits hits = questionSearchIndex.search(
+                query, onlyVisible ? LocalDateTime.now() : null, pageNumber * pageSize, pageSize);
+        if (hits.ids().isEmpty()) {
+            return new SearchPage<>(List.of(), pageNumber, pageSize, hits.total());
+        }
+
+        Map<Long, Question> byId = new HashMap<>();
+        for (Question question : questionRepository.findAllWithOptionsByIdIn(hits.ids())) {
+            byId.put(question.getId(), question);
+        }
+        List<Question> ordered = new ArrayList<>(hits.ids().size());
+        for (Long id : hits.ids()) {
+            Question question = byId.get(id);
+            if (question != null) {
+                ordered.add(question);
+            }
+        }
+        return new SearchPage<>(ordered, pageNumber, pageSize, hits.total());
+    }
+
     public ResponseEntity<String> deleteQuestion(Long id) {
         if (!questionRepository.existsById(id)) {
             log.warn("Question with ID {} not found for deletion", id);
@@ -650,6 +568,11 @@ public class QuestionService {
         }
 
         questionRepository.deleteById(id);
+        questionSearchIndex.remove(id);
+        counterService.decrement(CounterService.Counter.QUESTIONS);
+        catalogueSnapshot.invalidate();
+        questionExpiryCache.invalidate(id);
+        autoCorrectionDeadlines.cancel(id);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 }
@@ -2,8 +2,13 @@ package com.NorthrnLights.demo.service;
 
 import com.NorthrnLights.demo.domain.RecordedClass;
 import com.NorthrnLights.demo.domain.Teacher;
+import com.NorthrnLights.demo.dto.CursorPage;
 import com.NorthrnLights.demo.dto.RecordedClassDTO;
+import com.NorthrnLights.demo.dto.RecordedClassSummary;
 import com.NorthrnLights.demo.repository.RecordedClassRepository;
+import com.NorthrnLights.demo.security.AuthenticatedUserResolver;
+import com.NorthrnLights.demo.util.CursorPaging;
+import com.NorthrnLights.demo.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -20,11 +25,12 @@ import java.util.List;
 public class RecordedClassService {
 
     private final RecordedClassRepository recordedClassRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     public RecordedClass createRecordedClass(RecordedClassDTO dto, Authentication authentication) {
         log.info("Criando aula gravada: {}", dto.getTitle());
 
-        Teacher teacher = getAuthenticatedTeacher(authentication);
+        Teacher teacher = authenticatedUserResolver.requireTeacher(authentication);
 
         RecordedClass recordedClass = RecordedClass.builder()
                 .title(dto.getTitle())
@@ -43,8 +49,8 @@ public class RecordedClassService {
         RecordedClass existing = recordedClassRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Aula gravada não encontrada"));
 
-        Teacher authenticatedTeacher = getAuthenticatedTeacher(authentication);
-        if (!existing.getTeacher().getId().equals(authenticatedTeacher.getId())) {
+        Long authenticatedTeacherId = authenticatedUserResolver.requireTeacherId(authentication);
+        if (!existing.getTeacher().getId().equals(authenticatedTeacherId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Você só pode editar suas próprias aulas gravadas");
         }
 
@@ -61,39 +67,35 @@ public class RecordedClassService {
         RecordedClass existing = recordedClassRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Aula gravada não encontrada"));
 
-        Teacher authenticatedTeacher = getAuthenticatedTeacher(authentication);
-        if (!existing.getTeacher().getId().equals(authenticatedTeacher.getId())) {
+        Long authenticatedTeacherId = authenticatedUserResolver.requireTeacherId(authentication);
+        if (!existing.getTeacher().getId().equals(authenticatedTeacherId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Você só pode excluir suas próprias aulas gravadas");
         }
 
         recordedClassRepository.delete(existing);
     }
 
-    public List<RecordedClass> getAllRecordedClasses() {
-        return recordedClassRepository.findAllByOrderByClassDateDesc();
+    // Aulas gravadas paginadas por cursor em (classDate DESC, id DESC)
+    public CursorPage<RecordedClassSummary> getRecordedClassesPage(String cursor, Integer size) {
+        int pageSize = CursorPaging.pageSize(size);
+        KeysetCursor after = CursorPaging.afterTimestamp(cursor);
+        List<RecordedClassSummary> rows = recordedClassRepository.findSummaries(
+                after == null ? null : after.timestamp().toLocalDate(),
+                after == null ? null : after.id(),
+                CursorPaging.limit(pageSize));
+        return CursorPaging.page(rows, pageSize,
+                recordedClass -> new KeysetCursor(recordedClass.classDate().atStartOfDay(), recordedClass.id()));
     }
 
     public List<RecordedClass> getTeacherRecordedClasses(Authentication authentication) {
-        Teacher teacher = getAuthenticatedTeacher(authentication);
-        return recordedClassRepository.findByTeacherIdOrderByClassDateDesc(teacher.getId());
+        Long teacherId = authenticatedUserResolver.requireTeacherId(authentication);
+        return recordedClassRepository.findByTeacherIdOrderByClassDateDesc(teacherId);
     }
 
     public RecordedClass getRecordedClassById(Long id) {
         return recordedClassRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Aula gravada não encontrada"));
     }
-
-    private Teacher getAuthenticatedTeacher(Authentication authentication) {
-        if (authentication == null || authentication.getPrincipal() == null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário não autenticado");
-        }
-
-        if (!(authentication.getPrincipal() instanceof Teacher)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Usuário autenticado não é um professor");
-        }
-
-        return (Teacher) authentication.getPrincipal();
-    }
 }
 
 
@@ -9,6 +9,7 @@ import com.NorthrnLights.demo.repository.CorrectionRepository;
 import com.NorthrnLights.demo.repository.ExamGradeRepository;
 import com.NorthrnLights.demo.repository.StudentRepository;
 import com.NorthrnLights.demo.repository.WeeklyGradeRepository;
+import com.NorthrnLights.demo.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
@@ -33,6 +34,8 @@ public class StudentService {
     private final WeeklyGradeRepository weeklyGradeRepository;
     private final AnswerRepository answerRepository;
     private final CorrectionRepository correctionRepository;
+    private final PrincipalCache principalCache;
+    private final CounterService counterService;
 
     public Student create(StudentRegisterDTO studentDTO) {
         Student student = new Student();
@@ -48,14 +51,16 @@ public class StudentService {
         // Criptografa a senha antes de salvar
         student.setPassword(passwordEncoder.encode(studentDTO.getPassword()));
 
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        counterService.increment(CounterService.Counter.STUDENTS);
+        return saved;
     }
 
     public List<Student> findAll() {
         return studentRepository.findAll();
     }
     public int findStudentsQuantity() {
-        return studentRepository.findAll().size();
+        return (int) counterService.get(CounterService.Counter.STUDENTS);
     }
 
     public Student findById(Long id) {
@@ -65,6 +70,7 @@ public class StudentService {
 
     public Student update(Long id, StudentRegisterDTO studentDetails) {
         Student student = findById(id);
+        principalCache.invalidate(student.getEmail());
 
         student.setUserName(studentDetails.getUserName());
         student.setEmail(studentDetails.getEmail());
@@ -76,7 +82,9 @@ public class StudentService {
             student.setPassword(passwordEncoder.encode(studentDetails.getPassword()));
         }
 
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        principalCache.invalidate(saved.getEmail());
+        return saved;
     }
 
     @Transactional
@@ -129,6 +137,10 @@ public class StudentService {
         // Com herança JOINED, isso deletará tanto o registro em 'student' quanto em 'users'
         try {
             studentRepository.deleteById(id);
+            principalCache.invalidate(student.getEmail());
+            counterService.decrement(CounterService.Counter.STUDENTS);
+            // Respostas do aluno foram removidas acima, em quantidade desconhecida aqui
+            counterService.invalidate(CounterService.Counter.ANSWERS);
             log.info("✅ Estudante ID: {} deletado com sucesso", id);
         } catch (Exception e) {
             log.error("❌ Erro ao deletar estudante ID: {} - {}", id, e.getMessage(), e);
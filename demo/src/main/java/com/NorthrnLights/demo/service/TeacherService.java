@@ -4,6 +4,7 @@ import com.NorthrnLights.demo.domain.Role;
 import com.NorthrnLights.demo.domain.Teacher;
 import com.NorthrnLights.demo.dto.TeacherDTO;
 import com.NorthrnLights.demo.repository.TeacherRepository;
+import com.NorthrnLights.demo.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
@@ -24,10 +25,11 @@ public class TeacherService {
     private final TeacherRepository teacherRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailForAcessTeacher;
+    private final PrincipalCache principalCache;
+    private final CounterService counterService;
 
     public Teacher create(TeacherDTO teacherDTO) {
-        System.out.println("-----------------" + teacherDTO.getEmail());
-        System.out.println("-----------------" + teacherDTO.getPassWord());
+        log.debug("Criando teacher {}", teacherDTO.getEmail());
 
         // Verifique se a senha está vazia ou nula
         if (teacherDTO.getPassWord() == null || teacherDTO.getPassWord().isEmpty()) {
@@ -55,7 +57,9 @@ public class TeacherService {
         // Enviar e-mail com a senha ORIGINAL
        emailForAcessTeacher.sendEmailCreat(teacherDTO);
 
-        return teacherRepository.save(teacher);
+        Teacher saved = teacherRepository.save(teacher);
+        counterService.increment(CounterService.Counter.TEACHERS);
+        return saved;
     }
 
 
@@ -68,7 +72,13 @@ public class TeacherService {
     }
 
     public int findAllQuantity() {
-        return teacherRepository.findAll().size();
+        return (int) counterService.get(CounterService.Counter.TEACHERS);
+    }
+
+    // Mesma contagem de findAll(): o contador em cache sem o professor de id 1
+    public int findListedQuantity() {
+        long count = counterService.get(CounterService.Counter.TEACHERS);
+        return (int) Math.max(0, teacherRepository.existsById(1L) ? count - 1 : count);
     }
 
     public Teacher findById(Long id) {
@@ -82,6 +92,7 @@ public class TeacherService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Teacher not found");
         }
         Teacher teacher = findById(id);
+        principalCache.invalidate(teacher.getEmail());
         teacher.setUserName(teacherDetails.getUserName());
         teacher.setEmail(teacherDetails.getEmail());
         teacher.setAge(teacherDetails.getAge());
@@ -94,7 +105,9 @@ public class TeacherService {
             emailForAcessTeacher.sendEmailCreat(teacherDetails);
         }
 
-        return teacherRepository.save(teacher);
+        Teacher saved = teacherRepository.save(teacher);
+        principalCache.invalidate(saved.getEmail());
+        return saved;
     }
 
     public ResponseEntity<String> delete(Long id) {
@@ -104,6 +117,10 @@ public class TeacherService {
         }
         Teacher teacher = findById(id);
         teacherRepository.delete(teacher);
+        principalCache.invalidate(teacher.getEmail());
+        counterService.decrement(CounterService.Counter.TEACHERS);
+        // Questões e aula do professor são removidas em cascata
+        counterService.invalidate(CounterService.Counter.QUESTIONS, CounterService.Counter.MEETS);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 }
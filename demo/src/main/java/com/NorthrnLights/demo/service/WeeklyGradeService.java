@@ -3,6 +3,7 @@ package com.NorthrnLights.demo.service;
 import com.NorthrnLights.demo.domain.*;
 import com.NorthrnLights.demo.dto.WeeklyGradeDTO;
 import com.NorthrnLights.demo.repository.*;
+import com.NorthrnLights.demo.security.AuthenticatedUserResolver;
 import com.NorthrnLights.demo.util.GradeCalculator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +29,7 @@ public class WeeklyGradeService {
     private final StudentRepository studentRepository;
     private final TeacherRepository teacherRepository;
     private final EmailService emailService;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     public WeeklyGrade createWeeklyGrade(WeeklyGradeDTO dto, Authentication authentication) {
         log.info("Criando nota semanal para estudante ID: {}", dto.getStudentId());
@@ -35,7 +37,8 @@ public class WeeklyGradeService {
         Student student = studentRepository.findById(dto.getStudentId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Estudante não encontrado"));
 
-        Teacher teacher = getAuthenticatedTeacher(authentication);
+        // Só o id é necessário para associar a nota: referência sem consulta ao banco
+        Teacher teacher = authenticatedUserResolver.teacherReference(authentication);
 
         // Calcular início da semana (segunda-feira)
         LocalDate weekStart = getWeekStartDate(dto.getWeekStartDate() != null ? dto.getWeekStartDate() : LocalDate.now());
@@ -254,18 +257,6 @@ public class WeeklyGradeService {
     public Optional<WeeklyGrade> getLatestGrade(Long studentId) {
         return weeklyGradeRepository.findFirstByStudentIdOrderByWeekStartDateDesc(studentId);
     }
-
-    private Teacher getAuthenticatedTeacher(Authentication authentication) {
-        if (authentication == null || authentication.getPrincipal() == null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário não autenticado");
-        }
-
-        if (!(authentication.getPrincipal() instanceof Teacher)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Usuário autenticado não é um professor");
-        }
-
-        return (Teacher) authentication.getPrincipal();
-    }
 }
 
 
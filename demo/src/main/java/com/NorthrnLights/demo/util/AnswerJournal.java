@@ -0,0 +1,430 @@
+package com.NorthrnLights.demo.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal local (write-ahead) das respostas aceitas no modo de ingestão em grupo.
+ *
+ * Os registros são gravados em segmentos de tamanho fixo mapeados em memória
+ * (answers-NNNNNNNNNN.journal), no formato [tamanho int][crc32c int][payload]. Um tamanho 0
+ * marca o fim dos dados (o segmento novo é preenchido com zeros). O arquivo "checkpoint" guarda
+ * a posição até onde os registros já foram gravados no banco; ao abrir, tudo que está depois
+ * do checkpoint volta para a fila de commit.
+ *
+ * Posições são globais: índice do segmento * tamanho do segmento + offset no segmento.
+ */
+@Slf4j
+public class AnswerJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "answers-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int HEADER_BYTES = 8;
+
+    /**
+     * Resposta registrada no journal (ainda sem id: o id vem da sequence ao gravar no banco).
+     */
+    public record Entry(long questionId, long studentId, LocalDateTime createdAt, String text, String imagePath) {
+    }
+
+    /**
+     * Registro já gravado; endPosition é a posição logo após ele (valor do checkpoint ao commitá-lo).
+     */
+    public record Appended(Entry entry, long endPosition) {
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FileChannel checkpointChannel;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    // Registros ainda não commitados, na ordem do journal (protegido por lock)
+    private final ArrayDeque<Appended> uncommitted = new ArrayDeque<>();
+    private final List<Appended> recovered;
+
+    private long segmentIndex;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private long writePosition;
+
+    // Group commit do msync (ver awaitDurable)
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final Condition forceDone = forceLock.newCondition();
+    private boolean forcing;
+    private volatile long forcedPosition;
+
+    private AnswerJournal(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.recovered = recover();
+        this.uncommitted.addAll(recovered);
+    }
+
+    /**
+     * Abre (ou cria) o journal no diretório e recupera os registros posteriores ao checkpoint.
+     */
+    public static AnswerJournal open(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("Segmento do journal muito pequeno: " + segmentBytes);
+        }
+        return new AnswerJournal(directory, segmentBytes);
+    }
+
+    /**
+     * Registros encontrados depois do checkpoint ao abrir o journal (já estão na fila de commit).
+     */
+    public List<Appended> recovered() {
+        return recovered;
+    }
+
+    /**
+     * Grava o registro no segmento atual e o coloca na fila de commit.
+     * O registro só sobrevive a uma queda do sistema operacional depois de {@link #awaitDurable}.
+     */
+    public Appended append(Entry entry) throws IOException {
+        byte[] payload = encode(entry);
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Resposta muito grande para o journal: " + payload.length + " bytes");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            int offset = (int) (writePosition - segmentIndex * segmentBytes);
+            if (offset + recordBytes > segmentBytes) {
+                openSegment(segmentIndex + 1);
+                offset = 0;
+            }
+            segment.position(offset + 4);
+            segment.putInt((int) crc.getValue());
+            segment.put(payload);
+            // Tamanho por último: um registro pela metade continua parecendo o fim dos dados
+            segment.putInt(offset, payload.length);
+
+            writePosition = segmentIndex * segmentBytes + offset + recordBytes;
+            Appended appended = new Appended(entry, writePosition);
+            uncommitted.addLast(appended);
+            notEmpty.signal();
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Garante que os registros até a posição foram forçados para o disco (msync).
+     * Group commit: uma thread por vez faz o force de tudo que já foi gravado; as que chegam
+     * enquanto isso esperam e, na maioria das vezes, já saem cobertas por ele.
+     */
+    public void awaitDurable(long position) {
+        if (forcedPosition >= position) {
+            return;
+        }
+        forceLock.lock();
+        try {
+            while (forcedPosition < position) {
+                if (forcing) {
+                    forceDone.awaitUninterruptibly();
+                    continue;
+                }
+                forcing = true;
+                long target = -1;
+                forceLock.unlock();
+                try {
+                    target = forceWritten();
+                } finally {
+                    forceLock.lock();
+                    forcing = false;
+                    if (target >= 0) {
+                        forcedPosition = target;
+                    }
+                    forceDone.signalAll();
+                }
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Força o trecho gravado desde o último force.
+     *
+     * @return posição coberta
+     */
+    private long forceWritten() {
+        long target;
+        long segmentStart;
+        MappedByteBuffer buffer;
+        lock.lock();
+        try {
+            // Segmentos anteriores já foram forçados na troca de segmento
+            target = writePosition;
+            segmentStart = segmentIndex * segmentBytes;
+            buffer = segment;
+        } finally {
+            lock.unlock();
+        }
+        int from = (int) Math.max(0, forcedPosition - segmentStart);
+        int to = (int) (target - segmentStart);
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+        return target;
+    }
+
+    /**
+     * Retira até max registros da fila de commit, esperando até timeout pelo primeiro.
+     * Os registros continuam no journal até {@link #checkpoint}.
+     */
+    public List<Appended> poll(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (uncommitted.isEmpty()) {
+                if (remainingNanos <= 0) {
+                    return List.of();
+                }
+                remainingNanos = notEmpty.awaitNanos(remainingNanos);
+            }
+            List<Appended> batch = new ArrayList<>(Math.min(max, uncommitted.size()));
+            while (batch.size() < max && !uncommitted.isEmpty()) {
+                batch.add(uncommitted.pollFirst());
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devolve ao início da fila um lote que não pôde ser gravado (ex: banco fora do ar).
+     */
+    public void requeue(List<Appended> batch) {
+        lock.lock();
+        try {
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                uncommitted.addFirst(batch.get(i));
+            }
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return uncommitted.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra que tudo até a posição já está no banco e remove os segmentos inteiramente commitados.
+     */
+    public void checkpoint(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.putLong(position).flip();
+        checkpointChannel.write(buffer, 0);
+        checkpointChannel.force(false);
+
+        long committedSegment = position / segmentBytes;
+        lock.lock();
+        try {
+            // O segmento aberto nunca é removido, mesmo que já esteja todo commitado
+            committedSegment = Math.min(committedSegment, segmentIndex);
+        } finally {
+            lock.unlock();
+        }
+        for (Long index : listSegments().headMap(committedSegment).keySet()) {
+            Files.deleteIfExists(segmentPath(index));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (segment != null) {
+                segment.force();
+            }
+            if (segmentChannel != null) {
+                segmentChannel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+        checkpointChannel.close();
+    }
+
+    private List<Appended> recover() throws IOException {
+        long checkpoint = readCheckpoint();
+        TreeMap<Long, Path> segments = listSegments();
+        long firstIndex = checkpoint / segmentBytes;
+        // Segmentos anteriores ao checkpoint já estão no banco (sobraram de uma remoção interrompida)
+        for (Long index : segments.headMap(firstIndex).keySet()) {
+            Files.deleteIfExists(segmentPath(index));
+        }
+
+        List<Appended> entries = new ArrayList<>();
+        long lastIndex = segments.isEmpty() ? firstIndex : Math.max(firstIndex, segments.lastKey());
+        long position = checkpoint;
+        for (long index = firstIndex; index <= lastIndex; index++) {
+            openSegment(index);
+            int offset = index == firstIndex ? (int) (checkpoint - index * segmentBytes) : 0;
+            offset = readSegment(index, offset, entries);
+            position = index * segmentBytes + offset;
+        }
+        writePosition = position;
+        forcedPosition = position;
+        if (!entries.isEmpty()) {
+            log.info("📒 Journal de respostas: {} registros pendentes recuperados de {}", entries.size(), directory);
+        }
+        return entries;
+    }
+
+    /**
+     * Lê os registros válidos do segmento a partir do offset; retorna o offset do fim dos dados.
+     * Um registro incompleto ou corrompido (queda no meio da gravação) encerra a leitura e é apagado.
+     */
+    private int readSegment(long index, int offset, List<Appended> entries) {
+        while (offset + HEADER_BYTES <= segmentBytes) {
+            int length = segment.getInt(offset);
+            if (length == 0) {
+                return offset;
+            }
+            boolean valid = length > 0 && offset + HEADER_BYTES + length <= segmentBytes;
+            byte[] payload = null;
+            if (valid) {
+                payload = new byte[length];
+                segment.get(offset + HEADER_BYTES, payload);
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                valid = (int) crc.getValue() == segment.getInt(offset + 4);
+            }
+            if (!valid) {
+                log.warn("⚠️ Registro incompleto no journal {} (offset {}), descartando o restante do segmento",
+                        segmentPath(index).getFileName(), offset);
+                // Zera o restante para que gravações novas não se misturem com as sobras
+                for (int i = offset; i < segmentBytes; i++) {
+                    segment.put(i, (byte) 0);
+                }
+                return offset;
+            }
+            offset += HEADER_BYTES + length;
+            entries.add(new Appended(decode(payload), index * segmentBytes + offset));
+        }
+        return offset;
+    }
+
+    private void openSegment(long index) throws IOException {
+        if (segment != null) {
+            segment.force();
+            segmentChannel.close();
+        }
+        segmentChannel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segmentIndex = index;
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (checkpointChannel.size() < 8) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        checkpointChannel.read(buffer, 0);
+        return buffer.flip().getLong();
+    }
+
+    private TreeMap<Long, Path> listSegments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())), path);
+                } catch (NumberFormatException e) {
+                    log.warn("⚠️ Arquivo inesperado no diretório do journal: {}", name);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private static byte[] encode(Entry entry) {
+        byte[] text = entry.text() == null ? null : entry.text().getBytes(StandardCharsets.UTF_8);
+        byte[] imagePath = entry.imagePath() == null ? null : entry.imagePath().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 8 + 8 + 4 + 4 + 4 + length(text) + length(imagePath));
+        buffer.putLong(entry.questionId());
+        buffer.putLong(entry.studentId());
+        buffer.putLong(entry.createdAt().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(entry.createdAt().getNano());
+        putBytes(buffer, text);
+        putBytes(buffer, imagePath);
+        return buffer.array();
+    }
+
+    private static Entry decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        long questionId = buffer.getLong();
+        long studentId = buffer.getLong();
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        return new Entry(questionId, studentId, createdAt, getString(buffer), getString(buffer));
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    // Strings com prefixo de tamanho; -1 = null
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null) {
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,253 @@
+package com.NorthrnLights.demo.util;
+
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispara a correção automática no expiresAt de cada questão de múltipla escolha, em vez de
+ * esperar a próxima varredura.
+ *
+ * Os próximos prazos ficam em uma fila de prioridade em memória, carregada na inicialização e
+ * atualizada pelo QuestionService ao criar, alterar ou remover questões; um único timer no
+ * TaskScheduler aponta para o prazo mais próximo. Ao disparar, corrige só as questões que
+ * acabaram de expirar e agenda uma segunda passada settle-minutes depois, para respostas que
+ * ainda estavam no journal. A varredura do AutoCorrectionScheduler fica como rede de segurança.
+ *
+ * O timer é armado com atraso relativo (nanoTime): se o relógio do sistema for ajustado ele
+ * pode disparar antes do prazo, e então só é rearmado. Alterações feitas dentro de uma
+ * transação só entram na fila depois do commit, para a correção não ler a linha antiga.
+ *
+ * O timer roda em um TaskScheduler próprio, e não no compartilhado dos @Scheduled: uma
+ * varredura de uploads ou uma reconstrução do catálogo não atrasam os prazos.
+ */
+@Slf4j
+@Component
+public class AutoCorrectionDeadlineScheduler implements DisposableBean {
+
+    /**
+     * Prazo de uma questão; settle indica a segunda passada, depois do período de acomodação.
+     */
+    private record Deadline(LocalDateTime fireAt, long questionId, boolean settle) {
+    }
+
+    private final QuestionRepository questionRepository;
+    private final AutoCorrectionScheduler autoCorrectionScheduler;
+    private final TaskScheduler taskScheduler;
+    private final ThreadPoolTaskScheduler ownScheduler;
+    private final Duration settleTime;
+
+    // Acesso protegido pelo lock da instância
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>(
+            Comparator.comparing(Deadline::fireAt).thenComparingLong(Deadline::questionId));
+    private ScheduledFuture<?> timer;
+    private LocalDateTime timerAt;
+
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder questionsGraded = new LongAdder();
+    private final LongAdder answersCorrected = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    @Autowired
+    public AutoCorrectionDeadlineScheduler(QuestionRepository questionRepository,
+                                           AutoCorrectionScheduler autoCorrectionScheduler,
+                                           @Value("${corrections.auto.settle-minutes:5}") long settleMinutes) {
+        this(questionRepository, autoCorrectionScheduler, newTaskScheduler(), settleMinutes, true);
+    }
+
+    AutoCorrectionDeadlineScheduler(QuestionRepository questionRepository,
+                                    AutoCorrectionScheduler autoCorrectionScheduler,
+                                    TaskScheduler taskScheduler,
+                                    long settleMinutes) {
+        this(questionRepository, autoCorrectionScheduler, taskScheduler, settleMinutes, false);
+    }
+
+    private AutoCorrectionDeadlineScheduler(QuestionRepository questionRepository,
+                                            AutoCorrectionScheduler autoCorrectionScheduler,
+                                            TaskScheduler taskScheduler,
+                                            long settleMinutes,
+                                            boolean owned) {
+        this.questionRepository = questionRepository;
+        this.autoCorrectionScheduler = autoCorrectionScheduler;
+        this.taskScheduler = taskScheduler;
+        this.ownScheduler = owned ? (ThreadPoolTaskScheduler) taskScheduler : null;
+        this.settleTime = Duration.ofMinutes(Math.max(0, settleMinutes));
+    }
+
+    private static ThreadPoolTaskScheduler newTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("auto-correction-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        List<QuestionRepository.DeadlineView> upcoming =
+                questionRepository.findUpcomingAutoCorrectionDeadlines(LocalDateTime.now());
+        synchronized (this) {
+            for (QuestionRepository.DeadlineView deadline : upcoming) {
+                deadlines.add(new Deadline(deadline.getExpiresAt(), deadline.getId(), false));
+            }
+            rescheduleTimer();
+        }
+        log.info("⏰ Prazos de correção automática carregados: {}", upcoming.size());
+    }
+
+    /**
+     * Registra (ou substitui) o prazo das questões criadas ou alteradas. Questões que não são
+     * de múltipla escolha ou sem expiresAt só têm o prazo anterior removido.
+     */
+    public void schedule(Collection<Question> questions) {
+        // Copia os prazos agora: as entidades podem mudar até o commit
+        List<Long> questionIds = new ArrayList<>();
+        List<Deadline> updated = new ArrayList<>();
+        for (Question question : questions) {
+            if (question.getId() == null) {
+                continue;
+            }
+            questionIds.add(question.getId());
+            if (question.isMultipleChoice() && question.getExpiresAt() != null) {
+                updated.add(new Deadline(question.getExpiresAt(), question.getId(), false));
+            }
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                questionIds.forEach(this::removeDeadlines);
+                deadlines.addAll(updated);
+                rescheduleTimer();
+            }
+        });
+    }
+
+    public void cancel(Long questionId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                removeDeadlines(questionId);
+                rescheduleTimer();
+            }
+        });
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingDeadlines", deadlines.size());
+        stats.put("nextDeadline", deadlines.isEmpty() ? null : deadlines.peek().fireAt().toString());
+        stats.put("fired", fired.sum());
+        stats.put("questionsGraded", questionsGraded.sum());
+        stats.put("answersCorrected", answersCorrected.sum());
+        stats.put("failures", failures.sum());
+        return stats;
+    }
+
+    /**
+     * Corrige as questões cujo prazo passou. Roda na thread do TaskScheduler.
+     */
+    void fireDue() {
+        fireDue(LocalDateTime.now());
+    }
+
+    void fireDue(LocalDateTime now) {
+        Set<Long> due = new LinkedHashSet<>();
+        synchronized (this) {
+            // Este é o timer em execução (ou um já substituído): sempre rearma no final,
+            // mesmo que tenha disparado antes do prazo
+            if (timer != null) {
+                timer.cancel(false);
+                timer = null;
+                timerAt = null;
+            }
+            while (!deadlines.isEmpty() && !deadlines.peek().fireAt().isAfter(now)) {
+                Deadline deadline = deadlines.poll();
+                due.add(deadline.questionId());
+                if (!deadline.settle() && !settleTime.isZero()) {
+                    deadlines.add(new Deadline(deadline.fireAt().plus(settleTime), deadline.questionId(), true));
+                }
+            }
+        }
+        try {
+            if (!due.isEmpty()) {
+                fired.increment();
+                questionsGraded.add(due.size());
+                // A consulta de pendentes usa expiresAt < now; inclui prazos iguais a now
+                int corrected = autoCorrectionScheduler.correctExpiredQuestions(due, now.plusNanos(1));
+                answersCorrected.add(corrected);
+                log.debug("⏰ Prazo de {} questões: {} respostas corrigidas", due.size(), corrected);
+            }
+        } catch (RuntimeException e) {
+            // A varredura periódica corrige o que ficar pendente
+            failures.increment();
+            log.error("❌ Erro na correção automática por prazo: {}", e.getMessage(), e);
+        } finally {
+            synchronized (this) {
+                rescheduleTimer();
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void removeDeadlines(long questionId) {
+        deadlines.removeIf(deadline -> deadline.questionId() == questionId);
+    }
+
+    private void rescheduleTimer() {
+        Deadline next = deadlines.peek();
+        if (next != null && timer != null && next.fireAt().equals(timerAt)) {
+            return;
+        }
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+            timerAt = null;
+        }
+        if (next != null) {
+            timerAt = next.fireAt();
+            timer = taskScheduler.schedule(this::fireDue, timerAt.atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (ownScheduler != null) {
+            ownScheduler.shutdown();
+        }
+    }
+}
@@ -1,220 +1,202 @@
 package com.NorthrnLights.demo.util;
 
-import com.NorthrnLights.demo.domain.Answer;
 import com.NorthrnLights.demo.domain.Correction;
 import com.NorthrnLights.demo.domain.Grade;
 import com.NorthrnLights.demo.domain.Question;
-import com.NorthrnLights.demo.domain.QuestionOption;
+import com.NorthrnLights.demo.grading.AnswerKey;
+import com.NorthrnLights.demo.grading.MultipleChoiceGrader;
 import com.NorthrnLights.demo.repository.AnswerRepository;
+import com.NorthrnLights.demo.repository.AnswerRepository.PendingCorrectionView;
 import com.NorthrnLights.demo.repository.CorrectionRepository;
 import com.NorthrnLights.demo.repository.QuestionRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Corrige automaticamente as respostas de questões de múltipla escolha expiradas.
+ *
+ * Só as respostas ainda sem correção são lidas (anti-join NOT EXISTS em correction), em lotes
+ * de chunk-size por ordem de id, cada lote em uma transação curta com INSERTs em batch. A nota
+ * vem do MultipleChoiceGrader, com o gabarito de cada questão compilado uma vez por lote. Ao
+ * final, as questões expiradas há mais de settle-minutes sem respostas pendentes recebem a
+ * marca d'água autoCorrectedAt e saem das próximas execuções.
+ *
+ * O NOT EXISTS não impede duas execuções simultâneas (outra instância, ou o timer de prazo e
+ * a varredura) de corrigir a mesma resposta: quem garante é o índice único de
+ * correction.answer_id. Se o lote violar o índice, ele é gravado uma correção por vez e as
+ * respostas que já tinham correção são ignoradas.
+ *
+ * A correção no momento da expiração é disparada pelo AutoCorrectionDeadlineScheduler
+ * (correctExpiredQuestions); a varredura agendada aqui é só a rede de segurança, em
+ * intervalo longo (sweep-interval-ms).
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class AutoCorrectionScheduler {
 
     private final QuestionRepository questionRepository;
     private final AnswerRepository answerRepository;
     private final CorrectionRepository correctionRepository;
+    private final MultipleChoiceGrader grader;
+    private final TransactionTemplate transaction;
+    private final int chunkSize;
+    private final Duration settleTime;
+
+    /**
+     * Resultado de um lote: respostas lidas, corrigidas e o último id lido.
+     */
+    private record Chunk(int read, int corrected, long lastAnswerId) {
+    }
+
+    public AutoCorrectionScheduler(QuestionRepository questionRepository,
+                                   AnswerRepository answerRepository,
+                                   CorrectionRepository correctionRepository,
+                                   MultipleChoiceGrader grader,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${corrections.auto.chunk-size:500}") int chunkSize,
+                                   @Value("${corrections.auto.settle-minutes:5}") long settleMinutes) {
+        this.questionRepository = questionRepository;
+        this.answerRepository = answerRepository;
+        this.correctionRepository = correctionRepository;
+        this.grader = grader;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.settleTime = Duration.ofMinutes(Math.max(0, settleMinutes));
+    }
 
-    @Scheduled(fixedRate = 60000) // Executa a cada 1 minuto
-    @Transactional
+    @Scheduled(initialDelayString = "${corrections.auto.sweep-initial-delay-ms:60000}",
+            fixedDelayString = "${corrections.auto.sweep-interval-ms:900000}")
     public void autoCorrectMultipleChoiceAnswers() {
         LocalDateTime now = LocalDateTime.now();
-        log.info("🔍 Verificando questões de múltipla escolha expiradas para correção automática... (Hora atual: {})", now);
-
-        // Buscar questões de múltipla escolha que expiraram (usar método que carrega opções)
-        List<Question> allQuestions = questionRepository.findAllWithOptions();
-        List<Question> expiredQuestions = allQuestions.stream()
-                .filter(q -> q.isMultipleChoice() 
-                        && q.getExpiresAt() != null 
-                        && q.getExpiresAt().isBefore(now))
-                .toList();
-        
-        log.info("📊 Total de questões encontradas: {}, Questões expiradas: {}", allQuestions.size(), expiredQuestions.size());
-
-        if (expiredQuestions.isEmpty()) {
-            log.info("✅ Nenhuma questão de múltipla escolha expirada encontrada.");
-            return;
+        log.debug("🔍 Verificando respostas de questões de múltipla escolha expiradas para correção automática... (Hora atual: {})", now);
+
+        int correctedCount = correctPending(now,
+                afterId -> answerRepository.findPendingAutoCorrections(now, afterId, Limit.of(chunkSize)));
+        if (correctedCount > 0) {
+            log.info("✅ Total de respostas corrigidas automaticamente: {}", correctedCount);
         }
+    }
 
-        int correctedCount = 0;
+    /**
+     * Corrige as respostas pendentes das questões que acabaram de expirar.
+     *
+     * @return respostas corrigidas
+     */
+    public int correctExpiredQuestions(Collection<Long> questionIds, LocalDateTime now) {
+        return correctPending(now, afterId -> answerRepository.findPendingAutoCorrectionsForQuestions(
+                questionIds, now, afterId, Limit.of(chunkSize)));
+    }
 
-        for (Question question : expiredQuestions) {
-            // Buscar todas as respostas para esta questão que ainda não têm correção
-            List<Answer> answers = answerRepository.findByQuestionId(question.getId());
-            
-            for (Answer answer : answers) {
-                // Verificar se já existe correção para esta resposta
-                List<Correction> existingCorrections = correctionRepository.findByAnswerId(answer.getId());
-                if (!existingCorrections.isEmpty()) {
-                    continue; // Já foi corrigida
-                }
-
-                // Corrigir automaticamente
-                boolean isCorrect = checkMultipleChoiceAnswer(answer, question);
-                log.info("🔍 DEBUG: Resposta ID {} - isCorrect: {}", answer.getId(), isCorrect);
-                log.info("🔍 DEBUG: Texto da resposta: '{}'", answer.getText());
-                log.info("🔍 DEBUG: Questão ID: {}, Opções corretas: {}", 
-                        question.getId(), 
-                        question.getOptions().stream()
-                            .filter(QuestionOption::isCorrect)
-                            .map(opt -> question.getOptions().indexOf(opt) + " (" + opt.getText() + ")")
-                            .toList());
-                
-                // ATENÇÃO: Se isCorrect é true, a resposta está CORRETA, então atribui Grade.A
-                // Se isCorrect é false, a resposta está INCORRETA, então atribui Grade.F
-                Grade grade = isCorrect ? Grade.A : Grade.F;
-                log.info("🔍 DEBUG FINAL: isCorrect={}, Grade atribuída={}", isCorrect, grade);
-                String feedback = isCorrect 
-                    ? "Resposta correta! Parabéns!" 
-                    : "Resposta incorreta. Revise o conteúdo.";
-                
-                log.info("🔍 DEBUG: Nota atribuída: {} (isCorrect={})", grade, isCorrect);
-
-                Correction correction = Correction.builder()
-                        .grade(grade)
-                        .feedback(feedback)
-                        .answer(answer)
-                        .teacher(question.getTeacher()) // Usar o professor da questão
-                        .build();
-
-                correctionRepository.save(correction);
-                correctedCount++;
-                log.info("✅ Resposta ID {} corrigida automaticamente. Nota: {}", answer.getId(), grade);
+    private int correctPending(LocalDateTime now, LongFunction<List<PendingCorrectionView>> pendingAfter) {
+        int correctedCount = 0;
+        long afterId = 0;
+        Chunk chunk;
+        do {
+            long from = afterId;
+            try {
+                chunk = transaction.execute(status -> {
+                    List<PendingCorrectionView> pending = pendingAfter.apply(from);
+                    List<Correction> corrections = grade(pending);
+                    correctionRepository.saveAll(corrections);
+                    return chunkOf(pending, corrections.size(), from);
+                });
+            } catch (DataIntegrityViolationException e) {
+                log.warn("⚠️ Lote de correção automática já corrigido em parte, gravando uma a uma: {}",
+                        e.getMostSpecificCause().getMessage());
+                chunk = correctIndividually(pendingAfter.apply(from), from);
             }
-        }
+            correctedCount += chunk.corrected();
+            afterId = chunk.lastAnswerId();
+        } while (chunk.read() == chunkSize);
 
-        log.info("✅ Total de respostas corrigidas automaticamente: {}", correctedCount);
+        int settled = questionRepository.markAutoCorrected(now, now.minus(settleTime));
+        if (settled > 0) {
+            log.debug("📌 Questões com correção automática concluída: {}", settled);
+        }
+        return correctedCount;
     }
 
     /**
-     * Verifica se a resposta de múltipla escolha está correta
+     * Grava cada correção do lote na sua própria transação; violação do índice único de
+     * answer_id significa que a resposta já foi corrigida por outra execução.
      */
-    private boolean checkMultipleChoiceAnswer(Answer answer, Question question) {
-        if (question.getOptions() == null || question.getOptions().isEmpty()) {
-            log.warn("⚠️ Questão {} não tem opções", question.getId());
-            return false;
-        }
-
-        // A resposta do aluno vem no formato "A) texto da opção"
-        String answerText = answer.getText() != null ? answer.getText().trim() : "";
-        log.debug("🔍 Verificando resposta: '{}' para questão ID: {}", answerText, question.getId());
-        
-        // Encontrar a opção correta
-        QuestionOption correctOption = null;
-        int correctIndex = -1;
-        for (int i = 0; i < question.getOptions().size(); i++) {
-            QuestionOption option = question.getOptions().get(i);
-            if (option.isCorrect()) {
-                correctOption = option;
-                correctIndex = i;
-                break;
+    private Chunk correctIndividually(List<PendingCorrectionView> pending, long afterId) {
+        List<Correction> corrections = transaction.execute(status -> grade(pending));
+        int saved = 0;
+        for (Correction correction : corrections) {
+            try {
+                transaction.executeWithoutResult(status -> correctionRepository.save(correction));
+                saved++;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Resposta ID {} já corrigida", correction.getAnswer().getId());
             }
         }
+        return chunkOf(pending, saved, afterId);
+    }
 
-        if (correctOption == null) {
-            log.warn("⚠️ Questão {} não tem opção correta definida", question.getId());
-            return false;
+    private static Chunk chunkOf(List<PendingCorrectionView> pending, int corrected, long afterId) {
+        return pending.isEmpty()
+                ? new Chunk(0, 0, afterId)
+                : new Chunk(pending.size(), corrected, pending.get(pending.size() - 1).getId());
+    }
+
+    private List<Correction> grade(List<PendingCorrectionView> pending) {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> questionIds = pending.stream().map(PendingCorrectionView::getQuestionId).collect(Collectors.toSet());
+        Map<Long, Question> questions = questionRepository.findAllWithOptionsAndTeacherByIdIn(questionIds).stream()
+                .collect(Collectors.toMap(Question::getId, Function.identity()));
+        // Gabarito compilado uma vez por questão do lote
+        Map<Long, AnswerKey> keys = new HashMap<>();
+        for (Question question : questions.values()) {
+            AnswerKey key = AnswerKey.compile(question.getOptions());
+            if (key.correctCount() == 0) {
+                log.warn("⚠️ Questão {} não tem opção correta definida", question.getId());
+            }
+            keys.put(question.getId(), key);
         }
 
-        log.debug("✅ Opção correta encontrada: índice {}, texto: '{}'", correctIndex, correctOption.getText());
-        
-        // Verificar se a resposta do aluno corresponde à opção correta
-        // A resposta vem no formato "A) texto da opção"
-        String cleanAnswerText = answerText.trim();
-        
-        // Verificar se começa com letra seguida de parêntese (formato "A) texto")
-        if (cleanAnswerText.matches("^[A-Z]\\)\\s*.*")) {
-            // Extrair a letra (A, B, C, D, E, etc)
-            char answerLetter = cleanAnswerText.toUpperCase().charAt(0);
-            int answerIndex = answerLetter - 'A';
-            
-            log.debug("📝 Resposta no formato 'LETRA) texto'. Letra: {}, Índice calculado: {}", answerLetter, answerIndex);
-            
-            // Verificar se o índice está dentro dos limites
-            if (answerIndex >= 0 && answerIndex < question.getOptions().size()) {
-                QuestionOption selectedOption = question.getOptions().get(answerIndex);
-                
-                // Log detalhado para debug
-                log.info("🔍 DEBUG: Opção selecionada - Índice: {}, Letra: {}, Texto: '{}', isCorrect: {}", 
-                        answerIndex, answerLetter, selectedOption.getText(), selectedOption.isCorrect());
-                log.info("🔍 DEBUG: Opção correta esperada - Índice: {}, Texto: '{}'", 
-                        correctIndex, correctOption.getText());
-                
-                // A lógica correta: verificar se o índice selecionado corresponde ao índice da opção correta
-                // Esta é a forma mais confiável de verificar
-                boolean isCorrect = (answerIndex == correctIndex);
-                
-                log.info("🔍 DEBUG: answerIndex (selecionado) = {}, correctIndex (esperado) = {}", answerIndex, correctIndex);
-                log.info("🔍 DEBUG: selectedOption.isCorrect() = {}", selectedOption.isCorrect());
-                log.info("✅ Resposta verificada: Índice {} (letra {}), Opção correta no índice {}, Resultado: {}", 
-                        answerIndex, answerLetter, correctIndex, isCorrect);
-                
-                // Verificação adicional: se os índices não coincidem, verificar se a opção selecionada está marcada como correta
-                // (pode haver múltiplas opções corretas ou ordem diferente)
-                if (!isCorrect && selectedOption.isCorrect()) {
-                    log.warn("⚠️ Índices não coincidem, mas opção selecionada está marcada como correta. Considerando correta.");
-                    return true;
-                }
-                
-                return isCorrect;
-            } else {
-                log.warn("⚠️ Índice {} fora dos limites (total de opções: {})", answerIndex, question.getOptions().size());
-                return false;
+        List<Correction> corrections = new ArrayList<>(pending.size());
+        for (PendingCorrectionView answer : pending) {
+            Question question = questions.get(answer.getQuestionId());
+            if (question == null) {
+                continue; // Questão removida durante a execução
             }
-        } else if (cleanAnswerText.matches("^[A-Z]$")) {
-            // Apenas a letra (A, B, C, D, E)
-            char answerLetter = cleanAnswerText.toUpperCase().charAt(0);
-            int answerIndex = answerLetter - 'A';
-            
-            log.debug("📝 Resposta apenas com letra: {}, Índice calculado: {}", answerLetter, answerIndex);
-            
-            if (answerIndex >= 0 && answerIndex < question.getOptions().size()) {
-                QuestionOption selectedOption = question.getOptions().get(answerIndex);
-                
-                // Log detalhado para debug
-                log.info("🔍 DEBUG: Opção selecionada (apenas letra) - Índice: {}, Letra: {}, Texto: '{}', isCorrect: {}", 
-                        answerIndex, answerLetter, selectedOption.getText(), selectedOption.isCorrect());
-                log.info("🔍 DEBUG: Opção correta esperada - Índice: {}, Texto: '{}'", 
-                        correctIndex, correctOption.getText());
-                
-                // A lógica correta: verificar se o índice selecionado corresponde ao índice da opção correta
-                boolean isCorrect = (answerIndex == correctIndex);
-                
-                log.info("🔍 DEBUG: answerIndex (selecionado) = {}, correctIndex (esperado) = {}", answerIndex, correctIndex);
-                log.info("🔍 DEBUG: selectedOption.isCorrect() = {}", selectedOption.isCorrect());
-                log.info("✅ Resposta verificada (apenas letra): Índice {} (letra {}), Opção correta no índice {}, Resultado: {}", 
-                        answerIndex, answerLetter, correctIndex, isCorrect);
-                
-                // Verificação adicional: se os índices não coincidem, verificar se a opção selecionada está marcada como correta
-                if (!isCorrect && selectedOption.isCorrect()) {
-                    log.warn("⚠️ Índices não coincidem, mas opção selecionada está marcada como correta. Considerando correta.");
-                    return true;
-                }
-                
-                return isCorrect;
-            } else {
-                log.warn("⚠️ Índice {} fora dos limites", answerIndex);
-                return false;
+
+            double score = grader.score(keys.get(question.getId()), answer.getText());
+            Grade grade = grader.gradeFor(score);
+            if (log.isDebugEnabled()) {
+                log.debug("Resposta ID {} da questão {} - pontuação: {}, nota: {}",
+                        answer.getId(), question.getId(), score, grade);
             }
-        } else {
-            // Tentar comparar diretamente com o texto da opção correta
-            String correctOptionText = correctOption.getText().trim();
-            boolean isCorrect = correctOptionText.equalsIgnoreCase(cleanAnswerText);
-            log.info("✅ Comparação direta de texto. Resposta: '{}', Correta: '{}', Resultado: {}", 
-                    cleanAnswerText, correctOptionText, isCorrect);
-            return isCorrect;
+
+            corrections.add(Correction.builder()
+                    .grade(grade)
+                    .feedback(grader.feedbackFor(score))
+                    .points(score)
+                    .answer(answerRepository.getReferenceById(answer.getId()))
+                    .teacher(question.getTeacher()) // Usar o professor da questão
+                    .build());
         }
+        return corrections;
     }
 }
-
@@ -0,0 +1,156 @@
+package com.NorthrnLights.demo.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Grava imagens recebidas em base64 (com ou sem prefixo "data:image/...;base64,") direto
+ * em arquivos de upload, decodificando em blocos através de um stream decodificador, sem
+ * montar o byte[] completo da imagem. O arquivo é nomeado pelo conteúdo
+ * (ContentAddressedUploadStore): a mesma imagem em vários lotes é gravada uma vez.
+ *
+ * As gravações rodam em um pool limitado. Com a fila cheia, quem submete grava a imagem
+ * na própria thread, o que limita quantas imagens ficam pendentes em memória.
+ */
+@Slf4j
+@Component
+public class Base64ImageWriter implements DisposableBean {
+
+    public static final long MAX_IMAGE_BYTES = 12L * 1024 * 1024;
+
+    /**
+     * Imagem gravada: arquivo no disco e caminho relativo salvo no banco.
+     *
+     * @param created false se a mesma imagem já estava armazenada (ver ContentAddressedUploadStore)
+     */
+    public record SavedImage(Path file, String urlPath, boolean created) {
+    }
+
+    private final ContentAddressedUploadStore uploadStore;
+    private final ThreadPoolExecutor executor;
+
+    public Base64ImageWriter(ContentAddressedUploadStore uploadStore,
+                             @Value("${questions.batch.image-writers:4}") int writers,
+                             @Value("${questions.batch.image-queue:4}") int queueCapacity) {
+        this.uploadStore = uploadStore;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                writers, writers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-writer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Grava a imagem no pool.
+     *
+     * @param subDir subdiretório de upload (ex: "questions")
+     * @param base64 conteúdo base64, opcionalmente com prefixo data URL
+     */
+    public CompletableFuture<SavedImage> submit(String subDir, String base64) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return write(subDir, base64);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Grava a imagem na thread atual.
+     */
+    public SavedImage write(String subDir, String base64) throws IOException {
+        int dataStart = 0;
+        String fileExtension = "png"; // padrão
+        int comma = base64.indexOf(',');
+        if (comma >= 0) {
+            String prefix = base64.substring(0, comma);
+            dataStart = comma + 1;
+            // Extrair extensão do tipo MIME
+            if (prefix.contains("image/")) {
+                String mimeType = prefix.substring(prefix.indexOf("image/") + 6);
+                if (mimeType.contains(";")) {
+                    mimeType = mimeType.substring(0, mimeType.indexOf(";"));
+                }
+                if (mimeType.contains("+")) {
+                    mimeType = mimeType.substring(0, mimeType.indexOf("+")); // svg+xml -> svg
+                }
+                fileExtension = mimeType.equals("jpeg") ? "jpg" : mimeType;
+            }
+        }
+        if (!fileExtension.matches("[a-z0-9]{1,10}")) {
+            throw new IOException("Tipo de imagem inválido: " + fileExtension);
+        }
+
+        ContentAddressedUploadStore.StoredFile stored;
+        try (ReadableByteChannel decoded = Channels.newChannel(
+                Base64.getDecoder().wrap(new Latin1InputStream(base64, dataStart)))) {
+            stored = uploadStore.store(subDir, decoded, fileExtension, MAX_IMAGE_BYTES);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("String base64 inválida: " + e.getMessage(), e);
+        }
+        log.debug("✅ Imagem base64 salva: {} ({} bytes)", stored.file(), stored.size());
+        return new SavedImage(stored.file(), stored.urlPath(), stored.created());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Lê os caracteres de uma String como bytes (base64 é ASCII), sem copiá-la.
+     */
+    private static final class Latin1InputStream extends InputStream {
+        private final String source;
+        private int position;
+
+        Latin1InputStream(String source, int start) {
+            this.source = source;
+            this.position = start;
+        }
+
+        @Override
+        public int read() {
+            return position < source.length() ? (source.charAt(position++) & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int remaining = source.length() - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = Math.min(length, remaining);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) source.charAt(position++);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.NorthrnLights.demo.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Armazena uploads pelo conteúdo: o arquivo final é {subdir}/{sha256}.{extensão}, então
+ * imagens idênticas (a mesma foto de exercício, a mesma ilustração em vários lotes) ficam
+ * gravadas uma única vez e são referenciadas pelo mesmo caminho.
+ *
+ * O conteúdo é copiado por FileChannel.transferFrom para um arquivo de staging no próprio
+ * diretório de destino, calculando o hash durante a cópia; depois o staging é renomeado
+ * (rename atômico, sem segunda cópia) ou descartado se o conteúdo já existia.
+ *
+ * Como um arquivo pode ser referenciado por vários registros, quem grava não deve apagá-lo
+ * ao desistir do upload; arquivos sem referência ficam para a limpeza de órfãos
+ * (OrphanedUploadSweeper), que apaga pelo reclaim. Reutilizar um conteúdo existente
+ * atualiza a data de modificação do arquivo sob o mesmo lock do reclaim, então um arquivo
+ * recém-referenciado nunca é considerado antigo pela limpeza.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentAddressedUploadStore {
+
+    public static final String STAGING_PREFIX = ".upload-";
+    public static final String STAGING_SUFFIX = ".part";
+
+    private static final String DEFAULT_EXTENSION = "png";
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+    private static final Pattern DIGEST_FILENAME = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]{1,10}");
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Arquivo armazenado.
+     *
+     * @param urlPath caminho salvo no banco (ex: "/uploads/answers/{sha256}.png")
+     * @param created false se o conteúdo já existia e nada foi gravado
+     */
+    public record StoredFile(Path file, String urlPath, String digest, long size, boolean created) {
+    }
+
+    private final UploadDirectoryManager uploadDirectoryManager;
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    // Publicação (rename ou reutilização) e reclaim do mesmo nome de arquivo são serializados
+    private final Object[] locks = newLocks();
+
+    /**
+     * Armazena um upload multipart. A extensão vem do nome original (png se ausente ou inválida).
+     */
+    public StoredFile store(String subDir, MultipartFile file) throws IOException {
+        try (ReadableByteChannel source = Channels.newChannel(file.getInputStream())) {
+            return store(subDir, source, extensionOf(file.getOriginalFilename()), Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Armazena o conteúdo lido do canal (que não é fechado aqui).
+     *
+     * @param maxBytes tamanho máximo aceito; acima dele o upload é descartado
+     * @throws IOException se o conteúdo for vazio, maior que maxBytes ou não puder ser gravado
+     */
+    public StoredFile store(String subDir, ReadableByteChannel source, String extension, long maxBytes)
+            throws IOException {
+        if (!EXTENSION.matcher(extension).matches()) {
+            throw new IOException("Extensão de arquivo inválida: " + extension);
+        }
+        Path directory = Paths.get(uploadDirectoryManager.getUploadDir(subDir));
+        Path staging = directory.resolve(STAGING_PREFIX + UUID.randomUUID() + STAGING_SUFFIX);
+
+        MessageDigest sha256 = newDigest();
+        long size = 0;
+        try (FileChannel target = FileChannel.open(staging, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            DigestingChannel digesting = new DigestingChannel(source, sha256);
+            long transferred;
+            while ((transferred = target.transferFrom(digesting, size, TRANSFER_CHUNK)) > 0) {
+                size += transferred;
+                if (size > maxBytes) {
+                    throw new IOException("Arquivo maior que o limite de " + maxBytes + " bytes");
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staging);
+            throw e;
+        }
+        if (size == 0) {
+            Files.deleteIfExists(staging);
+            throw new IOException("Arquivo vazio");
+        }
+
+        String digest = HexFormat.of().formatHex(sha256.digest());
+        String filename = digest + "." + extension;
+        Path dest = directory.resolve(filename);
+        boolean created;
+        synchronized (lockFor(dest)) {
+            created = !Files.exists(dest);
+            if (created) {
+                // Upload concorrente do mesmo conteúdo pode renomear primeiro: o resultado é o mesmo
+                Files.move(staging, dest, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.setLastModifiedTime(dest, FileTime.from(Instant.now()));
+                Files.delete(staging);
+            }
+        }
+        if (created) {
+            stored.increment();
+            bytesWritten.add(size);
+        } else {
+            deduplicated.increment();
+            bytesSaved.add(size);
+            log.debug("♻️ Conteúdo já armazenado, reutilizando {}/{}", subDir, filename);
+        }
+        uploadDirectoryManager.registerFile(dest);
+        return new StoredFile(dest, "/uploads/" + subDir + "/" + filename, digest, size, created);
+    }
+
+    /**
+     * Apaga um arquivo de upload se ele não foi gravado nem reutilizado depois de cutoff.
+     * Chamado pela limpeza de órfãos depois de confirmar que nada no banco o referencia.
+     *
+     * @return bytes liberados, ou -1 se o arquivo não existe ou é mais novo que cutoff
+     */
+    public long reclaim(Path file, Instant cutoff) throws IOException {
+        synchronized (lockFor(file)) {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException e) {
+                return -1;
+            }
+            if (!attributes.isRegularFile() || !attributes.lastModifiedTime().toInstant().isBefore(cutoff)) {
+                return -1;
+            }
+            if (!Files.deleteIfExists(file)) {
+                return -1;
+            }
+            uploadDirectoryManager.unregisterFile(file);
+            return attributes.size();
+        }
+    }
+
+    /**
+     * true se o nome do arquivo for de um conteúdo armazenado por digest (nunca muda).
+     */
+    public static boolean isContentAddressed(String filename) {
+        return filename != null && DIGEST_FILENAME.matcher(filename).matches();
+    }
+
+    /**
+     * Extensão em minúsculas do nome original, ou png se ausente ou fora de [a-z0-9]{1,10}.
+     */
+    public static String extensionOf(String originalFilename) {
+        if (originalFilename == null) {
+            return DEFAULT_EXTENSION;
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        if (dot < 0) {
+            return DEFAULT_EXTENSION;
+        }
+        String extension = originalFilename.substring(dot + 1).trim().toLowerCase(Locale.ROOT);
+        if (extension.equals("jpeg")) {
+            extension = "jpg";
+        }
+        return EXTENSION.matcher(extension).matches() ? extension : DEFAULT_EXTENSION;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("stored", stored.sum());
+        stats.put("deduplicated", deduplicated.sum());
+        stats.put("bytesWritten", bytesWritten.sum());
+        stats.put("bytesSaved", bytesSaved.sum());
+        return stats;
+    }
+
+    private Object lockFor(Path file) {
+        return locks[Math.floorMod(file.getFileName().toString().hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Object[] newLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Atualiza o digest com cada bloco lido do canal de origem.
+     */
+    private static final class DigestingChannel implements ReadableByteChannel {
+        private final ReadableByteChannel source;
+        private final MessageDigest digest;
+
+        DigestingChannel(ReadableByteChannel source, MessageDigest digest) {
+            this.source = source;
+            this.digest = digest;
+        }
+
+        @Override
+        public int read(ByteBuffer buffer) throws IOException {
+            int start = buffer.position();
+            int read = source.read(buffer);
+            if (read > 0) {
+                digest.update(buffer.duplicate().flip().position(start));
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return source.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.NorthrnLights.demo.util;
+
+import com.NorthrnLights.demo.dto.CursorPage;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Paginação por keyset compartilhada pelas listagens: tamanho de página limitado, consulta
+ * de pageSize + 1 linhas (a linha extra indica se existe próxima página, sem COUNT) e cursor
+ * opaco (KeysetCursor) com a posição do último item devolvido.
+ *
+ * As listagens ordenadas por id DESC usam sempre "id < :afterId" com afterId(cursor), que
+ * na primeira página é Long.MAX_VALUE, e percorrem o índice da chave primária.
+ */
+public final class CursorPaging {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private CursorPaging() {
+    }
+
+    /**
+     * @return size limitado a [1, MAX_PAGE_SIZE], ou DEFAULT_PAGE_SIZE se ausente
+     */
+    public static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Limite da consulta: uma linha a mais que a página.
+     */
+    public static Limit limit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    /**
+     * Id do último item da página anterior, para listagens ordenadas por id DESC.
+     *
+     * @return Long.MAX_VALUE na primeira página (cursor ausente)
+     * @throws ResponseStatusException 400 se o cursor for inválido
+     */
+    public static long afterId(String cursor) {
+        KeysetCursor decoded = KeysetCursor.decode(cursor);
+        return decoded == null ? Long.MAX_VALUE : decoded.id();
+    }
+
+    /**
+     * Cursor de listagens ordenadas por (timestamp DESC, id DESC).
+     *
+     * @return null na primeira página
+     * @throws ResponseStatusException 400 se o cursor for inválido ou não tiver timestamp
+     */
+    public static KeysetCursor afterTimestamp(String cursor) {
+        KeysetCursor decoded = KeysetCursor.decode(cursor);
+        if (decoded != null && decoded.timestamp() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+        return decoded;
+    }
+
+    /**
+     * Monta a página a partir das até pageSize + 1 linhas consultadas.
+     *
+     * @param cursorOf posição de um item na ordenação da consulta
+     */
+    public static <T> CursorPage<T> page(List<T> rows, int pageSize, Function<T, KeysetCursor> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)).encode() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+}
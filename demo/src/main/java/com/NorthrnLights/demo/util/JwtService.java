@@ -3,6 +3,7 @@ package com.NorthrnLights.demo.util;
 import com.NorthrnLights.demo.domain.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -13,32 +14,60 @@ import java.util.Date;
 @Service
 public class JwtService {
 
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_CLASS_ROOM = "classRoom";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    // Chave HMAC e parser são imutáveis e thread-safe: construídos uma única vez
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     public String generateToken(User user) {
-        Key Key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
         return Jwts.builder()
                 .setSubject(user.getEmail())
-                .claim("role", user.getRole().name())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_CLASS_ROOM, user.getClassRoom())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(Key,SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifica a assinatura e a expiração do token e retorna suas claims.
+     * Deve ser chamado uma única vez por requisição; o resultado contém tudo
+     * o que o filtro precisa (subject, role, expiração).
+     *
+     * @param token JWT sem o prefixo "Bearer "
+     * @return Claims verificadas do token
+     * @throws ExpiredJwtException se o token estiver expirado
+     * @throws JwtException se o token for inválido ou a assinatura não conferir
+     * @throws IllegalArgumentException se o token for vazio
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public String extractUsername(String token) {
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public boolean validateToken(String token) {
         try {
-            Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
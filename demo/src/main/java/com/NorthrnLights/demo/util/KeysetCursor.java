@@ -0,0 +1,49 @@
+package com.NorthrnLights.demo.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor de paginação por keyset: a posição do último item da página anterior,
+ * ordenada por (timestamp DESC, id DESC), ou só por id DESC quando timestamp é null.
+ * É enviado ao cliente como string opaca (Base64 URL-safe), que deve apenas devolvê-la
+ * no parâmetro "cursor".
+ */
+public record KeysetCursor(LocalDateTime timestamp, Long id) {
+
+    public static KeysetCursor ofId(Long id) {
+        return new KeysetCursor(null, id);
+    }
+
+    public String encode() {
+        String raw = (timestamp == null ? "" : timestamp.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return cursor decodificado ou null se o valor for vazio (primeira página)
+     * @throws ResponseStatusException 400 se o cursor for inválido
+     */
+    public static KeysetCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Separador ausente");
+            }
+            String timestamp = raw.substring(0, separator);
+            return new KeysetCursor(timestamp.isEmpty() ? null : LocalDateTime.parse(timestamp),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+}
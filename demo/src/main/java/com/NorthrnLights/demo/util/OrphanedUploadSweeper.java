@@ -0,0 +1,234 @@
+package com.NorthrnLights.demo.util;
+
+import com.NorthrnLights.demo.repository.AnswerRepository;
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import com.NorthrnLights.demo.repository.UserRepository;
+import com.NorthrnLights.demo.service.ImageDerivativeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remove arquivos de upload que nada no banco referencia (questões e respostas apagadas,
+ * imagens substituídas, fotos de perfil trocadas), junto com suas versões reduzidas.
+ *
+ * A varredura é incremental: o diretório é listado (só os nomes, ordenados) uma vez por
+ * passada, e cada execução agendada processa os próximos batch-size arquivos dessa listagem
+ * e guarda a posição para a próxima. Arquivos criados depois da listagem ficam para a
+ * passada seguinte, o que não muda nada: ainda estão no período de carência. Os nomes do lote são
+ * conferidos de uma vez contra answer.image_path, question.image_path e user.profile_image
+ * (consultas IN curtas, fora de transação longa). Só é apagado o que está sem referência e
+ * não foi gravado nem reutilizado dentro do período de carência, o que também cobre imagens
+ * de respostas ainda no journal. Staging de uploads interrompidos (.upload-*.part) mais
+ * antigo que a carência também é removido.
+ */
+@Slf4j
+@Component
+public class OrphanedUploadSweeper {
+
+    static final List<String> SWEPT_DIRS = List.of("questions", "answers", "profiles");
+
+    private final UploadDirectoryManager uploadDirectoryManager;
+    private final ContentAddressedUploadStore uploadStore;
+    private final ImageDerivativeService imageDerivativeService;
+    private final AnswerRepository answerRepository;
+    private final QuestionRepository questionRepository;
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration gracePeriod;
+
+    // Posição da varredura (diretório, listagem ordenada da passada e próximo índice)
+    private int dirIndex = 0;
+    private List<String> listing = null;
+    private int position = 0;
+
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder orphansDeleted = new LongAdder();
+    private final LongAdder stagingDeleted = new LongAdder();
+    private final LongAdder bytesReclaimed = new LongAdder();
+    private final LongAdder passesCompleted = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public OrphanedUploadSweeper(UploadDirectoryManager uploadDirectoryManager,
+                                 ContentAddressedUploadStore uploadStore,
+                                 ImageDerivativeService imageDerivativeService,
+                                 AnswerRepository answerRepository,
+                                 QuestionRepository questionRepository,
+                                 UserRepository userRepository,
+                                 @Value("${uploads.sweeper.enabled:true}") boolean enabled,
+                                 @Value("${uploads.sweeper.batch-size:200}") int batchSize,
+                                 @Value("${uploads.sweeper.grace-hours:24}") long graceHours) {
+        this.uploadDirectoryManager = uploadDirectoryManager;
+        this.uploadStore = uploadStore;
+        this.imageDerivativeService = imageDerivativeService;
+        this.answerRepository = answerRepository;
+        this.questionRepository = questionRepository;
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.gracePeriod = Duration.ofHours(Math.max(1, graceHours));
+    }
+
+    @Scheduled(initialDelayString = "${uploads.sweeper.initial-delay-ms:300000}",
+            fixedDelayString = "${uploads.sweeper.interval-ms:30000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sweepNextBatch();
+        } catch (Exception e) {
+            // A posição não avança: o mesmo lote é tentado de novo na próxima execução
+            failures.increment();
+            log.error("❌ Erro na limpeza de uploads órfãos: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Processa o próximo lote de até batch-size arquivos.
+     *
+     * @return bytes liberados no lote
+     */
+    synchronized long sweepNextBatch() throws IOException {
+        String subDir = SWEPT_DIRS.get(dirIndex);
+        Path directory = Paths.get(uploadDirectoryManager.getUploadDir(subDir));
+        if (listing == null) {
+            listing = listNames(directory);
+            position = 0;
+        }
+        List<String> names = listing.subList(position, Math.min(position + batchSize, listing.size()));
+        List<Path> batch = new ArrayList<>(names.size());
+        for (String name : names) {
+            batch.add(directory.resolve(name));
+        }
+        Instant cutoff = Instant.now().minus(gracePeriod);
+
+        Map<String, Path> candidates = new LinkedHashMap<>();
+        long freed = 0;
+        for (Path file : batch) {
+            scanned.increment();
+            String name = file.getFileName().toString();
+            if (name.startsWith(ContentAddressedUploadStore.STAGING_PREFIX)
+                    && name.endsWith(ContentAddressedUploadStore.STAGING_SUFFIX)) {
+                long bytes = uploadStore.reclaim(file, cutoff);
+                if (bytes >= 0) {
+                    stagingDeleted.increment();
+                    freed += bytes;
+                }
+            } else if (!name.startsWith(".") && isOlderThan(file, cutoff)) {
+                candidates.put("/uploads/" + subDir + "/" + name, file);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            Set<String> referenced = findReferenced(candidates.keySet());
+            for (Map.Entry<String, Path> candidate : candidates.entrySet()) {
+                if (referenced.contains(candidate.getKey())) {
+                    continue;
+                }
+                long bytes = uploadStore.reclaim(candidate.getValue(), cutoff);
+                if (bytes < 0) {
+                    continue;
+                }
+                bytes += imageDerivativeService.deleteDerivatives(candidate.getKey());
+                orphansDeleted.increment();
+                freed += bytes;
+                log.debug("🗑️ Upload órfão removido: {} ({} bytes)", candidate.getKey(), bytes);
+            }
+        }
+        bytesReclaimed.add(freed);
+
+        position += batch.size();
+        if (position >= listing.size()) {
+            dirIndex = (dirIndex + 1) % SWEPT_DIRS.size();
+            listing = null;
+            position = 0;
+            if (dirIndex == 0) {
+                passesCompleted.increment();
+            }
+        }
+        if (freed > 0) {
+            log.info("🧹 Limpeza de uploads: {} bytes liberados em {}", freed, subDir);
+        }
+        return freed;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("scanned", scanned.sum());
+        stats.put("orphansDeleted", orphansDeleted.sum());
+        stats.put("stagingDeleted", stagingDeleted.sum());
+        stats.put("bytesReclaimed", bytesReclaimed.sum());
+        stats.put("passesCompleted", passesCompleted.sum());
+        stats.put("failures", failures.sum());
+        stats.put("position", SWEPT_DIRS.get(dirIndex) + " " + position + "/" + (listing == null ? 0 : listing.size()));
+        return stats;
+    }
+
+    /**
+     * Nomes do diretório em ordem. Só os nomes são lidos; atributos ficam para os arquivos
+     * de cada lote.
+     */
+    private static List<String> listNames(Path directory) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                names.add(entry.getFileName().toString());
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Caminhos do lote referenciados no banco. Registros antigos podem ter o caminho sem a
+     * barra inicial ("uploads/..."), então as duas formas são consultadas.
+     */
+    private Set<String> findReferenced(Set<String> urlPaths) {
+        List<String> paths = new ArrayList<>(urlPaths.size() * 2);
+        for (String urlPath : urlPaths) {
+            paths.add(urlPath);
+            paths.add(urlPath.substring(1));
+        }
+        Set<String> referenced = new HashSet<>();
+        answerRepository.findReferencedImagePaths(paths).forEach(path -> referenced.add(normalize(path)));
+        questionRepository.findReferencedImagePaths(paths).forEach(path -> referenced.add(normalize(path)));
+        userRepository.findReferencedProfileImages(paths).forEach(path -> referenced.add(normalize(path)));
+        return referenced;
+    }
+
+    private static String normalize(String path) {
+        return path.startsWith("/") ? path : "/" + path;
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            return attributes.isRegularFile() && attributes.lastModifiedTime().toInstant().isBefore(cutoff);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+}
@@ -85,6 +85,9 @@ public class StartupRunner implements CommandLineRunner {
             }
 
             log.info("✅ Todos os diretórios de upload verificados/criados com sucesso!");
+
+            // Carregar manifesto de arquivos (consultado pelas listagens em vez do disco)
+            uploadDirectoryManager.initializeManifest();
         } catch (Exception e) {
             log.error("❌ Erro ao criar diretórios de upload: {}", e.getMessage(), e);
             // Não lançar exceção para não impedir a inicialização da aplicação
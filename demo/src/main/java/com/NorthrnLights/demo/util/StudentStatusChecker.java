@@ -3,6 +3,7 @@ package com.NorthrnLights.demo.util;
 import com.NorthrnLights.demo.domain.Status;
 import com.NorthrnLights.demo.domain.Student;
 import com.NorthrnLights.demo.repository.StudentRepository;
+import com.NorthrnLights.demo.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -18,6 +19,7 @@ import java.util.List;
 public class StudentStatusChecker {
 
     private final StudentRepository studentRepository;
+    private final PrincipalCache principalCache;
 
     /**
      * Deactivate students who have not logged in for more than 15 days
@@ -36,6 +38,7 @@ public class StudentStatusChecker {
         inactiveStudents.forEach(student -> {
             student.setStatus(Status.INACTIVE);
             studentRepository.save(student);
+            principalCache.invalidate(student.getEmail());
             log.info("🚫 Student deactivated: {} - Last login: {}", student.getEmail(), student.getLastLogin());
         });
 
@@ -59,6 +62,7 @@ public class StudentStatusChecker {
         reactivatingStudents.forEach(student -> {
             student.setStatus(Status.ACTIVE);
             studentRepository.save(student);
+            principalCache.invalidate(student.getEmail());
             log.info("✅ Student reactivated: {} - Last login: {}", student.getEmail(), student.getLastLogin());
         });
 
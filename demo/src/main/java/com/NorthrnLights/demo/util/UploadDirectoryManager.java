@@ -1,16 +1,27 @@
 package com.NorthrnLights.demo.util;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * Gerenciador centralizado para diretórios de upload.
  * Garante que os diretórios sejam criados corretamente e persistentes.
+ *
+ * Mantém também um manifesto em memória dos arquivos existentes (caminhos relativos ao
+ * diretório base, ex: "questions/arquivo.png"), para que listagens verifiquem a existência
+ * de imagens em O(1) sem acessar o sistema de arquivos. O manifesto é carregado na
+ * inicialização, atualizado pelos fluxos de upload e por um WatchService.
  */
 @Slf4j
 @Component
@@ -18,6 +29,13 @@ public class UploadDirectoryManager {
 
     private static String baseUploadDir = null;
     private static final String FALLBACK_DIR = "/tmp/uploads";
+    private static final String URL_PREFIX = "uploads/";
+
+    private final Set<String> manifest = ConcurrentHashMap.newKeySet();
+    private final Map<WatchKey, Path> watchedDirs = new ConcurrentHashMap<>();
+    private volatile boolean manifestReady = false;
+    private volatile WatchService watchService;
+    private Thread watcherThread;
 
     /**
      * Obtém o diretório base para uploads.
@@ -56,7 +74,7 @@ public class UploadDirectoryManager {
         }
 
         log.info("📁 Tentando configurar diretório de upload em: {}", primaryDir);
-        log.info("📁 user.dir = {}", userDir);
+        log.info("📁 user.dir = {}", System.getProperty("user.dir"));
 
         // Tentar criar e usar o diretório primário (/app/uploads)
         try {
@@ -198,5 +216,200 @@ public class UploadDirectoryManager {
     public synchronized void reset() {
         baseUploadDir = null;
     }
-}
 
+    /**
+     * Carrega o manifesto com os arquivos existentes e inicia o WatchService.
+     * Chamado uma vez na inicialização, depois de criados os subdiretórios.
+     */
+    public synchronized void initializeManifest() {
+        if (manifestReady) {
+            return;
+        }
+        Path basePath = Paths.get(getBaseUploadDir());
+        try {
+            watchService = basePath.getFileSystem().newWatchService();
+        } catch (IOException e) {
+            log.warn("⚠️ WatchService indisponível, manifesto depende apenas dos fluxos de upload: {}", e.getMessage());
+        }
+        scanDirectory(basePath);
+        manifestReady = true;
+        log.info("📁 Manifesto de uploads carregado: {} arquivos", manifest.size());
+
+        if (watchService != null) {
+            watcherThread = new Thread(this::watchLoop, "upload-manifest-watcher");
+            watcherThread.setDaemon(true);
+            watcherThread.start();
+        }
+    }
+
+    /**
+     * Verifica se o arquivo de upload existe.
+     * Com o manifesto carregado a consulta é em memória; antes disso, consulta o disco.
+     *
+     * @param urlPath Caminho como salvo no banco (ex: "/uploads/questions/file.png")
+     */
+    public boolean exists(String urlPath) {
+        String key = toManifestKey(urlPath);
+        if (key == null) {
+            return false;
+        }
+        if (manifestReady) {
+            return manifest.contains(key);
+        }
+        return Files.isRegularFile(Paths.get(getBaseUploadDir(), key));
+    }
+
+    /**
+     * Registra no manifesto um arquivo recém-gravado. Chamar nos fluxos de upload,
+     * sem esperar o evento do WatchService.
+     */
+    public void registerFile(Path file) {
+        String key = relativize(file);
+        if (key != null) {
+            manifest.add(key);
+        }
+    }
+
+    /**
+     * Remove do manifesto um arquivo apagado.
+     */
+    public void unregisterFile(Path file) {
+        String key = relativize(file);
+        if (key != null) {
+            manifest.remove(key);
+        }
+    }
+
+    public int getManifestSize() {
+        return manifest.size();
+    }
+
+    private String toManifestKey(String urlPath) {
+        if (urlPath == null || urlPath.isBlank()) {
+            return null;
+        }
+        String key = urlPath.trim().replace('\\', '/');
+        if (key.startsWith("/")) {
+            key = key.substring(1);
+        }
+        if (key.startsWith(URL_PREFIX)) {
+            key = key.substring(URL_PREFIX.length());
+        }
+        return key.isEmpty() ? null : key;
+    }
+
+    private String relativize(Path file) {
+        Path basePath = Paths.get(getBaseUploadDir()).toAbsolutePath().normalize();
+        Path absolute = file.toAbsolutePath().normalize();
+        if (!absolute.startsWith(basePath)) {
+            return null;
+        }
+        return basePath.relativize(absolute).toString().replace(File.separatorChar, '/');
+    }
+
+    private void scanDirectory(Path dir) {
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path subDir, BasicFileAttributes attrs) {
+                    registerWatch(subDir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        registerFile(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    log.warn("⚠️ Não foi possível ler {}: {}", file, exc.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.error("❌ Erro ao carregar manifesto de {}: {}", dir, e.getMessage(), e);
+        }
+    }
+
+    private void registerWatch(Path dir) {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            WatchKey key = dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            watchedDirs.put(key, dir);
+        } catch (IOException e) {
+            log.warn("⚠️ Não foi possível observar {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private void watchLoop() {
+        WatchService service = watchService;
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path dir = watchedDirs.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // Eventos perdidos: reconstruir o manifesto a partir do disco
+                    log.warn("⚠️ WatchService overflow, recarregando manifesto de uploads");
+                    rescan();
+                    continue;
+                }
+                if (dir == null) {
+                    continue;
+                }
+                Path child = dir.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    unregisterFile(child);
+                } else if (Files.isDirectory(child)) {
+                    scanDirectory(child);
+                } else if (Files.isRegularFile(child)) {
+                    registerFile(child);
+                }
+            }
+            if (!key.reset()) {
+                watchedDirs.remove(key);
+            }
+        }
+    }
+
+    private void rescan() {
+        Path basePath = Paths.get(getBaseUploadDir());
+        try (Stream<Path> files = Files.walk(basePath)) {
+            Set<String> current = ConcurrentHashMap.newKeySet();
+            files.filter(Files::isRegularFile).map(this::relativize)
+                    .filter(java.util.Objects::nonNull)
+                    .forEach(current::add);
+            manifest.retainAll(current);
+            manifest.addAll(current);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("❌ Erro ao recarregar manifesto: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stopWatcher() {
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Erro ao fechar WatchService: {}", e.getMessage());
+            }
+        }
+    }
+}
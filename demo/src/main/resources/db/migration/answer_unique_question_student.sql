@@ -0,0 +1,36 @@
+-- Script para criar a constraint uk_answer_question_student (uma resposta por aluno e questão)
+-- O ddl-auto cria a constraint sozinho, mas falha se já existirem respostas duplicadas:
+-- rode este script antes do deploy para remover as duplicatas (mantém a resposta mais antiga).
+-- As correções das respostas removidas são apagadas junto.
+
+-- ============================== MySQL ==============================
+
+DELETE c FROM correction c
+JOIN answer a ON c.answer_id = a.id
+JOIN answer keep_a ON keep_a.question_id = a.question_id
+                  AND keep_a.student_id = a.student_id
+                  AND keep_a.id < a.id;
+
+DELETE a FROM answer a
+JOIN answer keep_a ON keep_a.question_id = a.question_id
+                  AND keep_a.student_id = a.student_id
+                  AND keep_a.id < a.id;
+
+ALTER TABLE answer ADD CONSTRAINT uk_answer_question_student UNIQUE (question_id, student_id);
+
+-- ============================ PostgreSQL ============================
+
+-- DELETE FROM correction c
+-- USING answer a, answer keep_a
+-- WHERE c.answer_id = a.id
+--   AND keep_a.question_id = a.question_id
+--   AND keep_a.student_id = a.student_id
+--   AND keep_a.id < a.id;
+--
+-- DELETE FROM answer a
+-- USING answer keep_a
+-- WHERE keep_a.question_id = a.question_id
+--   AND keep_a.student_id = a.student_id
+--   AND keep_a.id < a.id;
+--
+-- ALTER TABLE answer ADD CONSTRAINT uk_answer_question_student UNIQUE (question_id, student_id);
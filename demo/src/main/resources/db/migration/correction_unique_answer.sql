@@ -0,0 +1,22 @@
+-- Script para tornar único o índice idx_correction_answer_id (uma correção por resposta)
+-- O ddl-auto não altera um índice existente e a criação falha se já existirem correções
+-- duplicadas: rode este script antes do deploy (mantém a correção mais recente da resposta).
+
+-- ============================== MySQL ==============================
+
+DELETE c FROM correction c
+JOIN correction newer_c ON newer_c.answer_id = c.answer_id
+                       AND newer_c.id > c.id;
+
+ALTER TABLE correction DROP INDEX idx_correction_answer_id;
+ALTER TABLE correction ADD UNIQUE INDEX idx_correction_answer_id (answer_id);
+
+-- ============================ PostgreSQL ============================
+
+-- DELETE FROM correction c
+-- USING correction newer_c
+-- WHERE newer_c.answer_id = c.answer_id
+--   AND newer_c.id > c.id;
+--
+-- DROP INDEX IF EXISTS idx_correction_answer_id;
+-- CREATE UNIQUE INDEX idx_correction_answer_id ON correction (answer_id);
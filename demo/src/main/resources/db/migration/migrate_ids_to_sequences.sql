@@ -0,0 +1,66 @@
+-- Script para migrar os ids de AUTO_INCREMENT/IDENTITY para sequences (allocationSize 50)
+-- O IdSequenceAligner faz o mesmo automaticamente na inicialização; use este script
+-- apenas quando o ddl-auto estiver desligado ou para migrar o banco antes do deploy.
+--
+-- Regra: o próximo valor de cada sequence deve ser MAX(id) + 51 (bloco do otimizador pooled = 50)
+-- As colunas id continuam com AUTO_INCREMENT/IDENTITY, mas o Hibernate passa a informar o id no INSERT.
+
+-- ============================== MySQL ==============================
+-- No MySQL as sequences são emuladas por tabelas com uma linha (next_val)
+
+CREATE TABLE IF NOT EXISTS user_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS question_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS question_option_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS answer_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS correction_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS exams_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS exam_grade_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS weekly_grade_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS meet_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS recorded_classes_seq (next_val BIGINT);
+
+DELETE FROM user_seq;
+INSERT INTO user_seq SELECT COALESCE(MAX(id), 0) + 51 FROM `user`;
+DELETE FROM question_seq;
+INSERT INTO question_seq SELECT COALESCE(MAX(id), 0) + 51 FROM question;
+DELETE FROM question_option_seq;
+INSERT INTO question_option_seq SELECT COALESCE(MAX(id), 0) + 51 FROM question_option;
+DELETE FROM answer_seq;
+INSERT INTO answer_seq SELECT COALESCE(MAX(id), 0) + 51 FROM answer;
+DELETE FROM correction_seq;
+INSERT INTO correction_seq SELECT COALESCE(MAX(id), 0) + 51 FROM correction;
+DELETE FROM exams_seq;
+INSERT INTO exams_seq SELECT COALESCE(MAX(id), 0) + 51 FROM exams;
+DELETE FROM exam_grade_seq;
+INSERT INTO exam_grade_seq SELECT COALESCE(MAX(id), 0) + 51 FROM exam_grade;
+DELETE FROM weekly_grade_seq;
+INSERT INTO weekly_grade_seq SELECT COALESCE(MAX(id), 0) + 51 FROM weekly_grade;
+DELETE FROM meet_seq;
+INSERT INTO meet_seq SELECT COALESCE(MAX(id), 0) + 51 FROM meet;
+DELETE FROM recorded_classes_seq;
+INSERT INTO recorded_classes_seq SELECT COALESCE(MAX(id), 0) + 51 FROM recorded_classes;
+
+-- ============================ PostgreSQL ===========================
+-- setval(..., false): o próximo nextval retorna exatamente o valor informado
+
+-- CREATE SEQUENCE IF NOT EXISTS user_seq START WITH 1 INCREMENT BY 50;
+-- CREATE SEQUENCE IF NOT EXISTS question_seq START WITH 1 INCREMENT BY 50;
+-- CREATE SEQUENCE IF NOT EXISTS question_option_seq START WITH 1 INCREMENT BY 50;
+-- CREATE SEQUENCE IF NOT EXISTS answer_seq START WITH 1 INCREMENT BY 50;
+-- CREATE SEQUENCE IF NOT EXISTS correction_seq START WITH 1 INCREMENT BY 50;
+-- CREATE SEQUENCE IF NOT EXISTS exams_seq START WITH 1 INCREMENT BY 50;
+-- CREATE SEQUENCE IF NOT EXISTS exam_grade_seq START WITH 1 INCREMENT BY 50;
+-- CREATE SEQUENCE IF NOT EXISTS weekly_grade_seq START WITH 1 INCREMENT BY 50;
+-- CREATE SEQUENCE IF NOT EXISTS meet_seq START WITH 1 INCREMENT BY 50;
+-- CREATE SEQUENCE IF NOT EXISTS recorded_classes_seq START WITH 1 INCREMENT BY 50;
+--
+-- SELECT setval('user_seq', COALESCE((SELECT MAX(id) FROM "user"), 0) + 51, false);
+-- SELECT setval('question_seq', COALESCE((SELECT MAX(id) FROM question), 0) + 51, false);
+-- SELECT setval('question_option_seq', COALESCE((SELECT MAX(id) FROM question_option), 0) + 51, false);
+-- SELECT setval('answer_seq', COALESCE((SELECT MAX(id) FROM answer), 0) + 51, false);
+-- SELECT setval('correction_seq', COALESCE((SELECT MAX(id) FROM correction), 0) + 51, false);
+-- SELECT setval('exams_seq', COALESCE((SELECT MAX(id) FROM exams), 0) + 51, false);
+-- SELECT setval('exam_grade_seq', COALESCE((SELECT MAX(id) FROM exam_grade), 0) + 51, false);
+-- SELECT setval('weekly_grade_seq', COALESCE((SELECT MAX(id) FROM weekly_grade), 0) + 51, false);
+-- SELECT setval('meet_seq', COALESCE((SELECT MAX(id) FROM meet), 0) + 51, false);
+-- SELECT setval('recorded_classes_seq', COALESCE((SELECT MAX(id) FROM recorded_classes), 0) + 51, false);
@@ -0,0 +1,182 @@
+package com.NorthrnLights.demo.benchmark;
+
+import com.NorthrnLights.demo.NorthernLightsApplication;
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.domain.QuestionType;
+import com.NorthrnLights.demo.domain.Role;
+import com.NorthrnLights.demo.domain.Student;
+import com.NorthrnLights.demo.domain.Teacher;
+import com.NorthrnLights.demo.repository.AnswerRepository;
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import com.NorthrnLights.demo.repository.StudentRepository;
+import com.NorthrnLights.demo.repository.TeacherRepository;
+import com.NorthrnLights.demo.service.AnswerService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latência de POST /answers (AnswerService.createAnswer) com 500 alunos enviando ao mesmo tempo,
+ * como no fim do prazo de uma questão: cada aluno responde ROUNDS questões em sequência, todos
+ * liberados juntos. Mede p50/p99/máximo do envio com o journal desligado (um commit por resposta,
+ * disputando o pool de 10 conexões) e ligado (confirmação após o msync agrupado do journal), e o
+ * tempo até todas as respostas estarem na tabela answer.
+ *
+ * Sobe a aplicação sem servidor web. Por padrão usa H2 em memória, onde o commit não faz fsync;
+ * para medir o cenário real apontar para um banco de verdade com
+ * -Dbench.jdbc.url=... -Dbench.jdbc.user=... -Dbench.jdbc.password=... -Dbench.jdbc.driver=...
+ * (-Dbench.journal.sync=false mede o journal sem msync).
+ *
+ * Executar: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.NorthrnLights.demo.benchmark.AnswerIngestionBenchmark
+ */
+public class AnswerIngestionBenchmark {
+
+    private static final int SUBMITTERS = 500;
+    private static final int ROUNDS = 10;
+    private static final int WARMUP_ROUNDS = 2;
+
+    public static void main(String[] args) throws Exception {
+        for (boolean journal : new boolean[]{false, true}) {
+            run(journal);
+        }
+    }
+
+    private static void run(boolean journal) throws Exception {
+        Path workDir = Files.createTempDirectory("answer-ingestion");
+        String jdbcUrl = System.getProperty("bench.jdbc.url", "jdbc:h2:mem:answer-ingestion-" + journal + ";DB_CLOSE_DELAY=-1");
+        // Argumentos de linha de comando: têm precedência sobre o application.yml
+        String[] properties = {
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + System.getProperty("bench.jdbc.user", "sa"),
+                "--spring.datasource.password=" + System.getProperty("bench.jdbc.password", ""),
+                "--spring.datasource.driver-class-name=" + System.getProperty("bench.jdbc.driver", "org.h2.Driver"),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.sql.init.mode=never",
+                "--spring.devtools.restart.enabled=false",
+                "--jpa.id-sequences.align-on-startup=false",
+                "--file.upload-dir=" + workDir.resolve("uploads"),
+                "--answers.journal.enabled=" + journal,
+                "--answers.journal.dir=" + workDir.resolve("journal"),
+                "--answers.journal.sync=" + System.getProperty("bench.journal.sync", "true"),
+                "--logging.level.root=WARN"
+        };
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(NorthernLightsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(properties)) {
+
+            List<Long> questionIds = seedQuestions(context, WARMUP_ROUNDS + ROUNDS);
+            List<Long> studentIds = seedStudents(context);
+            AnswerService answerService = context.getBean(AnswerService.class);
+            AnswerRepository answerRepository = context.getBean(AnswerRepository.class);
+
+            submitAll(answerService, studentIds, questionIds.subList(0, WARMUP_ROUNDS));
+            long expected = (long) SUBMITTERS * (WARMUP_ROUNDS + ROUNDS);
+
+            long start = System.nanoTime();
+            long[] latencies = submitAll(answerService, studentIds, questionIds.subList(WARMUP_ROUNDS, questionIds.size()));
+            long acknowledged = System.nanoTime() - start;
+            while (answerRepository.count() < expected) {
+                Thread.sleep(10);
+            }
+            long persisted = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            System.out.printf("journal=%-5s  envios=%d  p50=%.2f ms  p99=%.2f ms  max=%.2f ms  " +
+                            "confirmados em %d ms  gravados em %d ms%n",
+                    journal, latencies.length,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6,
+                    TimeUnit.NANOSECONDS.toMillis(acknowledged), TimeUnit.NANOSECONDS.toMillis(persisted));
+        }
+    }
+
+    /**
+     * Libera todos os alunos juntos; cada um responde as questões em sequência.
+     */
+    private static long[] submitAll(AnswerService answerService, List<Long> studentIds, List<Long> questionIds)
+            throws InterruptedException {
+        long[] latencies = new long[studentIds.size() * questionIds.size()];
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(studentIds.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int s = 0; s < studentIds.size(); s++) {
+            int submitter = s;
+            Thread thread = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                    for (int q = 0; q < questionIds.size(); q++) {
+                        long begin = System.nanoTime();
+                        answerService.createAnswer("Resposta " + submitter, questionIds.get(q), studentIds.get(submitter), null);
+                        latencies[submitter * questionIds.size() + q] = System.nanoTime() - begin;
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        ready.await();
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " alunos falharam ao enviar respostas");
+        }
+        return latencies;
+    }
+
+    private static List<Long> seedQuestions(ConfigurableApplicationContext context, int count) {
+        Teacher teacher = context.getBean(TeacherRepository.class).save(Teacher.builder()
+                .userName("Benchmark")
+                .email("bench-teacher@test.com")
+                .password("x")
+                .age(30)
+                .role(Role.TEACHER)
+                .build());
+        QuestionRepository questionRepository = context.getBean(QuestionRepository.class);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(questionRepository.save(Question.builder()
+                    .title("Questão " + i)
+                    .description("Benchmark")
+                    .teacher(teacher)
+                    .type(QuestionType.TEXT)
+                    .expiresAt(LocalDateTime.now().plusHours(1))
+                    .build()).getId());
+        }
+        return ids;
+    }
+
+    private static List<Long> seedStudents(ConfigurableApplicationContext context) {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < SUBMITTERS; i++) {
+            students.add(Student.builder()
+                    .userName("Aluno " + i)
+                    .email("bench-student-" + i + "@test.com")
+                    .password("x")
+                    .age(20)
+                    .role(Role.STUDENT)
+                    .build());
+        }
+        return context.getBean(StudentRepository.class).saveAll(students).stream().map(Student::getId).toList();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,222 @@
+package com.NorthrnLights.demo.benchmark;
+
+import jakarta.persistence.*;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserção em massa de 10k respostas + 10k correções (como no AutoCorrectionScheduler),
+ * com as mesmas configurações do application.yml (batch_size 50, order_inserts).
+ * "identity" reproduz o mapeamento antigo (GenerationType.IDENTITY, que desliga o batch JDBC);
+ * "pooled" usa sequence com allocationSize 50, como as entidades atuais.
+ *
+ * Por padrão roda em H2 em memória, onde o round trip é quase gratuito; para medir o ganho real
+ * apontar para um banco de verdade com -Dbench.jdbc.url=... -Dbench.jdbc.user=... -Dbench.jdbc.password=...
+ *
+ * Executar: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.NorthrnLights.demo.benchmark.BulkInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 8)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"identity", "pooled"})
+    public String idGeneration;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL,
+                        System.getProperty("bench.jdbc.url", "jdbc:h2:mem:bulk-insert;DB_CLOSE_DELAY=-1"))
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, System.getProperty("bench.jdbc.user", "sa"))
+                .applySetting(AvailableSettings.JAKARTA_JDBC_PASSWORD, System.getProperty("bench.jdbc.password", ""))
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, BATCH_SIZE)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.ORDER_UPDATES, true)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(IdentityAnswer.class)
+                .addAnnotatedClass(IdentityCorrection.class)
+                .addAnnotatedClass(PooledAnswer.class)
+                .addAnnotatedClass(PooledCorrection.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearTables() {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("delete from IdentityCorrection").executeUpdate();
+            session.createMutationQuery("delete from IdentityAnswer").executeUpdate();
+            session.createMutationQuery("delete from PooledCorrection").executeUpdate();
+            session.createMutationQuery("delete from PooledAnswer").executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int insertAnswersAndCorrections() {
+        boolean pooled = "pooled".equals(idGeneration);
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            for (int i = 0; i < ROWS; i++) {
+                String text = "Resposta do aluno " + i;
+                if (pooled) {
+                    PooledAnswer answer = new PooledAnswer(text, i % 500L, i % 40L);
+                    session.persist(answer);
+                    session.persist(new PooledCorrection(answer, "EXCELLENT", "Correção automática"));
+                } else {
+                    IdentityAnswer answer = new IdentityAnswer(text, i % 500L, i % 40L);
+                    session.persist(answer);
+                    session.persist(new IdentityCorrection(answer, "EXCELLENT", "Correção automática"));
+                }
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            transaction.commit();
+        }
+        return ROWS;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BulkInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    // Mesmas colunas de Answer/Correction; só o mapeamento do id muda
+
+    @MappedSuperclass
+    public abstract static class AnswerColumns {
+        @Column(columnDefinition = "TEXT")
+        String text;
+        Long questionId;
+        Long studentId;
+        LocalDateTime createdAt;
+
+        AnswerColumns() {
+        }
+
+        AnswerColumns(String text, Long questionId, Long studentId) {
+            this.text = text;
+            this.questionId = questionId;
+            this.studentId = studentId;
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+
+    @MappedSuperclass
+    public abstract static class CorrectionColumns {
+        String grade;
+        @Column(columnDefinition = "TEXT")
+        String feedback;
+
+        CorrectionColumns() {
+        }
+
+        CorrectionColumns(String grade, String feedback) {
+            this.grade = grade;
+            this.feedback = feedback;
+        }
+    }
+
+    @Entity(name = "IdentityAnswer")
+    @Table(name = "bench_identity_answer")
+    public static class IdentityAnswer extends AnswerColumns {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        IdentityAnswer() {
+        }
+
+        IdentityAnswer(String text, Long questionId, Long studentId) {
+            super(text, questionId, studentId);
+        }
+    }
+
+    @Entity(name = "IdentityCorrection")
+    @Table(name = "bench_identity_correction")
+    public static class IdentityCorrection extends CorrectionColumns {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        @ManyToOne
+        IdentityAnswer answer;
+
+        IdentityCorrection() {
+        }
+
+        IdentityCorrection(IdentityAnswer answer, String grade, String feedback) {
+            super(grade, feedback);
+            this.answer = answer;
+        }
+    }
+
+    @Entity(name = "PooledAnswer")
+    @Table(name = "bench_pooled_answer")
+    public static class PooledAnswer extends AnswerColumns {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_answer_seq")
+        @SequenceGenerator(name = "bench_answer_seq", sequenceName = "bench_answer_seq", allocationSize = 50)
+        Long id;
+
+        PooledAnswer() {
+        }
+
+        PooledAnswer(String text, Long questionId, Long studentId) {
+            super(text, questionId, studentId);
+        }
+    }
+
+    @Entity(name = "PooledCorrection")
+    @Table(name = "bench_pooled_correction")
+    public static class PooledCorrection extends CorrectionColumns {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_correction_seq")
+        @SequenceGenerator(name = "bench_correction_seq", sequenceName = "bench_correction_seq", allocationSize = 50)
+        Long id;
+
+        @ManyToOne
+        PooledAnswer answer;
+
+        PooledCorrection() {
+        }
+
+        PooledCorrection(PooledAnswer answer, String grade, String feedback) {
+            super(grade, feedback);
+            this.answer = answer;
+        }
+    }
+}
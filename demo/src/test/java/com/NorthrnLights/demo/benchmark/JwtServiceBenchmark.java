@@ -0,0 +1,92 @@
+package com.NorthrnLights.demo.benchmark;
+
+import com.NorthrnLights.demo.domain.Role;
+import com.NorthrnLights.demo.domain.Student;
+import com.NorthrnLights.demo.util.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de CPU da autenticação JWT por requisição.
+ * "legacy" reproduz o fluxo antigo do JwtFilter (extractUsername + 2x validateToken,
+ * recriando a chave HMAC e o parser a cada chamada); "singleParse" usa JwtService.parseClaims.
+ *
+ * Executar: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.NorthrnLights.demo.benchmark.JwtServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "MinhaChaveSuperSecreta1234567890123456";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400000L);
+        jwtService.init();
+
+        Student student = Student.builder()
+                .email("student@school.com")
+                .role(Role.STUDENT)
+                .build();
+        token = jwtService.generateToken(student);
+    }
+
+    @Benchmark
+    public String legacy() {
+        String email = legacyExtractUsername(token);
+        if (!legacyValidateToken(token)) {
+            return null;
+        }
+        return legacyValidateToken(token) ? email : null;
+    }
+
+    @Benchmark
+    public String singleParse() {
+        Claims claims = jwtService.parseClaims(token);
+        return claims.getSubject();
+    }
+
+    private static String legacyExtractUsername(String token) {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    private static boolean legacyValidateToken(String token) {
+        try {
+            Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
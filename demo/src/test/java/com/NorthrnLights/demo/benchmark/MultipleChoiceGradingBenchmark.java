@@ -0,0 +1,132 @@
+package com.NorthrnLights.demo.benchmark;
+
+import com.NorthrnLights.demo.domain.QuestionOption;
+import com.NorthrnLights.demo.grading.AnswerKey;
+import com.NorthrnLights.demo.grading.MultipleChoiceGrader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Correção de 1 milhão de respostas sintéticas de múltipla escolha (1000 questões de 5
+ * opções; respostas "A) texto", "B", "A, C" e texto da opção).
+ * "legacy" reproduz o AutoCorrectionScheduler.checkMultipleChoiceAnswer antigo (varre as
+ * opções e roda String.matches a cada resposta); os demais usam o gabarito compilado uma
+ * vez por questão (AnswerKey) com cada estratégia do MultipleChoiceGrader.
+ *
+ * Executar: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.NorthrnLights.demo.benchmark.MultipleChoiceGradingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MultipleChoiceGradingBenchmark {
+
+    private static final int ANSWERS = 1_000_000;
+    private static final int QUESTIONS = 1_000;
+    private static final int OPTIONS = 5;
+
+    @Param({"legacy", "single-choice", "partial-credit", "negative-marking"})
+    public String grading;
+
+    private List<List<QuestionOption>> questionOptions;
+    private AnswerKey[] keys;
+    private int[] questionOf;
+    private String[] answers;
+    private MultipleChoiceGrader grader;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        questionOptions = new ArrayList<>(QUESTIONS);
+        keys = new AnswerKey[QUESTIONS];
+        for (int q = 0; q < QUESTIONS; q++) {
+            int correct = random.nextInt(OPTIONS);
+            int secondCorrect = random.nextInt(4) == 0 ? (correct + 2) % OPTIONS : -1;
+            List<QuestionOption> options = new ArrayList<>(OPTIONS);
+            for (int o = 0; o < OPTIONS; o++) {
+                options.add(QuestionOption.builder()
+                        .text("Opção " + o + " da questão " + q)
+                        .correct(o == correct || o == secondCorrect)
+                        .build());
+            }
+            questionOptions.add(options);
+            keys[q] = AnswerKey.compile(options);
+        }
+
+        questionOf = new int[ANSWERS];
+        answers = new String[ANSWERS];
+        for (int i = 0; i < ANSWERS; i++) {
+            int q = random.nextInt(QUESTIONS);
+            int o = random.nextInt(OPTIONS);
+            char letter = (char) ('A' + o);
+            questionOf[i] = q;
+            answers[i] = switch (random.nextInt(4)) {
+                case 0 -> letter + ") " + questionOptions.get(q).get(o).getText();
+                case 1 -> String.valueOf(letter);
+                case 2 -> letter + ", " + (char) ('A' + (o + 2) % OPTIONS);
+                default -> questionOptions.get(q).get(o).getText().toUpperCase();
+            };
+        }
+
+        grader = grading.equals("legacy") ? null : new MultipleChoiceGrader(grading, 0.25);
+    }
+
+    @Benchmark
+    public double gradeAll() {
+        double total = 0;
+        if (grader == null) {
+            for (int i = 0; i < ANSWERS; i++) {
+                total += legacyCheck(answers[i], questionOptions.get(questionOf[i])) ? 1.0 : 0.0;
+            }
+        } else {
+            for (int i = 0; i < ANSWERS; i++) {
+                total += grader.score(keys[questionOf[i]], answers[i]);
+            }
+        }
+        return total;
+    }
+
+    // Lógica do checkMultipleChoiceAnswer original, sem os logs
+    private static boolean legacyCheck(String text, List<QuestionOption> options) {
+        String answerText = text != null ? text.trim() : "";
+        QuestionOption correctOption = null;
+        int correctIndex = -1;
+        for (int i = 0; i < options.size(); i++) {
+            if (options.get(i).isCorrect()) {
+                correctOption = options.get(i);
+                correctIndex = i;
+                break;
+            }
+        }
+        if (correctOption == null) {
+            return false;
+        }
+        String cleanAnswerText = answerText.trim();
+        if (cleanAnswerText.matches("^[A-Z]\\)\\s*.*") || cleanAnswerText.matches("^[A-Z]$")) {
+            int answerIndex = cleanAnswerText.toUpperCase().charAt(0) - 'A';
+            if (answerIndex < 0 || answerIndex >= options.size()) {
+                return false;
+            }
+            return answerIndex == correctIndex || options.get(answerIndex).isCorrect();
+        }
+        return correctOption.getText().trim().equalsIgnoreCase(cleanAnswerText);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MultipleChoiceGradingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.NorthrnLights.demo.grading;
+
+import com.NorthrnLights.demo.domain.Grade;
+import com.NorthrnLights.demo.domain.QuestionOption;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Gabarito compilado e estratégias: formatos aceitos pelo parser, tudo ou nada como na
+ * correção original, crédito parcial e desconto por erro.
+ */
+class MultipleChoiceGraderTest {
+
+    // A) Paris (correta)  B) Londres  C) Roma (correta)  D) Berlim
+    private final AnswerKey key = AnswerKey.compile(List.of(
+            option(" Paris ", true), option("Londres", false), option("Roma", true), option("Berlim", false)));
+
+    @Test
+    void parsesLettersListsAndOptionTexts() {
+        assertThat(key.select("A) Paris")).isEqualTo(0b0001);
+        assertThat(key.select("  B ")).isEqualTo(0b0010);
+        assertThat(key.select("A, C")).isEqualTo(0b0101);
+        assertThat(key.select("C;A")).isEqualTo(0b0101);
+        assertThat(key.select("roma")).isEqualTo(0b0100);
+        assertThat(key.select("E")).isZero();
+        assertThat(key.select("E) Madri")).isZero();
+        assertThat(key.select("A, F")).isZero();
+        assertThat(key.select("Madri")).isZero();
+        assertThat(key.select("a) Paris")).isZero();
+        assertThat(key.select("   ")).isZero();
+        assertThat(key.select(null)).isZero();
+    }
+
+    @Test
+    void singleChoiceKeepsTheOriginalAllOrNothingGrades() {
+        MultipleChoiceGrader grader = new MultipleChoiceGrader(new SingleChoiceScoring());
+
+        assertThat(grader.gradeFor(grader.score(key, "A) Paris"))).isEqualTo(Grade.A);
+        assertThat(grader.gradeFor(grader.score(key, "C"))).isEqualTo(Grade.A);
+        assertThat(grader.gradeFor(grader.score(key, "PARIS"))).isEqualTo(Grade.A);
+        assertThat(grader.gradeFor(grader.score(key, "B) Londres"))).isEqualTo(Grade.F);
+        assertThat(grader.gradeFor(grader.score(key, "A, C"))).isEqualTo(Grade.F);
+        assertThat(grader.feedbackFor(grader.score(key, "A"))).isEqualTo("Resposta correta! Parabéns!");
+        assertThat(grader.feedbackFor(grader.score(key, "B"))).isEqualTo("Resposta incorreta. Revise o conteúdo.");
+    }
+
+    @Test
+    void partialCreditRewardsEachCorrectOptionAndDiscountsWrongOnes() {
+        MultipleChoiceGrader grader = new MultipleChoiceGrader(new PartialCreditScoring());
+
+        assertThat(grader.score(key, "A, C")).isEqualTo(1.0);
+        assertThat(grader.score(key, "A")).isEqualTo(0.5);
+        assertThat(grader.score(key, "A, C, B")).isEqualTo(0.5);
+        assertThat(grader.score(key, "B, D")).isZero();
+        assertThat(grader.gradeFor(0.5)).isEqualTo(Grade.C);
+        assertThat(grader.gradeFor(0.99)).isEqualTo(Grade.A_MINUS);
+
+        // Questão de resposta única: várias opções marcadas não rendem nota parcial
+        AnswerKey single = AnswerKey.compile(List.of(option("Paris", true), option("Londres", false),
+                option("Roma", false), option("Berlim", false)));
+        assertThat(grader.score(single, "A, B")).isZero();
+        assertThat(grader.score(single, "A")).isEqualTo(1.0);
+    }
+
+    @Test
+    void negativeMarkingPenalizesWrongAnswersButNotBlankOnes() {
+        MultipleChoiceGrader grader = new MultipleChoiceGrader("negative-marking", 0.25);
+
+        assertThat(grader.score(key, "C")).isEqualTo(1.0);
+        assertThat(grader.score(key, "D")).isEqualTo(-0.25);
+        assertThat(grader.score(key, "")).isZero();
+        assertThat(grader.gradeFor(-0.25)).isEqualTo(Grade.F);
+        assertThat(grader.feedbackFor(-0.25)).isEqualTo("Resposta incorreta (-0.25). Revise o conteúdo.");
+        assertThatThrownBy(() -> new MultipleChoiceGrader("unknown", 0.25))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static QuestionOption option(String text, boolean correct) {
+        return QuestionOption.builder().text(text).correct(correct).build();
+    }
+}
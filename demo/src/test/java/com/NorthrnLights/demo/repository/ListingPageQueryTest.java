@@ -0,0 +1,173 @@
+package com.NorthrnLights.demo.repository;
+
+import com.NorthrnLights.demo.domain.Answer;
+import com.NorthrnLights.demo.domain.Correction;
+import com.NorthrnLights.demo.domain.Grade;
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.domain.QuestionType;
+import com.NorthrnLights.demo.domain.RecordedClass;
+import com.NorthrnLights.demo.domain.Role;
+import com.NorthrnLights.demo.domain.Student;
+import com.NorthrnLights.demo.domain.Teacher;
+import com.NorthrnLights.demo.dto.CursorPage;
+import com.NorthrnLights.demo.dto.RecordedClassSummary;
+import com.NorthrnLights.demo.dto.StudentActivityItem;
+import com.NorthrnLights.demo.util.CursorPaging;
+import com.NorthrnLights.demo.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listagens por cursor: percorrer as páginas devolve cada linha uma única vez, na ordem da
+ * listagem, com uma consulta por página (relacionamentos achatados na mesma consulta).
+ */
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ListingPageQueryTest {
+
+    @Autowired
+    private RecordedClassRepository recordedClassRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private CorrectionRepository correctionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void walkingRecordedClassPagesReturnsEachRowOnceInClassDateOrder() {
+        Teacher teacher = persistTeacher();
+        // Várias aulas no mesmo dia: o desempate por id não pode pular nem repetir linhas
+        for (int i = 0; i < 7; i++) {
+            recordedClassRepository.save(RecordedClass.builder()
+                    .title("Aula " + i)
+                    .videoUrl("https://video/" + i)
+                    .classDate(LocalDate.of(2026, 3, 1 + i % 3))
+                    .teacher(teacher)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<RecordedClassSummary> walked = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            KeysetCursor after = CursorPaging.afterTimestamp(cursor);
+            List<RecordedClassSummary> rows = recordedClassRepository.findSummaries(
+                    after == null ? null : after.timestamp().toLocalDate(),
+                    after == null ? null : after.id(),
+                    CursorPaging.limit(3));
+            CursorPage<RecordedClassSummary> page = CursorPaging.page(rows, 3,
+                    summary -> new KeysetCursor(summary.classDate().atStartOfDay(), summary.id()));
+            walked.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages);
+        assertThat(walked).hasSize(7);
+        assertThat(walked).extracting(RecordedClassSummary::id).doesNotHaveDuplicates();
+        assertThat(walked).extracting(RecordedClassSummary::classDate)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(walked).extracting(RecordedClassSummary::teacherName).containsOnly("Teacher");
+    }
+
+    @Test
+    void studentActivityPagesCarryQuestionTitleAndCorrection() {
+        Teacher teacher = persistTeacher();
+        Student student = studentRepository.save(Student.builder()
+                .userName("Student")
+                .email("student@test.com")
+                .password("x")
+                .age(20)
+                .role(Role.STUDENT)
+                .build());
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 10, 0);
+        List<Answer> answers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Question question = questionRepository.save(Question.builder()
+                    .title("Questão " + i)
+                    .description("description")
+                    .teacher(teacher)
+                    .type(QuestionType.TEXT)
+                    .build());
+            answers.add(answerRepository.save(Answer.builder()
+                    .text("Resposta " + i)
+                    .question(question)
+                    .student(student)
+                    .createdAt(base.plusMinutes(i))
+                    .build()));
+        }
+        // Correção revisada na resposta mais recente (uma correção por resposta); a resposta 3
+        // fica sem correção
+        Correction revised = correctionRepository.save(Correction.builder().answer(answers.get(4)).teacher(teacher)
+                .grade(Grade.C).feedback("primeira").build());
+        revised.setGrade(Grade.A);
+        revised.setFeedback("revisada");
+        for (int i = 0; i < 3; i++) {
+            correctionRepository.save(Correction.builder().answer(answers.get(i)).teacher(teacher)
+                    .grade(Grade.B).feedback("ok " + i).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<StudentActivityItem> firstPage = answerRepository.findActivityByStudentId(
+                student.getId(), null, null, CursorPaging.limit(2));
+        CursorPage<StudentActivityItem> page = CursorPaging.page(firstPage, 2,
+                item -> new KeysetCursor(item.createdAt(), item.answerId()));
+        KeysetCursor after = CursorPaging.afterTimestamp(page.nextCursor());
+        List<StudentActivityItem> rest = answerRepository.findActivityByStudentId(
+                student.getId(), after.timestamp(), after.id(), CursorPaging.limit(10));
+
+        assertThat(page.items()).extracting(StudentActivityItem::questionTitle)
+                .containsExactly("Questão 4", "Questão 3");
+        assertThat(page.items().get(0).grade()).isEqualTo(Grade.A);
+        assertThat(page.items().get(0).feedback()).isEqualTo("revisada");
+        assertThat(page.items().get(1).correctionId()).isNull();
+        assertThat(rest).extracting(StudentActivityItem::answerId)
+                .containsExactly(answers.get(2).getId(), answers.get(1).getId(), answers.get(0).getId());
+    }
+
+    private Teacher persistTeacher() {
+        return teacherRepository.save(Teacher.builder()
+                .userName("Teacher")
+                .email("teacher@test.com")
+                .password("x")
+                .age(30)
+                .role(Role.TEACHER)
+                .build());
+    }
+}
@@ -0,0 +1,122 @@
+package com.NorthrnLights.demo.service;
+
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.domain.QuestionType;
+import com.NorthrnLights.demo.domain.Role;
+import com.NorthrnLights.demo.domain.Student;
+import com.NorthrnLights.demo.domain.Teacher;
+import com.NorthrnLights.demo.repository.AnswerRepository;
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import com.NorthrnLights.demo.repository.StudentRepository;
+import com.NorthrnLights.demo.repository.TeacherRepository;
+import com.NorthrnLights.demo.util.ContentAddressedUploadStore;
+import com.NorthrnLights.demo.util.UploadDirectoryManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Modo journal: uma resposta repetida é rejeitada como sem o journal, tanto enquanto a
+ * anterior está no journal quanto depois de ela ser gravada no banco.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AnswerService.class, AnswerJournalService.class, QuestionExpiryCache.class, CounterService.class,
+        UploadDirectoryManager.class, ContentAddressedUploadStore.class})
+class AnswerJournalServiceTest {
+
+    @Autowired
+    private AnswerService answerService;
+
+    @Autowired
+    private AnswerJournalService answerJournalService;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @MockitoBean
+    private ImageDerivativeService imageDerivativeService;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("answer-journal-test").toString();
+        registry.add("answers.journal.enabled", () -> "true");
+        registry.add("answers.journal.dir", () -> directory);
+        registry.add("answers.journal.segment-size-mb", () -> "1");
+    }
+
+    @AfterEach
+    void cleanup() {
+        answerRepository.deleteAllInBatch();
+        questionRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+        teacherRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void answerResubmittedAfterCommitIsRejected() throws Exception {
+        Teacher teacher = teacherRepository.save(Teacher.builder()
+                .userName("Teacher")
+                .email("teacher@test.com")
+                .password("x")
+                .age(30)
+                .role(Role.TEACHER)
+                .build());
+        Question question = questionRepository.save(Question.builder()
+                .title("Question")
+                .description("description")
+                .teacher(teacher)
+                .type(QuestionType.TEXT)
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build());
+        Student student = studentRepository.save(Student.builder()
+                .userName("Student")
+                .email("student@test.com")
+                .password("x")
+                .age(20)
+                .role(Role.STUDENT)
+                .build());
+
+        answerService.createAnswer("first", question.getId(), student.getId(), null);
+        // Ainda no journal
+        assertThatThrownBy(() -> answerService.createAnswer("second", question.getId(), student.getId(), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Student has already answered this question");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (answerJournalService.stats().get("committed").equals(0L) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(answerRepository.count()).isEqualTo(1);
+
+        // Já gravada no banco
+        assertThatThrownBy(() -> answerService.createAnswer("third", question.getId(), student.getId(), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Student has already answered this question");
+        assertThat(answerJournalService.stats().get("accepted")).isEqualTo(1L);
+        assertThat(answerRepository.findAll()).extracting("text").containsExactly("first");
+    }
+}
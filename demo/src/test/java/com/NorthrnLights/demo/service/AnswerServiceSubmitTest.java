@@ -0,0 +1,142 @@
+package com.NorthrnLights.demo.service;
+
+import com.NorthrnLights.demo.domain.Answer;
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.domain.QuestionType;
+import com.NorthrnLights.demo.domain.Role;
+import com.NorthrnLights.demo.domain.Student;
+import com.NorthrnLights.demo.domain.Teacher;
+import com.NorthrnLights.demo.repository.AnswerRepository;
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import com.NorthrnLights.demo.repository.StudentRepository;
+import com.NorthrnLights.demo.repository.TeacherRepository;
+import com.NorthrnLights.demo.util.ContentAddressedUploadStore;
+import com.NorthrnLights.demo.util.UploadDirectoryManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Envio de resposta: um INSERT (a constraint uk_answer_question_student substitui o SELECT
+ * de verificação), a leitura da expiração da questão, que fica em cache, e uma consulta de
+ * colunas para devolver a resposta com os mesmos campos de aluno e questão de antes.
+ * Sem transação de teste, para que a violação da constraint aconteça como em produção.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AnswerService.class, QuestionExpiryCache.class, CounterService.class, UploadDirectoryManager.class,
+        ContentAddressedUploadStore.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AnswerServiceSubmitTest {
+
+    @Autowired
+    private AnswerService answerService;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ImageDerivativeService imageDerivativeService;
+
+    @MockitoBean
+    private AnswerJournalService answerJournalService;
+
+    private Statistics statistics;
+    private Question question;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Teacher teacher = teacherRepository.save(Teacher.builder()
+                .userName("Teacher")
+                .email("teacher@test.com")
+                .password("x")
+                .age(30)
+                .role(Role.TEACHER)
+                .build());
+        question = questionRepository.save(Question.builder()
+                .title("Question")
+                .description("description")
+                .teacher(teacher)
+                .type(QuestionType.TEXT)
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build());
+    }
+
+    @AfterEach
+    void cleanup() {
+        answerRepository.deleteAllInBatch();
+        questionRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+        teacherRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void secondAnswerFromSameStudentIsRejectedByConstraint() throws Exception {
+        Student student = persistStudent("student@test.com");
+
+        answerService.createAnswer("first", question.getId(), student.getId(), null);
+
+        assertThatThrownBy(() -> answerService.createAnswer("second", question.getId(), student.getId(), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Student has already answered this question");
+        assertThat(answerRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void submittingWithCachedExpiryIssuesTheInsertAndOneResponseRead() throws Exception {
+        Student first = persistStudent("first@test.com");
+        Student second = persistStudent("second@test.com");
+        // Carrega a expiração no cache e reserva o bloco da sequence
+        answerService.createAnswer("warm up", question.getId(), first.getId(), null);
+
+        statistics.clear();
+        Answer answer = answerService.createAnswer("answer", question.getId(), second.getId(), null);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(answer.getQuestion().getTitle()).isEqualTo("Question");
+        assertThat(answer.getQuestion().getDescription()).isEqualTo("description");
+        assertThat(answer.getQuestion().getType()).isEqualTo(QuestionType.TEXT);
+        assertThat(answer.getStudent().getId()).isEqualTo(second.getId());
+        assertThat(answer.getStudent().getEmail()).isEqualTo("second@test.com");
+        assertThat(answer.getStudent().getUserName()).isEqualTo("Student");
+        assertThat(answer.getStudent().getAge()).isEqualTo(20);
+    }
+
+    private Student persistStudent(String email) {
+        return studentRepository.save(Student.builder()
+                .userName("Student")
+                .email(email)
+                .password("x")
+                .age(20)
+                .role(Role.STUDENT)
+                .build());
+    }
+}
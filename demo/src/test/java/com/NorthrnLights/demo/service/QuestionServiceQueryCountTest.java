@@ -0,0 +1,124 @@
+package com.NorthrnLights.demo.service;
+
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.domain.QuestionOption;
+import com.NorthrnLights.demo.domain.QuestionType;
+import com.NorthrnLights.demo.domain.Role;
+import com.NorthrnLights.demo.domain.Teacher;
+import com.NorthrnLights.demo.util.AutoCorrectionDeadlineScheduler;
+import com.NorthrnLights.demo.util.ContentAddressedUploadStore;
+import com.NorthrnLights.demo.util.UploadDirectoryManager;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regressão do N+1 de opções em filterQuestions: o número de statements de uma busca
+ * filtrada não pode crescer com o número de questões retornadas.
+ */
+@DataJpaTest
+@Import({QuestionService.class, QuestionSearchIndex.class, CounterService.class, UploadDirectoryManager.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class QuestionServiceQueryCountTest {
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private QuestionCatalogueSnapshot catalogueSnapshot;
+
+    @MockitoBean
+    private QuestionBatchReader questionBatchReader;
+
+    @MockitoBean
+    private ImageDerivativeService imageDerivativeService;
+
+    @MockitoBean
+    private QuestionExpiryCache questionExpiryCache;
+
+    @MockitoBean
+    private ContentAddressedUploadStore uploadStore;
+
+    @MockitoBean
+    private AutoCorrectionDeadlineScheduler autoCorrectionDeadlines;
+
+    private Statistics statistics;
+    private Teacher teacher;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        teacher = Teacher.builder()
+                .userName("Teacher")
+                .email("teacher@test.com")
+                .password("x")
+                .age(30)
+                .role(Role.TEACHER)
+                .build();
+        entityManager.persist(teacher);
+    }
+
+    @Test
+    void filteredSearchStatementCountDoesNotDependOnResultSize() {
+        persistQuestions("small", 2);
+        persistQuestions("large", 40);
+
+        long small = countStatements("small", 2);
+        long large = countStatements("large", 40);
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long countStatements(String title, int expectedSize) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Question> questions = questionService.filterQuestions(title, null, null, null);
+        // Acessar o que a serialização JSON acessaria
+        for (Question question : questions) {
+            assertThat(question.getOptions()).hasSize(3);
+            assertThat(question.getTeacher().getUserName()).isEqualTo("Teacher");
+        }
+
+        assertThat(questions).hasSize(expectedSize);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void persistQuestions(String title, int count) {
+        for (int i = 0; i < count; i++) {
+            Question question = Question.builder()
+                    .title(title + " " + i)
+                    .description("description")
+                    .teacher(teacher)
+                    .multipleChoice(true)
+                    .type(QuestionType.values()[0])
+                    .build();
+            List<QuestionOption> options = new ArrayList<>();
+            for (int o = 0; o < 3; o++) {
+                options.add(QuestionOption.builder().text("option " + o).correct(o == 0).question(question).build());
+            }
+            question.setOptions(options);
+            entityManager.persist(question);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.NorthrnLights.demo.util;
+
+import com.NorthrnLights.demo.util.AnswerJournal.Appended;
+import com.NorthrnLights.demo.util.AnswerJournal.Entry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recuperação do journal: o que não passou do checkpoint volta na reabertura, e um registro
+ * gravado pela metade é descartado sem afetar os anteriores.
+ */
+class AnswerJournalTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void uncommittedEntriesAreRecoveredAfterReopen() throws IOException, InterruptedException {
+        try (AnswerJournal journal = AnswerJournal.open(directory, SEGMENT_BYTES)) {
+            Appended first = journal.append(entry(1, "primeira"));
+            journal.append(entry(2, null));
+            journal.append(entry(3, "terceira ção"));
+            journal.awaitDurable(first.endPosition());
+
+            List<Appended> batch = journal.poll(1, 0, TimeUnit.MILLISECONDS);
+            journal.checkpoint(batch.get(0).endPosition());
+        }
+
+        try (AnswerJournal journal = AnswerJournal.open(directory, SEGMENT_BYTES)) {
+            assertThat(journal.recovered()).extracting(appended -> appended.entry().studentId())
+                    .containsExactly(2L, 3L);
+            assertThat(journal.recovered().get(0).entry().text()).isNull();
+            assertThat(journal.recovered().get(1).entry()).isEqualTo(entry(3, "terceira ção"));
+            assertThat(journal.pendingCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void committedSegmentsAreDeletedAcrossRotation() throws IOException, InterruptedException {
+        try (AnswerJournal journal = AnswerJournal.open(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < 100; i++) {
+                journal.append(entry(i, "x".repeat(100)));
+            }
+            List<Appended> batch = journal.poll(100, 0, TimeUnit.MILLISECONDS);
+            journal.checkpoint(batch.get(batch.size() - 1).endPosition());
+            assertThat(segmentFiles()).hasSize(1);
+
+            journal.append(entry(100, "depois do checkpoint"));
+        }
+
+        try (AnswerJournal journal = AnswerJournal.open(directory, SEGMENT_BYTES)) {
+            assertThat(journal.recovered()).extracting(appended -> appended.entry().studentId())
+                    .containsExactly(100L);
+        }
+    }
+
+    @Test
+    void tornRecordIsDiscardedOnRecovery() throws IOException {
+        long tornOffset;
+        try (AnswerJournal journal = AnswerJournal.open(directory, SEGMENT_BYTES)) {
+            tornOffset = journal.append(entry(1, "completa")).endPosition();
+        }
+        // Simula queda no meio da gravação: tamanho gravado, payload e crc não
+        try (FileChannel channel = FileChannel.open(segmentFiles().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 64), tornOffset);
+        }
+
+        try (AnswerJournal journal = AnswerJournal.open(directory, SEGMENT_BYTES)) {
+            assertThat(journal.recovered()).extracting(appended -> appended.entry().studentId())
+                    .containsExactly(1L);
+            journal.append(entry(2, "nova"));
+        }
+        try (AnswerJournal journal = AnswerJournal.open(directory, SEGMENT_BYTES)) {
+            assertThat(journal.recovered()).extracting(appended -> appended.entry().studentId())
+                    .containsExactly(1L, 2L);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    private static Entry entry(long studentId, String text) {
+        return new Entry(10L, studentId, LocalDateTime.of(2026, 3, 1, 10, 30, 15, 123_000_000), text, null);
+    }
+}
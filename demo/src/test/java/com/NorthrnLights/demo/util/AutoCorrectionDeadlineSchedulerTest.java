@@ -0,0 +1,105 @@
+package com.NorthrnLights.demo.util;
+
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Prazos da correção automática: a correção dispara no expiresAt só para as questões que
+ * expiraram; prazos removidos ou de questões que não são de múltipla escolha não disparam.
+ */
+class AutoCorrectionDeadlineSchedulerTest {
+
+    private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+    private final AutoCorrectionScheduler autoCorrectionScheduler = mock(AutoCorrectionScheduler.class);
+    private AutoCorrectionDeadlineScheduler deadlines;
+
+    @BeforeEach
+    void setup() {
+        taskScheduler.initialize();
+        deadlines = new AutoCorrectionDeadlineScheduler(mock(QuestionRepository.class), autoCorrectionScheduler,
+                taskScheduler, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    void firesOnlyForQuestionsThatJustExpired() {
+        LocalDateTime soon = LocalDateTime.now().plusNanos(300_000_000);
+        Question expiring = question(1L, true, soon);
+        Question cancelled = question(2L, true, soon);
+        Question textQuestion = question(3L, false, soon);
+        Question later = question(4L, true, LocalDateTime.now().plusHours(1));
+
+        deadlines.schedule(List.of(expiring, cancelled, textQuestion, later));
+        deadlines.cancel(2L);
+
+        verify(autoCorrectionScheduler, timeout(5000)).correctExpiredQuestions(eq(Set.of(1L)), any());
+        verify(autoCorrectionScheduler, after(500).never()).correctExpiredQuestions(eq(Set.of(2L)), any());
+        verify(autoCorrectionScheduler, never()).correctExpiredQuestions(eq(Set.of(3L)), any());
+        verify(autoCorrectionScheduler, never()).correctExpiredQuestions(eq(Set.of(4L)), any());
+        assertThat(deadlines.stats()).containsEntry("pendingDeadlines", 1).containsEntry("fired", 1L);
+    }
+
+    @Test
+    void rescheduledExpiryReplacesThePreviousDeadline() {
+        Question question = question(1L, true, LocalDateTime.now().plusHours(1));
+        deadlines.schedule(List.of(question));
+
+        question.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        deadlines.schedule(List.of(question));
+
+        verify(autoCorrectionScheduler, timeout(5000)).correctExpiredQuestions(eq(Set.of(1L)), any());
+        verify(autoCorrectionScheduler, after(300).times(1)).correctExpiredQuestions(anyCollection(), any());
+        assertThat(deadlines.stats()).containsEntry("pendingDeadlines", 0);
+    }
+
+    @Test
+    void earlyFiringRearmsTheTimerAndDeadlineAtNowFires() {
+        TaskScheduler manualScheduler = mock(TaskScheduler.class);
+        AutoCorrectionDeadlineScheduler manual = new AutoCorrectionDeadlineScheduler(mock(QuestionRepository.class),
+                autoCorrectionScheduler, manualScheduler, 0);
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+        manual.schedule(List.of(question(1L, true, expiresAt)));
+
+        // Relógio ajustado para trás: o timer dispara antes do prazo
+        manual.fireDue(expiresAt.minusSeconds(30));
+        verify(manualScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+        verify(autoCorrectionScheduler, never()).correctExpiredQuestions(anyCollection(), any());
+
+        // Disparo exatamente no prazo
+        manual.fireDue(expiresAt);
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(autoCorrectionScheduler).correctExpiredQuestions(eq(Set.of(1L)), cutoff.capture());
+        assertThat(cutoff.getValue()).isAfter(expiresAt);
+        assertThat(manual.stats()).containsEntry("pendingDeadlines", 0);
+    }
+
+    private static Question question(Long id, boolean multipleChoice, LocalDateTime expiresAt) {
+        return Question.builder().id(id).multipleChoice(multipleChoice).expiresAt(expiresAt).build();
+    }
+}
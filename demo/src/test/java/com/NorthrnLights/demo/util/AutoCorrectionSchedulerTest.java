@@ -0,0 +1,163 @@
+package com.NorthrnLights.demo.util;
+
+import com.NorthrnLights.demo.domain.Answer;
+import com.NorthrnLights.demo.domain.Correction;
+import com.NorthrnLights.demo.domain.Grade;
+import com.NorthrnLights.demo.domain.Question;
+import com.NorthrnLights.demo.domain.QuestionOption;
+import com.NorthrnLights.demo.domain.QuestionType;
+import com.NorthrnLights.demo.domain.Role;
+import com.NorthrnLights.demo.domain.Student;
+import com.NorthrnLights.demo.domain.Teacher;
+import com.NorthrnLights.demo.grading.MultipleChoiceGrader;
+import com.NorthrnLights.demo.repository.AnswerRepository;
+import com.NorthrnLights.demo.repository.CorrectionRepository;
+import com.NorthrnLights.demo.repository.QuestionRepository;
+import com.NorthrnLights.demo.repository.StudentRepository;
+import com.NorthrnLights.demo.repository.TeacherRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Correção automática: só respostas sem correção de questões expiradas são corrigidas (em
+ * lotes) e a questão recebe a marca d'água depois do período de acomodação.
+ */
+@DataJpaTest
+@Import({AutoCorrectionScheduler.class, MultipleChoiceGrader.class})
+@TestPropertySource(properties = {"corrections.auto.chunk-size=2", "corrections.auto.settle-minutes=5"})
+class AutoCorrectionSchedulerTest {
+
+    @Autowired
+    private AutoCorrectionScheduler scheduler;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private CorrectionRepository correctionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void correctsOnlyPendingAnswersAndWatermarksSettledQuestions() {
+        Teacher teacher = teacherRepository.save(Teacher.builder()
+                .userName("Teacher")
+                .email("teacher@test.com")
+                .password("x")
+                .age(30)
+                .role(Role.TEACHER)
+                .build());
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            students.add(studentRepository.save(Student.builder()
+                    .userName("Student " + i)
+                    .email("student" + i + "@test.com")
+                    .password("x")
+                    .age(20)
+                    .role(Role.STUDENT)
+                    .build()));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Question settled = question(teacher, now.minusHours(1));
+        Question justExpired = question(teacher, now.minusMinutes(1));
+        Question open = question(teacher, now.plusHours(1));
+
+        Answer right = answer(settled, students.get(0), "B) Certa");
+        Answer wrong = answer(settled, students.get(1), "A) Errada");
+        Answer alreadyCorrected = answer(settled, students.get(2), "A) Errada");
+        correctionRepository.save(Correction.builder().answer(alreadyCorrected).teacher(teacher)
+                .grade(Grade.C).feedback("corrigida pelo professor").build());
+        Answer late = answer(justExpired, students.get(0), "B");
+        answer(open, students.get(0), "B");
+        entityManager.flush();
+        entityManager.clear();
+
+        scheduler.autoCorrectMultipleChoiceAnswers();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(correctionRepository.findByAnswerId(right.getId())).extracting(Correction::getGrade)
+                .containsExactly(Grade.A);
+        assertThat(correctionRepository.findByAnswerId(right.getId())).extracting(Correction::getPoints)
+                .containsExactly(1.0);
+        assertThat(correctionRepository.findByAnswerId(wrong.getId())).extracting(Correction::getGrade)
+                .containsExactly(Grade.F);
+        assertThat(correctionRepository.findByAnswerId(alreadyCorrected.getId())).extracting(Correction::getGrade)
+                .containsExactly(Grade.C);
+        assertThat(correctionRepository.findByAnswerId(late.getId())).extracting(Correction::getGrade)
+                .containsExactly(Grade.A);
+        assertThat(correctionRepository.count()).isEqualTo(4);
+
+        assertThat(questionRepository.findById(settled.getId()).orElseThrow().getAutoCorrectedAt()).isNotNull();
+        assertThat(questionRepository.findById(justExpired.getId()).orElseThrow().getAutoCorrectedAt()).isNull();
+        assertThat(questionRepository.findById(open.getId()).orElseThrow().getAutoCorrectedAt()).isNull();
+        assertThat(answerRepository.findPendingAutoCorrections(LocalDateTime.now(), 0, Limit.of(10))).isEmpty();
+    }
+
+    @Test
+    void answerCannotBeCorrectedTwice() {
+        Teacher teacher = teacherRepository.save(Teacher.builder()
+                .userName("Teacher")
+                .email("teacher@test.com")
+                .password("x")
+                .age(30)
+                .role(Role.TEACHER)
+                .build());
+        Student student = studentRepository.save(Student.builder()
+                .userName("Student")
+                .email("student@test.com")
+                .password("x")
+                .age(20)
+                .role(Role.STUDENT)
+                .build());
+        Answer answer = answer(question(teacher, LocalDateTime.now().minusHours(1)), student, "B");
+        correctionRepository.saveAndFlush(Correction.builder().answer(answer).teacher(teacher)
+                .grade(Grade.A).feedback("automática").build());
+
+        assertThatThrownBy(() -> correctionRepository.saveAndFlush(Correction.builder().answer(answer)
+                .teacher(teacher).grade(Grade.F).feedback("duplicada").build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private Question question(Teacher teacher, LocalDateTime expiresAt) {
+        Question question = Question.builder()
+                .title("Questão")
+                .description("description")
+                .teacher(teacher)
+                .type(QuestionType.MULTIPLE_CHOICE)
+                .multipleChoice(true)
+                .expiresAt(expiresAt)
+                .build();
+        question.setOptions(new ArrayList<>(List.of(
+                QuestionOption.builder().text("Errada").correct(false).question(question).build(),
+                QuestionOption.builder().text("Certa").correct(true).question(question).build())));
+        return questionRepository.save(question);
+    }
+
+    private Answer answer(Question question, Student student, String text) {
+        return answerRepository.save(Answer.builder().text(text).question(question).student(student).build());
+    }
+}
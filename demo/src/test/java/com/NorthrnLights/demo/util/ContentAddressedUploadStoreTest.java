@@ -0,0 +1,79 @@
+package com.NorthrnLights.demo.util;
+
+import com.NorthrnLights.demo.util.ContentAddressedUploadStore.StoredFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Armazenamento por conteúdo: nome pelo sha256, conteúdo repetido gravado uma vez e nenhum
+ * arquivo de staging deixado para trás.
+ */
+class ContentAddressedUploadStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private ContentAddressedUploadStore store;
+
+    @BeforeEach
+    void setup() {
+        UploadDirectoryManager uploadDirectoryManager = mock(UploadDirectoryManager.class);
+        when(uploadDirectoryManager.getUploadDir("answers")).thenReturn(directory.toString());
+        store = new ContentAddressedUploadStore(uploadDirectoryManager);
+    }
+
+    @Test
+    void identicalUploadsAreStoredOnceUnderTheirDigest() throws Exception {
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+        String digest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+
+        StoredFile first = store.store("answers", new MockMultipartFile("imageFile", "Foto Prova.JPEG", "image/jpeg", content));
+        StoredFile second = store.store("answers", new MockMultipartFile("imageFile", "outra.jpeg", "image/jpeg", content));
+
+        assertThat(first.digest()).isEqualTo(digest);
+        assertThat(first.urlPath()).isEqualTo("/uploads/answers/" + digest + ".jpg");
+        assertThat(first.created()).isTrue();
+        assertThat(second.file()).isEqualTo(first.file());
+        assertThat(second.created()).isFalse();
+        assertThat(Files.readAllBytes(first.file())).isEqualTo(content);
+        assertThat(files()).containsExactly(first.file());
+        assertThat(ContentAddressedUploadStore.isContentAddressed(first.file().getFileName().toString())).isTrue();
+    }
+
+    @Test
+    void oversizedUploadLeavesNoFileBehind() {
+        byte[] content = new byte[4096];
+
+        assertThatThrownBy(() -> store.store("answers",
+                Channels.newChannel(new ByteArrayInputStream(content)), "png", 1024))
+                .isInstanceOf(IOException.class);
+        assertThat(files()).isEmpty();
+    }
+
+    private List<Path> files() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.NorthrnLights.demo.util;
+
+import com.NorthrnLights.demo.domain.Answer;
+import com.NorthrnLights.demo.domain.Role;
+import com.NorthrnLights.demo.domain.Teacher;
+import com.NorthrnLights.demo.repository.AnswerRepository;
+import com.NorthrnLights.demo.repository.TeacherRepository;
+import com.NorthrnLights.demo.service.ImageDerivativeService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Limpeza de uploads: em lotes pequenos, apaga só o que está sem referência no banco e fora
+ * do período de carência (incluindo staging abandonado) e mantém caminhos antigos sem "/".
+ */
+@DataJpaTest
+@Import({OrphanedUploadSweeper.class, ContentAddressedUploadStore.class})
+@TestPropertySource(properties = "uploads.sweeper.batch-size=2")
+class OrphanedUploadSweeperTest {
+
+    @TempDir
+    Path baseDir;
+
+    @MockitoBean
+    private UploadDirectoryManager uploadDirectoryManager;
+
+    @MockitoBean
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private OrphanedUploadSweeper sweeper;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setup() {
+        when(uploadDirectoryManager.getUploadDir(anyString())).thenAnswer(invocation -> {
+            Path directory = baseDir.resolve(invocation.<String>getArgument(0));
+            Files.createDirectories(directory);
+            return directory.toString();
+        });
+    }
+
+    @Test
+    void deletesOnlyOldUnreferencedFiles() throws IOException {
+        Instant old = Instant.now().minus(Duration.ofDays(3));
+        Path referenced = write("answers/referenced.png", 10, old);
+        Path legacyReferenced = write("profiles/legacy.png", 20, old);
+        Path orphan = write("answers/orphan.png", 30, old);
+        Path recentOrphan = write("answers/recent.png", 40, Instant.now());
+        Path staleStaging = write("answers/.upload-abc.part", 50, old);
+        Path questionOrphan = write("questions/question.png", 60, old);
+
+        answerRepository.save(Answer.builder().text("com imagem").imagePath("/uploads/answers/referenced.png").build());
+        teacherRepository.save(Teacher.builder()
+                .userName("Teacher")
+                .email("teacher@test.com")
+                .password("x")
+                .age(30)
+                .role(Role.TEACHER)
+                .profileImage("uploads/profiles/legacy.png")
+                .build());
+        entityManager.flush();
+
+        long freed = 0;
+        while ((long) sweeper.stats().get("passesCompleted") == 0) {
+            freed += sweeper.sweepNextBatch();
+        }
+
+        assertThat(freed).isEqualTo(30 + 50 + 60);
+        assertThat(files()).containsExactlyInAnyOrder(referenced, legacyReferenced, recentOrphan);
+        assertThat(Files.exists(orphan)).isFalse();
+        assertThat(Files.exists(staleStaging)).isFalse();
+        assertThat(Files.exists(questionOrphan)).isFalse();
+        assertThat(sweeper.stats()).containsEntry("orphansDeleted", 2L).containsEntry("stagingDeleted", 1L);
+        verify(imageDerivativeService).deleteDerivatives("/uploads/answers/orphan.png");
+        verify(imageDerivativeService, never()).deleteDerivatives("/uploads/answers/referenced.png");
+    }
+
+    private Path write(String relative, int size, Instant modified) throws IOException {
+        Path file = baseDir.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+        return file;
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.walk(baseDir)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}